@@ -0,0 +1,142 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.AnalysisCache;
+import components.chord.Chord;
+import components.chord.ChordTypes;
+import components.chord.ChordValue;
+import components.chord.PitchClassSet;
+
+/**
+ * Describing every chord of a repetitive progression (type, bass and interval
+ * vector) with and without an {@code AnalysisCache}.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisCacheBenchmark {
+
+    /**
+     * Seed for the progression, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Number of chords in the progression.
+     */
+    private static final int LENGTH = 1 << 12;
+
+    /**
+     * Number of different chords the progression draws from.
+     */
+    @Param({ "16", "1024" })
+    public int vocabulary;
+
+    /**
+     * Implementation the progression is held in.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * The progression.
+     */
+    private Chord[] progression;
+
+    /**
+     * The cache under test, large enough for the whole vocabulary.
+     */
+    private AnalysisCache<String> cache;
+
+    /**
+     * Index of the next chord.
+     */
+    private int next;
+
+    /**
+     * Describes a chord.
+     *
+     * @param value
+     *            the pitch set
+     * @return its description
+     */
+    private static String describe(ChordValue value) {
+        int pcs = value.pitchClassSet();
+        String bass = "-";
+        if (value.size() > 0) {
+            bass = value.lowest();
+        }
+        return ChordTypes.type(pcs) + "/" + bass + " "
+                + Integer.toHexString(PitchClassSet.intervalVector(pcs));
+    }
+
+    /**
+     * Creates the progression and cache.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        Chord[] words = new Chord[this.vocabulary];
+        for (int i = 0; i < this.vocabulary; i++) {
+            words[i] = Chords.create(this.implementation);
+            int notes = 3 + random.nextInt(3);
+            for (int n = 0; n < notes; n++) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!words[i].containsPitch(p)) {
+                    words[i].addPitch(p);
+                }
+            }
+        }
+        this.progression = new Chord[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            this.progression[i] = words[random.nextInt(this.vocabulary)];
+        }
+        this.cache = new AnalysisCache<>(2 * this.vocabulary,
+                AnalysisCacheBenchmark::describe);
+        this.next = 0;
+    }
+
+    /**
+     * Describes the next chord from scratch.
+     *
+     * @return the description
+     */
+    @Benchmark
+    public String uncached() {
+        Chord c = this.progression[this.next];
+        this.next = (this.next + 1) & (LENGTH - 1);
+        return describe(ChordValue.of(c));
+    }
+
+    /**
+     * Describes the next chord through the cache.
+     *
+     * @return the description
+     */
+    @Benchmark
+    public String cached() {
+        Chord c = this.progression[this.next];
+        this.next = (this.next + 1) & (LENGTH - 1);
+        return this.cache.get(c);
+    }
+
+}
@@ -0,0 +1,120 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.BatchAnalyzer;
+import components.chord.Chord;
+import components.chord.ChordAnalyses;
+import components.chord.ChordBatch;
+
+/**
+ * Scaling of {@code BatchAnalyzer} with the number of worker threads.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    /**
+     * Seed for the corpus, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Most notes in a chord of the corpus.
+     */
+    private static final int MAX_CHORD_SIZE = 5;
+
+    /**
+     * Number of worker threads.
+     */
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    /**
+     * Number of chords in the corpus.
+     */
+    @Param({ "1048576" })
+    public int corpusSize;
+
+    /**
+     * The corpus.
+     */
+    private ChordBatch batch;
+
+    /**
+     * The analyzer under test.
+     */
+    private BatchAnalyzer analyzer;
+
+    /**
+     * Creates the corpus and the analyzer.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        Chord[] chords = new Chord[this.corpusSize];
+        for (int i = 0; i < this.corpusSize; i++) {
+            Chord c = Chords.create("Chord2");
+            int size = 1 + random.nextInt(MAX_CHORD_SIZE);
+            while (c.size() < size) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            chords[i] = c;
+        }
+        this.batch = ChordBatch.of(chords);
+        this.analyzer = new BatchAnalyzer(this.threads);
+    }
+
+    /**
+     * Shuts down the analyzer's pool.
+     */
+    @TearDown
+    public void tearDown() {
+        this.analyzer.close();
+    }
+
+    /**
+     * Finds the inversion of every chord.
+     *
+     * @return the inversions
+     */
+    @Benchmark
+    public int[] inversion() {
+        return this.analyzer.analyze(this.batch, ChordAnalyses.INVERSION);
+    }
+
+    /**
+     * Counts the common tones of every chord with the one before it.
+     *
+     * @return the counts
+     */
+    @Benchmark
+    public int[] commonTones() {
+        return this.analyzer.analyze(this.batch,
+                ChordAnalyses.COMMON_TONES_WITH_PREVIOUS);
+    }
+
+}
@@ -0,0 +1,92 @@
+package components.chord.benchmarks;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+
+/**
+ * Helpers shared by the chord benchmarks.
+ *
+ * @author Jake Meyer
+ */
+final class Chords {
+
+    /**
+     * Number of pitches between min and max, inclusive.
+     */
+    static final int PITCH_COUNT = 37;
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private Chords() {
+    }
+
+    /**
+     * Creates an empty chord of the named implementation.
+     *
+     * @param implementation
+     *            simple class name of the implementation
+     * @return a new, empty chord
+     */
+    static Chord create(String implementation) {
+        Chord result;
+        switch (implementation) {
+            case "Chord1":
+                result = new Chord1();
+                break;
+            case "Chord2":
+                result = new Chord2();
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown implementation: " + implementation);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a chord of the named implementation with {@code size} notes
+     * spread evenly over the whole range.
+     *
+     * @param implementation
+     *            simple class name of the implementation
+     * @param size
+     *            number of notes
+     * @return a new chord with {@code size} notes
+     */
+    static Chord spread(String implementation, int size) {
+        Chord result = create(implementation);
+        for (int i = 0; i < size; i++) {
+            result.addPitch(i * PITCH_COUNT / size);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a chord of the named implementation with {@code size} notes
+     * taken from the top of the range down, skipping every pitch in
+     * {@code reserved}.
+     *
+     * @param implementation
+     *            simple class name of the implementation
+     * @param size
+     *            number of notes
+     * @param reserved
+     *            pitch mask of pitches to leave out
+     * @return a new chord with {@code size} notes, none of them in
+     *         {@code reserved}
+     */
+    static Chord fill(String implementation, int size, long reserved) {
+        Chord result = create(implementation);
+        int p = PITCH_COUNT - 1;
+        while (result.size() < size) {
+            if ((reserved & (1L << p)) == 0) {
+                result.addPitch(p);
+            }
+            p--;
+        }
+        return result;
+    }
+
+}
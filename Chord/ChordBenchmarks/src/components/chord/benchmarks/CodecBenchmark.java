@@ -0,0 +1,158 @@
+package components.chord.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+
+/**
+ * Loading a corpus of chords from the binary encoding versus from the text of
+ * {@code toString}.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * Number of chords in the corpus.
+     */
+    private static final int CORPUS_SIZE = 1024;
+
+    /**
+     * Seed for the corpus, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Most bytes one encoded chord takes.
+     */
+    private static final int MAX_ENCODED_BYTES = 33;
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Number of notes in each chord.
+     */
+    @Param({ "3", "6" })
+    public int size;
+
+    /**
+     * The corpus.
+     */
+    private Chord[] corpus;
+
+    /**
+     * The corpus encoded with {@code writeTo}.
+     */
+    private ByteBuffer encoded;
+
+    /**
+     * Buffer the corpus is encoded into.
+     */
+    private ByteBuffer scratch;
+
+    /**
+     * The corpus as {@code toString} text.
+     */
+    private String[] text;
+
+    /**
+     * Chord each corpus entry is decoded into.
+     */
+    private Chord target;
+
+    /**
+     * Creates the corpus and its encodings.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        this.corpus = new Chord[CORPUS_SIZE];
+        this.text = new String[CORPUS_SIZE];
+        this.encoded = ByteBuffer.allocateDirect(CORPUS_SIZE * MAX_ENCODED_BYTES);
+        this.scratch = ByteBuffer.allocateDirect(CORPUS_SIZE * MAX_ENCODED_BYTES);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            Chord c = Chords.create(this.implementation);
+            while (c.size() < this.size) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            this.corpus[i] = c;
+            this.text[i] = c.toString();
+            c.writeTo(this.encoded);
+        }
+        this.encoded.flip();
+        this.target = Chords.create(this.implementation);
+    }
+
+    /**
+     * Encodes the corpus.
+     *
+     * @return the buffer
+     */
+    @Benchmark
+    public ByteBuffer encode() {
+        this.scratch.clear();
+        for (Chord c : this.corpus) {
+            c.writeTo(this.scratch);
+        }
+        return this.scratch;
+    }
+
+    /**
+     * Decodes the corpus from the binary encoding.
+     *
+     * @return the last chord decoded
+     */
+    @Benchmark
+    public Chord decodeBinary() {
+        ByteBuffer in = this.encoded.duplicate();
+        while (in.hasRemaining()) {
+            this.target.readFrom(in);
+        }
+        return this.target;
+    }
+
+    /**
+     * Decodes the corpus from its text, one note name at a time.
+     *
+     * @return the last chord decoded
+     */
+    @Benchmark
+    public Chord decodeText() {
+        for (String s : this.text) {
+            this.target.clear();
+            String body = s.substring(1, s.length() - 1);
+            for (String note : body.split(",")) {
+                this.target.add(note);
+            }
+        }
+        return this.target;
+    }
+
+}
@@ -0,0 +1,163 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.map.Map;
+
+/**
+ * Cost of creating, clearing and transferring chords.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Chord cleared and refilled by the benchmarks.
+     */
+    private Chord chord;
+
+    /**
+     * Second chord used as a transfer source.
+     */
+    private Chord other;
+
+    /**
+     * Seventh chord copied by the copy benchmarks.
+     */
+    private Chord seventh;
+
+    /**
+     * Creates the chords.
+     */
+    @Setup
+    public void setUp() {
+        this.chord = Chords.create(this.implementation);
+        this.other = Chords.create(this.implementation);
+        this.seventh = Chords.create(this.implementation);
+        this.seventh.add("G1");
+        this.seventh.add("B1");
+        this.seventh.add("D2");
+        this.seventh.add("F2");
+    }
+
+    /**
+     * Creates an empty chord.
+     *
+     * @return the new chord
+     */
+    @Benchmark
+    public Chord construct() {
+        return Chords.create(this.implementation);
+    }
+
+    /**
+     * Creates an empty chord through {@code newInstance}.
+     *
+     * @return the new chord
+     */
+    @Benchmark
+    public Chord newInstance() {
+        return this.chord.newInstance();
+    }
+
+    /**
+     * Creates a triad.
+     *
+     * @return the new chord
+     */
+    @Benchmark
+    public Chord constructTriad() {
+        Chord result = Chords.create(this.implementation);
+        result.add("C1");
+        result.add("E1");
+        result.add("G1");
+        return result;
+    }
+
+    /**
+     * Adds a note and clears the chord.
+     *
+     * @return the cleared chord
+     */
+    @Benchmark
+    public Chord clear() {
+        this.chord.add("C1");
+        this.chord.clear();
+        return this.chord;
+    }
+
+    /**
+     * Adds a note and transfers it to another chord.
+     *
+     * @return the receiving chord
+     */
+    @Benchmark
+    public Chord transferFrom() {
+        this.other.add("C1");
+        this.chord.transferFrom(this.other);
+        this.chord.clear();
+        return this.chord;
+    }
+
+    /**
+     * Copies a seventh chord with {@code copy}.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public Chord copy() {
+        return this.seventh.copy();
+    }
+
+    /**
+     * Copies a seventh chord the old way: a new instance, then each note
+     * added by name.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public Chord copyByNotes() {
+        Chord result = this.seventh.newInstance();
+        for (Map.Pair<Integer, String> note : this.seventh.currentNotes()) {
+            result.add(note.value());
+        }
+        return result;
+    }
+
+    /**
+     * Overwrites an existing chord with a seventh chord.
+     *
+     * @return the overwritten chord
+     */
+    @Benchmark
+    public Chord copyFrom() {
+        this.chord.copyFrom(this.seventh);
+        return this.chord;
+    }
+
+}
@@ -0,0 +1,167 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.ConcurrentChord;
+
+/**
+ * One shared "currently sounding" chord with three threads adding and
+ * removing notes and one thread reading it: {@code ConcurrentChord} against a
+ * {@code Chord1} behind a global lock.
+ *
+ * @author Jake Meyer
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+    /**
+     * Number of writer threads in each group.
+     */
+    private static final int WRITERS = 3;
+
+    /**
+     * The chord shared by one group of threads.
+     */
+    @State(Scope.Group)
+    public static class Shared {
+
+        /**
+         * The lock-free chord.
+         */
+        private ConcurrentChord concurrent;
+
+        /**
+         * The locked chord; every access holds its monitor.
+         */
+        private Chord locked;
+
+        /**
+         * Hands each writer its own pitch.
+         */
+        private final AtomicInteger nextPitch = new AtomicInteger();
+
+        /**
+         * Creates the chords, each with a few notes held throughout.
+         */
+        @Setup
+        public void setUp() {
+            this.concurrent = new ConcurrentChord();
+            this.locked = new Chord1();
+            for (int p = Chords.PITCH_COUNT / 2; p < Chords.PITCH_COUNT;
+                    p += 4) {
+                this.concurrent.addPitch(p);
+                this.locked.addPitch(p);
+            }
+        }
+
+    }
+
+    /**
+     * The pitch one writer thread adds and removes.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        /**
+         * The pitch, below the notes held throughout.
+         */
+        private int pitch;
+
+        /**
+         * Claims a pitch no other writer in the group uses.
+         *
+         * @param shared
+         *            the group's chord
+         */
+        @Setup
+        public void setUp(Shared shared) {
+            this.pitch = shared.nextPitch.getAndIncrement();
+        }
+
+    }
+
+    /**
+     * Adds and removes a note on the lock-free chord.
+     *
+     * @param shared
+     *            the group's chord
+     * @param writer
+     *            this thread's pitch
+     */
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(WRITERS)
+    public void concurrentWrite(Shared shared, Writer writer) {
+        shared.concurrent.addPitch(writer.pitch);
+        shared.concurrent.removePitch(writer.pitch);
+    }
+
+    /**
+     * Reads a consistent snapshot of the lock-free chord.
+     *
+     * @param shared
+     *            the group's chord
+     * @return the number of notes sounding
+     */
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public int concurrentRead(Shared shared) {
+        return shared.concurrent.snapshot().size();
+    }
+
+    /**
+     * Adds and removes a note on the locked chord.
+     *
+     * @param shared
+     *            the group's chord
+     * @param writer
+     *            this thread's pitch
+     */
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(WRITERS)
+    public void lockedWrite(Shared shared, Writer writer) {
+        synchronized (shared.locked) {
+            shared.locked.addPitch(writer.pitch);
+            shared.locked.removePitch(writer.pitch);
+        }
+    }
+
+    /**
+     * Reads the locked chord.
+     *
+     * @param shared
+     *            the group's chord
+     * @return the number of notes sounding
+     */
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public int lockedRead(Shared shared) {
+        synchronized (shared.locked) {
+            return shared.locked.size();
+        }
+    }
+
+}
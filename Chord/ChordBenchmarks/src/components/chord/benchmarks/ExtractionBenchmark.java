@@ -0,0 +1,106 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord;
+
+/**
+ * How lowest/highest extraction scales with chord size, from one note to the
+ * full range.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Number of notes in the chord.
+     */
+    @Param({ "1", "2", "4", "8", "16", "24", "37" })
+    public int size;
+
+    /**
+     * Chord under test.
+     */
+    private Chord chord;
+
+    /**
+     * Scratch space for drained notes.
+     */
+    private String[] drained;
+
+    /**
+     * Creates the chord.
+     */
+    @Setup
+    public void setUp() {
+        this.chord = Chords.spread(this.implementation, this.size);
+        this.drained = new String[this.size];
+    }
+
+    /**
+     * Reports the lowest and highest notes.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void lowestHighest(Blackhole bh) {
+        bh.consume(this.chord.lowest());
+        bh.consume(this.chord.highest());
+    }
+
+    /**
+     * Removes the lowest note and puts it back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord removeLowest() {
+        this.chord.add(this.chord.removeLowest());
+        return this.chord;
+    }
+
+    /**
+     * Removes every note lowest first, then puts them all back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord drain() {
+        int n = 0;
+        while (this.chord.size() > 0) {
+            this.drained[n] = this.chord.removeLowest();
+            n++;
+        }
+        for (int i = 0; i < n; i++) {
+            this.chord.add(this.drained[i]);
+        }
+        return this.chord;
+    }
+
+}
@@ -0,0 +1,99 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.chord.ChordMetrics;
+import components.chord.InstrumentedChord;
+
+/**
+ * Cost of {@code InstrumentedChord}: the same kernel calls on a bare chord,
+ * on a wrapped chord with metrics off, and on a wrapped chord with metrics on.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentedBenchmark {
+
+    /**
+     * The implementation wrapped.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * How the chord is used: bare, wrapped with metrics off, or wrapped with
+     * metrics on.
+     */
+    @Param({ "bare", "off", "on" })
+    public String mode;
+
+    /**
+     * The chord under test.
+     */
+    private Chord chord;
+
+    /**
+     * Creates the chord and sets the metrics switch.
+     */
+    @Setup
+    public void setUp() {
+        Chord inner = Chords.spread(this.implementation, 4);
+        this.chord = inner;
+        if (!this.mode.equals("bare")) {
+            this.chord = new InstrumentedChord(inner);
+        }
+        ChordMetrics.reset();
+        ChordMetrics.setEnabled(this.mode.equals("on"));
+    }
+
+    /**
+     * Turns metrics back off.
+     */
+    @TearDown
+    public void tearDown() {
+        ChordMetrics.setEnabled(false);
+    }
+
+    /**
+     * Adds and removes a pitch, checking membership in between.
+     *
+     * @return whether the pitch was present
+     */
+    @Benchmark
+    public boolean addContainsRemove() {
+        this.chord.addPitch(1);
+        boolean result = this.chord.containsPitch(1);
+        this.chord.removePitch(1);
+        return result;
+    }
+
+    /**
+     * Reads the size.
+     *
+     * @return the size
+     */
+    @Benchmark
+    public int size() {
+        return this.chord.size();
+    }
+
+}
@@ -0,0 +1,161 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord;
+import components.chord.PitchSpeller;
+
+/**
+ * Cost of the kernel methods at several chord sizes.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelBenchmark {
+
+    /**
+     * Pitch kept out of the chord so it can be added and removed.
+     */
+    private static final int PROBE = 2;
+
+    /**
+     * Name of {@code PROBE}.
+     */
+    private static final String PROBE_NAME = "D0";
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Number of notes in the chord.
+     */
+    @Param({ "1", "4", "12", "24", "36" })
+    public int size;
+
+    /**
+     * Chord under test.
+     */
+    private Chord chord;
+
+    /**
+     * Name of a note in the chord.
+     */
+    private String member;
+
+    /**
+     * Pitch of {@code member}.
+     */
+    private int memberPitch;
+
+    /**
+     * Creates the chord.
+     */
+    @Setup
+    public void setUp() {
+        this.chord = Chords.fill(this.implementation, this.size, 1L << PROBE);
+        this.member = this.chord.highest();
+        this.memberPitch = PitchSpeller.parse(this.member);
+    }
+
+    /**
+     * Adds and removes a note by name.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord addRemove() {
+        this.chord.add(PROBE_NAME);
+        this.chord.remove(PROBE_NAME);
+        return this.chord;
+    }
+
+    /**
+     * Adds and removes a note by pitch.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord addRemovePitch() {
+        this.chord.addPitch(PROBE);
+        this.chord.removePitch(PROBE);
+        return this.chord;
+    }
+
+    /**
+     * Looks up a note that is in the chord and one that is not, by name.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void contains(Blackhole bh) {
+        bh.consume(this.chord.contains(this.member));
+        bh.consume(this.chord.contains(PROBE_NAME));
+    }
+
+    /**
+     * Looks up a note that is in the chord and one that is not, by pitch.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void containsPitch(Blackhole bh) {
+        bh.consume(this.chord.containsPitch(this.memberPitch));
+        bh.consume(this.chord.containsPitch(PROBE));
+    }
+
+    /**
+     * Reports the size.
+     *
+     * @return the size
+     */
+    @Benchmark
+    public int size() {
+        return this.chord.size();
+    }
+
+    /**
+     * Reports both words of the pitch mask.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void pitchMask(Blackhole bh) {
+        bh.consume(this.chord.pitchMask(0));
+        bh.consume(this.chord.pitchMask(1));
+    }
+
+    /**
+     * Reads the notes as a map.
+     *
+     * @return the map
+     */
+    @Benchmark
+    public Object currentNotes() {
+        return this.chord.currentNotes();
+    }
+
+}
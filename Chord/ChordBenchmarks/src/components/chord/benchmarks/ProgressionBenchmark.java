@@ -0,0 +1,159 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.CommonToneRuns;
+import components.chord.KeyEstimator;
+import components.chord.PitchClassSet;
+import components.chord.Progression;
+import components.chord.RangeTracker;
+
+/**
+ * Following a live progression: appending a chord to a {@code Progression}
+ * with incremental analyzers attached, against recomputing the windowed key
+ * weights from scratch after each chord.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressionBenchmark {
+
+    /**
+     * Seed for the input, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Number of input chords cycled through.
+     */
+    private static final int INPUT = 1 << 12;
+
+    /**
+     * Number of chords the key is estimated over.
+     */
+    @Param({ "8", "64" })
+    public int window;
+
+    /**
+     * Pitch masks of the input chords.
+     */
+    private long[] input;
+
+    /**
+     * Progression appended to by {@code appendIncremental}.
+     */
+    private Progression progression;
+
+    /**
+     * Key estimate updated by {@code appendIncremental}.
+     */
+    private KeyEstimator key;
+
+    /**
+     * Progression appended to by {@code appendRecompute}.
+     */
+    private Progression plain;
+
+    /**
+     * Index of the next input chord.
+     */
+    private int next;
+
+    /**
+     * Creates the input and progressions.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        this.input = new long[INPUT];
+        long mask = 0L;
+        for (int i = 0; i < INPUT; i++) {
+            for (int change = random.nextInt(4); change > 0; change--) {
+                mask ^= 1L << (Chords.PITCH_COUNT / 2 + random.nextInt(
+                        Chords.PITCH_COUNT));
+            }
+            this.input[i] = mask;
+        }
+        this.restart();
+    }
+
+    /**
+     * Starts both progressions over, so they do not grow without bound.
+     */
+    private void restart() {
+        this.progression = new Progression();
+        this.key = new KeyEstimator(this.window);
+        this.progression.attach(this.key);
+        this.progression.attach(new CommonToneRuns());
+        this.progression.attach(new RangeTracker());
+        this.plain = new Progression();
+        this.next = 0;
+    }
+
+    /**
+     * Moves to the next input chord, starting over after the last.
+     */
+    private void advance() {
+        this.next++;
+        if (this.next == INPUT) {
+            this.restart();
+        }
+    }
+
+    /**
+     * Appends a chord and lets the analyzers update from its delta.
+     *
+     * @return the estimated tonic
+     */
+    @Benchmark
+    public int appendIncremental() {
+        this.progression.append(this.input[this.next], 0L);
+        int result = this.key.tonic();
+        this.advance();
+        return result;
+    }
+
+    /**
+     * Appends a chord and recomputes the window's pitch-class weights.
+     *
+     * @return a checksum of the weights
+     */
+    @Benchmark
+    public int appendRecompute() {
+        this.plain.append(this.input[this.next], 0L);
+        int[] weight = new int[PitchClassSet.SIZE];
+        int last = this.plain.size() - 1;
+        for (int i = Math.max(0, last - this.window + 1); i <= last; i++) {
+            int pcs = PitchClassSet.of(this.plain.pitchMask(i, 0),
+                    this.plain.pitchMask(i, 1));
+            for (int pc = 0; pc < PitchClassSet.SIZE; pc++) {
+                weight[pc] += pcs >>> pc & 1;
+            }
+        }
+        int result = 0;
+        for (int pc = 0; pc < PitchClassSet.SIZE; pc++) {
+            result = 31 * result + weight[pc];
+        }
+        this.advance();
+        return result;
+    }
+
+}
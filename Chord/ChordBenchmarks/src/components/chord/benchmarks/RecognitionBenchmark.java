@@ -0,0 +1,103 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord;
+import components.chord.ChordTypes;
+import components.chord.PitchClassSet;
+
+/**
+/**
+ * Cost of recognizing the chord type of every chord in a corpus.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecognitionBenchmark {
+
+    /**
+     * Number of chords in the corpus.
+     */
+    private static final int LENGTH = 100_000;
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * The corpus.
+     */
+    private Chord[] corpus;
+
+    /**
+     * Creates a corpus of random three- to five-note chords.
+     */
+    @Setup
+    public void setUp() {
+        final int minNotes = 3;
+        final int extraNotes = 3;
+        Random random = new Random(1L);
+        this.corpus = new Chord[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            Chord c = Chords.create(this.implementation);
+            int notes = minNotes + random.nextInt(extraNotes);
+            while (c.size() < notes) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            this.corpus[i] = c;
+        }
+    }
+
+    /**
+     * Looks up the type and root of every chord.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void typeAndRoot(Blackhole bh) {
+        for (Chord c : this.corpus) {
+            int pcs = PitchClassSet.of(c);
+            bh.consume(ChordTypes.type(pcs));
+            bh.consume(ChordTypes.root(pcs));
+        }
+    }
+
+    /**
+     * Computes the prime form of every chord.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void primeForm(Blackhole bh) {
+        for (Chord c : this.corpus) {
+            bh.consume(PitchClassSet.primeForm(PitchClassSet.of(c)));
+        }
+    }
+
+}
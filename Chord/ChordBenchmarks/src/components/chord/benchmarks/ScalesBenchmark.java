@@ -0,0 +1,99 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.chord.PitchClassSet;
+import components.chord.Scales;
+
+/**
+ * Finding the scales that contain a chord: the {@code Scales} index against
+ * testing each scale's notes with {@code contains}.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalesBenchmark {
+
+    /**
+     * Implementation of the chord.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Notes in the chord.
+     */
+    @Param({ "3", "5" })
+    public int size;
+
+    /**
+     * The chord.
+     */
+    private Chord chord;
+
+    /**
+     * Creates the chord.
+     */
+    @Setup
+    public void setUp() {
+        this.chord = Chords.spread(this.implementation, this.size);
+    }
+
+    /**
+     * Counts the containing scales with the index.
+     *
+     * @return the number of scales
+     */
+    @Benchmark
+    public int index() {
+        int pcs = PitchClassSet.of(this.chord);
+        int result = 0;
+        for (int w = 0; w < Scales.WORDS; w++) {
+            result += Long.bitCount(Scales.containing(pcs, w));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the containing scales by checking, for every scale, whether
+     * each note of the chord is in it.
+     *
+     * @return the number of scales
+     */
+    @Benchmark
+    public int naive() {
+        int result = 0;
+        for (int s = 0; s < Scales.COUNT; s++) {
+            int scale = Scales.pitchClassSet(s);
+            boolean all = true;
+            for (int p = 0; p < Chords.PITCH_COUNT && all; p++) {
+                if (this.chord.containsPitch(p)) {
+                    all = (scale >>> (p % PitchClassSet.SIZE) & 1) != 0;
+                }
+            }
+            if (all) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,181 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord;
+
+/**
+ * Cost of the secondary methods at several chord sizes. Each benchmark
+ * undoes its own change so the chord is the same on every invocation.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecondaryBenchmark {
+
+    /**
+     * Pitches kept out of the background notes: Db0, D0, Eb0 and D1.
+     */
+    private static final long RESERVED = (1L << 1) | (1L << 2) | (1L << 3)
+            | (1L << 14);
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * Number of background notes in the chord.
+     */
+    @Param({ "1", "4", "12", "24", "33" })
+    public int size;
+
+    /**
+     * Chord with D0 and {@code size} background notes.
+     */
+    private Chord chord;
+
+    /**
+     * Chord with D#0 and the same background notes.
+     */
+    private Chord sharpChord;
+
+    /**
+     * Chord equal to {@code chord}.
+     */
+    private Chord copy;
+
+    /**
+     * Creates the chords.
+     */
+    @Setup
+    public void setUp() {
+        this.chord = Chords.fill(this.implementation, this.size, RESERVED);
+        this.chord.add("D0");
+        this.sharpChord = Chords.fill(this.implementation, this.size,
+                RESERVED);
+        this.sharpChord.add("D#0");
+        this.copy = Chords.fill(this.implementation, this.size, RESERVED);
+        this.copy.add("D0");
+    }
+
+    /**
+     * Flattens a note and sharpens it back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord flatSharp() {
+        this.chord.flat("D0");
+        this.chord.sharp("Db0");
+        return this.chord;
+    }
+
+    /**
+     * Makes a sharp note natural and restores it.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord natural() {
+        this.sharpChord.natural("D#0");
+        this.sharpChord.remove("D0");
+        this.sharpChord.add("D#0");
+        return this.sharpChord;
+    }
+
+    /**
+     * Raises a note by an octave and lowers it back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord octaveUpDown() {
+        this.chord.octaveUp("D0");
+        this.chord.octaveDown("D1");
+        return this.chord;
+    }
+
+    /**
+     * Removes the lowest note and puts it back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord removeLowest() {
+        this.chord.add(this.chord.removeLowest());
+        return this.chord;
+    }
+
+    /**
+     * Removes the highest note and puts it back.
+     *
+     * @return the chord
+     */
+    @Benchmark
+    public Chord removeHighest() {
+        this.chord.add(this.chord.removeHighest());
+        return this.chord;
+    }
+
+    /**
+     * Compares two equal chords.
+     *
+     * @return whether they are equal
+     */
+    @Benchmark
+    public boolean equalsEqual() {
+        return this.chord.equals(this.copy);
+    }
+
+    /**
+     * Hashes the chord.
+     *
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeChord() {
+        return this.chord.hashCode();
+    }
+
+    /**
+     * Prints the chord.
+     *
+     * @return the string form
+     */
+    @Benchmark
+    public String toStringChord() {
+        return this.chord.toString();
+    }
+
+    /**
+     * Visits every pitch.
+     *
+     * @param bh
+     *            sink for visited pitches
+     */
+    @Benchmark
+    public void forEachPitch(Blackhole bh) {
+        this.chord.forEachPitch(bh::consume);
+    }
+
+}
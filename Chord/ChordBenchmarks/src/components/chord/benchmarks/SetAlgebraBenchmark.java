@@ -0,0 +1,135 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord;
+import components.map.Map;
+
+/**
+/**
+ * Cost of comparing adjacent chords of a corpus with the set operations
+ * versus note-by-note {@code contains} checks.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetAlgebraBenchmark {
+
+    /**
+     * Number of chords in the corpus.
+     */
+    private static final int LENGTH = 100_000;
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * The corpus.
+     */
+    private Chord[] corpus;
+
+    /**
+     * Scratch chord for the in-place operations.
+     */
+    private Chord scratch;
+
+    /**
+     * Creates a corpus of random four-note chords.
+     */
+    @Setup
+    public void setUp() {
+        final int notes = 4;
+        Random random = new Random(1L);
+        this.corpus = new Chord[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            Chord c = Chords.create(this.implementation);
+            while (c.size() < notes) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            this.corpus[i] = c;
+        }
+        this.scratch = Chords.create(this.implementation);
+    }
+
+    /**
+     * Counts common tones of adjacent chords with {@code commonToneCount}.
+     *
+     * @return total common tones
+     */
+    @Benchmark
+    public long commonToneCount() {
+        long total = 0;
+        for (int i = 1; i < LENGTH; i++) {
+            total += this.corpus[i - 1].commonToneCount(this.corpus[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Counts common tones of adjacent chords by checking each note of one in
+     * the other.
+     *
+     * @return total common tones
+     */
+    @Benchmark
+    public long commonToneCountByContains() {
+        long total = 0;
+        for (int i = 1; i < LENGTH; i++) {
+            Chord previous = this.corpus[i - 1];
+            for (Map.Pair<Integer, String> note : this.corpus[i]
+                    .currentNotes()) {
+                if (previous.contains(note.value())) {
+                    total++;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Builds the union, intersection and difference of adjacent chords.
+     *
+     * @param bh
+     *            sink for results
+     */
+    @Benchmark
+    public void unionIntersectDifference(Blackhole bh) {
+        for (int i = 1; i < LENGTH; i++) {
+            Chord previous = this.corpus[i - 1];
+            Chord current = this.corpus[i];
+            this.scratch.clear();
+            this.scratch.union(previous);
+            this.scratch.union(current);
+            bh.consume(this.scratch.size());
+            this.scratch.intersect(previous);
+            this.scratch.difference(current);
+            bh.consume(this.scratch.isSubsetOf(previous));
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.BatchAnalyzer;
+import components.chord.Chord;
+import components.chord.ChordBatch;
+import components.chord.ChordDistance;
+import components.chord.ChordDistances;
+import components.chord.SimilarityIndex;
+
+/**
+ * Top-20 nearest-chord queries on large corpora: the BK-tree of
+ * {@code SimilarityIndex} against its popcount scan and a scan through the
+ * general {@code ChordDistance} call, one query at a time and in parallel
+ * batches.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimilarityBenchmark {
+
+    /**
+     * Seed for the corpus and queries, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Most notes in a chord of the corpus.
+     */
+    private static final int MAX_CHORD_SIZE = 5;
+
+    /**
+     * Number of chords wanted per query.
+     */
+    private static final int K = 20;
+
+    /**
+     * Number of distinct queries, cycled through.
+     */
+    private static final int QUERY_COUNT = 256;
+
+    /**
+     * Number of chords in the corpus.
+     */
+    @Param({ "1000000", "10000000" })
+    public int corpusSize;
+
+    /**
+     * The index under test, on Hamming distance.
+     */
+    private SimilarityIndex index;
+
+    /**
+     * The query masks: query {@code i} is at {@code 2i} and {@code 2i + 1}.
+     */
+    private long[] queries;
+
+    /**
+     * The queries as a batch.
+     */
+    private ChordBatch batch;
+
+    /**
+     * Runs the batch queries.
+     */
+    private BatchAnalyzer analyzer;
+
+    /**
+     * Hamming distance hidden behind a distinct object, so {@code scan} takes
+     * its general path.
+     */
+    private ChordDistance general;
+
+    /**
+     * Position of the next query.
+     */
+    private int next;
+
+    /**
+     * Returns random pitch masks for a chord of 1 to {@code MAX_CHORD_SIZE}
+     * notes.
+     *
+     * @param random
+     *            the source of randomness
+     * @return pitches 0 through 63 of the chord
+     */
+    private static long randomChord(Random random) {
+        int size = 1 + random.nextInt(MAX_CHORD_SIZE);
+        long result = 0L;
+        while (Long.bitCount(result) < size) {
+            result |= 1L << random.nextInt(Chords.PITCH_COUNT);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the corpus, the index, and the queries.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        this.index = new SimilarityIndex(ChordDistances.HAMMING);
+        for (int i = 0; i < this.corpusSize; i++) {
+            this.index.add(randomChord(random), 0L);
+        }
+        this.queries = new long[2 * QUERY_COUNT];
+        Chord[] chords = new Chord[QUERY_COUNT];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            this.queries[2 * q] = randomChord(random);
+            chords[q] = Chords.create("Chord2");
+            long remaining = this.queries[2 * q];
+            while (remaining != 0) {
+                chords[q].addPitch(Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+        this.batch = ChordBatch.of(chords);
+        this.analyzer = new BatchAnalyzer(
+                Runtime.getRuntime().availableProcessors());
+        this.general = (aLow, aHigh, bLow, bHigh) -> ChordDistances.HAMMING
+                .distance(aLow, aHigh, bLow, bHigh);
+        this.next = 0;
+    }
+
+    /**
+     * Shuts down the analyzer's pool.
+     */
+    @TearDown
+    public void tearDown() {
+        this.analyzer.close();
+    }
+
+    /**
+     * Moves to the next query.
+     *
+     * @return the position of the query's low word
+     */
+    private int nextQuery() {
+        int result = 2 * this.next;
+        this.next = (this.next + 1) % QUERY_COUNT;
+        return result;
+    }
+
+    /**
+     * Finds the nearest chords with the BK-tree.
+     *
+     * @return the chord numbers
+     */
+    @Benchmark
+    public int[] tree() {
+        int q = this.nextQuery();
+        return this.index.nearest(this.queries[q], this.queries[q + 1], K);
+    }
+
+    /**
+     * Finds the nearest chords with the popcount scan.
+     *
+     * @return the chord numbers
+     */
+    @Benchmark
+    public int[] popcountScan() {
+        int q = this.nextQuery();
+        return this.index.scan(this.queries[q], this.queries[q + 1], K);
+    }
+
+    /**
+     * Finds the nearest chords with a scan through the general distance call.
+     *
+     * @return the chord numbers
+     */
+    @Benchmark
+    public int[] generalScan() {
+        int q = this.nextQuery();
+        return this.index.scan(this.general, this.queries[q],
+                this.queries[q + 1], K);
+    }
+
+    /**
+     * Finds the nearest chords to every query at once with the BK-tree, on
+     * every processor.
+     *
+     * @return the chord numbers for each query
+     */
+    @Benchmark
+    public int[][] parallelBatch() {
+        return this.index.nearest(this.batch, K, this.analyzer);
+    }
+
+}
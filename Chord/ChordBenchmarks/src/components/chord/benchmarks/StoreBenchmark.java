@@ -0,0 +1,187 @@
+package components.chord.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.chord.ChordStore;
+import components.chord.StoredChord;
+
+/**
+ * Scanning, filtering and transposing a corpus held in a memory-mapped
+ * {@code ChordStore} versus the same corpus as an array of heap chords.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+    /**
+     * Seed for the corpus, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Notes in each chord of the corpus.
+     */
+    private static final int CHORD_SIZE = 4;
+
+    /**
+     * Pitch mask of C0, E0 and G0.
+     */
+    private static final long TRIAD = (1L << 0) | (1L << 4) | (1L << 7);
+
+    /**
+     * Number of chords in the corpus.
+     */
+    @Param({ "1048576" })
+    public int corpusSize;
+
+    /**
+     * Implementation of the heap chords.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * The corpus on the heap.
+     */
+    private Chord[] heap;
+
+    /**
+     * File holding {@code store}.
+     */
+    private Path file;
+
+    /**
+     * The corpus in a mapped store.
+     */
+    private ChordStore store;
+
+    /**
+     * View used to scan {@code store}.
+     */
+    private StoredChord view;
+
+    /**
+     * Creates the corpus in both forms.
+     *
+     * @throws IOException
+     *             if the store file cannot be created
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(SEED);
+        this.file = Files.createTempFile("chords", ".store");
+        this.store = ChordStore.create(this.file, this.corpusSize, "C0",
+                "C3", false, false);
+        this.heap = new Chord[this.corpusSize];
+        for (int i = 0; i < this.corpusSize; i++) {
+            Chord c = Chords.create(this.implementation);
+            while (c.size() < CHORD_SIZE) {
+                int p = random.nextInt(Chords.PITCH_COUNT - 12);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            this.heap[i] = c;
+            this.store.append(c);
+        }
+        this.view = this.store.view(0);
+    }
+
+    /**
+     * Removes the store file.
+     *
+     * @throws IOException
+     *             if the store cannot be closed or deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        this.store.close();
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Counts the heap chords containing a C major triad.
+     *
+     * @return the count
+     */
+    @Benchmark
+    public int filterHeap() {
+        int count = 0;
+        for (Chord c : this.heap) {
+            if ((c.pitchMask(0) & TRIAD) == TRIAD) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the stored chords containing a C major triad.
+     *
+     * @return the count
+     */
+    @Benchmark
+    public int filterStore() {
+        int count = 0;
+        for (int i = 0; i < this.store.size(); i++) {
+            if ((this.store.pitchMask(i, 0) & TRIAD) == TRIAD) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Transposes every heap chord up an octave and back.
+     *
+     * @return the corpus
+     */
+    @Benchmark
+    public Chord[] transposeHeap() {
+        for (Chord c : this.heap) {
+            c.transpose(12);
+            c.transpose(-12);
+        }
+        return this.heap;
+    }
+
+    /**
+     * Transposes every stored chord up an octave and back through one view.
+     *
+     * @return the store
+     */
+    @Benchmark
+    public ChordStore transposeStore() {
+        for (int i = 0; i < this.store.size(); i++) {
+            this.view.moveTo(i);
+            this.view.transpose(12);
+            this.view.transpose(-12);
+        }
+        return this.store;
+    }
+
+}
@@ -0,0 +1,115 @@
+package components.chord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+
+/**
+/**
+ * Cost of transposing a progression into all twelve keys, whole chords at a
+ * time versus note by note.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransposeBenchmark {
+
+    /**
+     * Number of chords in the progression.
+     */
+    private static final int LENGTH = 1000;
+
+    /**
+     * Number of keys.
+     */
+    private static final int KEYS = 12;
+
+    /**
+     * Implementation under test.
+     */
+    @Param({ "Chord1", "Chord2" })
+    public String implementation;
+
+    /**
+     * The progression, all within the lowest octave so every key fits.
+     */
+    private Chord[] progression;
+
+    /**
+     * Creates the progression.
+     */
+    @Setup
+    public void setUp() {
+        final int[][] shapes = { { 0, 4, 7 }, { 2, 5, 9 }, { 4, 7, 11 },
+                { 5, 9, 12 }, { 7, 11, 14, 17 } };
+        this.progression = new Chord[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            Chord c = Chords.create(this.implementation);
+            for (int p : shapes[i % shapes.length]) {
+                c.addPitch(p);
+            }
+            this.progression[i] = c;
+        }
+    }
+
+    /**
+     * Moves every chord into every key and back with {@code transpose}.
+     *
+     * @return the progression
+     */
+    @Benchmark
+    public Chord[] transpose() {
+        for (int k = 1; k < KEYS; k++) {
+            for (Chord c : this.progression) {
+                c.transpose(k);
+                c.transpose(-k);
+            }
+        }
+        return this.progression;
+    }
+
+    /**
+     * Moves every chord into every key and back one note at a time with
+     * {@code transposePitch}, highest note first going up and lowest first
+     * going down so no two notes collide.
+     *
+     * @return the progression
+     */
+    @Benchmark
+    public Chord[] noteByNote() {
+        for (int k = 1; k < KEYS; k++) {
+            for (Chord c : this.progression) {
+                long pitches = c.pitchMask(0);
+                for (int p = Long.SIZE - 1; p >= 0; p--) {
+                    if ((pitches & (1L << p)) != 0) {
+                        c.transposePitch(p, k);
+                    }
+                }
+                for (int p = 0; p < Long.SIZE; p++) {
+                    if ((pitches & (1L << p)) != 0) {
+                        c.transposePitch(p + k, -k);
+                    }
+                }
+            }
+        }
+        return this.progression;
+    }
+
+}
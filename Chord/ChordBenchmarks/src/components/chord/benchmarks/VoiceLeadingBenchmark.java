@@ -0,0 +1,144 @@
+package components.chord.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import components.chord.Chord;
+import components.chord.ChordBatch;
+import components.chord.VoiceLeading;
+
+/**
+ * Scoring a large candidate set against one chord with {@code VoiceLeading}.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoiceLeadingBenchmark {
+
+    /**
+     * Seed for the candidates, so every run sees the same chords.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Number of candidate pairs cycled through by {@code distanceCached}.
+     */
+    private static final int CACHED_PAIRS = 1 << 10;
+
+    /**
+     * Number of candidates.
+     */
+    @Param({ "10000" })
+    public int candidateCount;
+
+    /**
+     * Notes in the source chord and in each candidate.
+     */
+    @Param({ "3", "4", "6" })
+    public int size;
+
+    /**
+     * The chord voice leadings start from.
+     */
+    private Chord source;
+
+    /**
+     * The candidates.
+     */
+    private ChordBatch candidates;
+
+    /**
+     * The engine under test.
+     */
+    private VoiceLeading voiceLeading;
+
+    /**
+     * Index of the next candidate for {@code distanceCached}.
+     */
+    private int next;
+
+    /**
+     * Creates the source and candidates.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        this.source = Chords.spread("Chord2", this.size);
+        Chord[] chords = new Chord[this.candidateCount];
+        for (int i = 0; i < this.candidateCount; i++) {
+            Chord c = Chords.create("Chord2");
+            while (c.size() < this.size) {
+                int p = random.nextInt(Chords.PITCH_COUNT);
+                if (!c.containsPitch(p)) {
+                    c.addPitch(p);
+                }
+            }
+            chords[i] = c;
+        }
+        this.candidates = ChordBatch.of(chords);
+        this.voiceLeading = new VoiceLeading();
+        this.next = 0;
+    }
+
+    /**
+     * Scores every candidate.
+     *
+     * @return the distances
+     */
+    @Benchmark
+    public int[] distances() {
+        return this.voiceLeading.distances(this.source, this.candidates);
+    }
+
+    /**
+     * Finds the best candidate.
+     *
+     * @return its position
+     */
+    @Benchmark
+    public int best() {
+        return this.voiceLeading.best(this.source, this.candidates);
+    }
+
+    /**
+     * Sorts every candidate by distance.
+     *
+     * @return the positions in order
+     */
+    @Benchmark
+    public int[] rank() {
+        return this.voiceLeading.rank(this.source, this.candidates);
+    }
+
+    /**
+     * Scores one pair through the cache; after warm-up every pair is a hit.
+     *
+     * @return the distance
+     */
+    @Benchmark
+    public int distanceCached() {
+        int c = this.next;
+        this.next = (c + 1) & (CACHED_PAIRS - 1);
+        return this.voiceLeading.distance(this.source.pitchMask(0),
+                this.source.pitchMask(1), this.candidates.pitchMask(c, 0),
+                this.candidates.pitchMask(c, 1));
+    }
+
+}
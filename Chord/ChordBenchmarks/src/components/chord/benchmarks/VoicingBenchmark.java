@@ -0,0 +1,109 @@
+package components.chord.benchmarks;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import components.chord.Chord2;
+import components.chord.VoicingGenerator;
+
+/**
+ * Enumerating the voicings of a seventh chord over five octaves with
+ * {@code VoicingGenerator}: counting, iterating, and sequential and parallel
+ * streams.
+ *
+ * @author Jake Meyer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoicingBenchmark {
+
+    /**
+     * Pitch classes of a dominant seventh on C.
+     */
+    private static final int DOMINANT_SEVENTH = 1 << 0 | 1 << 4 | 1 << 7
+            | 1 << 10;
+
+    /**
+     * Number of voices.
+     */
+    @Param({ "4", "6" })
+    public int voices;
+
+    /**
+     * The generator under test.
+     */
+    private VoicingGenerator generator;
+
+    /**
+     * Creates the generator.
+     */
+    @Setup
+    public void setUp() {
+        this.generator = new VoicingGenerator(new Chord2("C1", "C6"),
+                DOMINANT_SEVENTH).voices(this.voices).maxSpan(24)
+                        .lowIntervalLimit("C3", 7);
+    }
+
+    /**
+     * Counts the voicings without creating chords.
+     *
+     * @return the count
+     */
+    @Benchmark
+    public long count() {
+        return this.generator.count();
+    }
+
+    /**
+     * Creates every voicing through the iterator.
+     *
+     * @param bh
+     *            sink for the voicings
+     */
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        Iterator<?> it = this.generator.iterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    /**
+     * Creates every voicing through a sequential stream.
+     *
+     * @return the count
+     */
+    @Benchmark
+    public long stream() {
+        return this.generator.stream().filter(c -> c.size() > 0).count();
+    }
+
+    /**
+     * Creates every voicing through a parallel stream, split on the bass.
+     *
+     * @return the count
+     */
+    @Benchmark
+    public long parallelStream() {
+        return this.generator.stream().parallel().filter(c -> c.size() > 0)
+                .count();
+    }
+
+}
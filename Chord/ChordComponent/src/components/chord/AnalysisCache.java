@@ -0,0 +1,288 @@
+package components.chord;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizes an analysis of chords, keyed by pitch set. Any {@code Chord}
+ * implementation can be looked up: the key is the chord's pitch mask, the
+ * same set of pitches {@code currentNotes} lists, taken as a
+ * {@code ChordValue}, so chords with the same notes share one entry whatever
+ * their class or spelling. Progressions repeat heavily, so most lookups find
+ * the result already computed.
+ *
+ * <p>
+ * The cache holds at most {@code capacity} results. It is split into
+ * stripes by key hash, each a least-recently-used map with its own lock, so
+ * threads looking up different chords seldom wait for one another. The
+ * analysis runs outside the lock; if two threads miss on the same chord at
+ * once both compute it and the first result stored is kept, so the analysis
+ * should be a pure function of the pitch set.
+ * </p>
+ *
+ * @param <V>
+ *            type of the analysis result
+ * @author Jake Meyer
+ */
+public final class AnalysisCache<V> {
+
+    /**
+     * Fewest entries a stripe is given.
+     */
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    /**
+     * Golden-ratio multiplier used to spread key hashes over the stripes.
+     */
+    private static final int SPREAD = 0x9E3779B9;
+
+    /**
+     * The analysis memoized.
+     */
+    private final Function<ChordValue, V> analysis;
+
+    /**
+     * The stripes; a power of two in number.
+     */
+    private final Stripe<V>[] stripes;
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Number of lookups that ran the analysis.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Number of results dropped to make room.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * One lock-guarded part of the cache.
+     *
+     * @param <V>
+     *            type of the analysis result
+     */
+    private static final class Stripe<V> extends LinkedHashMap<ChordValue, V> {
+
+        /**
+         * Serialization version; stripes are never serialized.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Most entries this stripe holds.
+         */
+        private final int capacity;
+
+        /**
+         * Counter of evictions, shared by every stripe.
+         */
+        private final transient LongAdder evictions;
+
+        /**
+         * Constructor for an empty stripe.
+         *
+         * @param capacity
+         *            most entries held
+         * @param evictions
+         *            counter of evictions
+         */
+        Stripe(int capacity, LongAdder evictions) {
+            super(2 * capacity, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChordValue, V> eldest) {
+            boolean result = this.size() > this.capacity;
+            if (result) {
+                this.evictions.increment();
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Constructor for a cache of {@code analysis} holding about
+     * {@code capacity} results.
+     *
+     * @param capacity
+     *            the most results kept; rounded up so each stripe holds at
+     *            least a few
+     * @param analysis
+     *            the analysis to memoize; must not return {@code null}
+     * @requires capacity > 0
+     */
+    @SuppressWarnings("unchecked")
+    public AnalysisCache(int capacity, Function<ChordValue, V> analysis) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+        assert analysis != null : "Violation of: analysis is not null";
+        this.analysis = analysis;
+        int wanted = Integer.highestOneBit(
+                Math.max(1, 4 * Runtime.getRuntime().availableProcessors()));
+        int count = 1;
+        while (count < wanted
+                && capacity / (2 * count) >= MIN_STRIPE_CAPACITY) {
+            count *= 2;
+        }
+        int perStripe = Math.max(1, (capacity + count - 1) / count);
+        this.stripes = (Stripe<V>[]) new Stripe<?>[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<V>(perStripe, this.evictions);
+        }
+    }
+
+    /**
+     * Returns the stripe {@code key} belongs to.
+     *
+     * @param key
+     *            the pitch set
+     * @return the stripe
+     */
+    private Stripe<V> stripe(ChordValue key) {
+        int h = key.hashCode() * SPREAD;
+        return this.stripes[(h ^ (h >>> 16)) & (this.stripes.length - 1)];
+    }
+
+    /*
+     * Lookups ----------------------------------------------------------------
+     */
+
+    /**
+     * Returns the analysis of {@code key}, running it only if no result for
+     * {@code key} is held.
+     *
+     * @param key
+     *            the pitch set
+     * @return the analysis of {@code key}
+     */
+    public V get(ChordValue key) {
+        assert key != null : "Violation of: key is not null";
+        Stripe<V> stripe = this.stripe(key);
+        V result;
+        synchronized (stripe) {
+            result = stripe.get(key);
+        }
+        if (result != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+            V computed = this.analysis.apply(key);
+            assert computed != null : "Violation of: analysis is not null";
+            synchronized (stripe) {
+                result = stripe.putIfAbsent(key, computed);
+            }
+            if (result == null) {
+                result = computed;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the analysis of the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @return the analysis of its pitch set
+     */
+    public V get(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        return this.get(ChordValue.of(chord.pitchMask(0), chord.pitchMask(1)));
+    }
+
+    /**
+     * Returns the analysis of the pitch set {@code low}/{@code high}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @return the analysis of the pitch set
+     */
+    public V get(long low, long high) {
+        return this.get(ChordValue.of(low, high));
+    }
+
+    /**
+     * Drops every held result; the statistics are kept.
+     */
+    public void invalidateAll() {
+        for (Stripe<V> stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /*
+     * Statistics -------------------------------------------------------------
+     */
+
+    /**
+     * Reports the number of results held.
+     *
+     * @return the number of results
+     */
+    public int size() {
+        int result = 0;
+        for (Stripe<V> stripe : this.stripes) {
+            synchronized (stripe) {
+                result += stripe.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Reports the number of lookups that ran the analysis.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Reports the number of results dropped to make room.
+     *
+     * @return the number of evictions
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Reports the fraction of lookups answered from the cache.
+     *
+     * @return hits / (hits + misses), or 0 before any lookup
+     */
+    public double hitRate() {
+        long h = this.hits.sum();
+        long total = h + this.misses.sum();
+        double result = 0.0;
+        if (total > 0) {
+            result = (double) h / total;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,187 @@
+package components.chord;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs {@code ChordBatchAnalysis} over every chord of a {@code ChordBatch} in
+ * parallel with fork/join. The batch is split in halves until pieces are small
+ * enough to run directly; each piece writes only its own part of the result,
+ * and the batch is immutable, so no locking is needed.
+ *
+ * @author Jake Meyer
+ */
+public final class BatchAnalyzer implements AutoCloseable {
+
+    /**
+     * Fewest chords in a piece worth splitting further.
+     */
+    private static final int MIN_PIECE = 1 << 12;
+
+    /**
+     * Number of pieces per worker thread, so that idle workers can steal.
+     */
+    private static final int PIECES_PER_THREAD = 8;
+
+    /**
+     * The pool the analyses run in.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Whether {@code pool} was created by, and is shut down with, this.
+     */
+    private final boolean ownsPool;
+
+    /**
+     * Constructor for an analyzer with its own pool of {@code parallelism}
+     * worker threads.
+     *
+     * @param parallelism
+     *            the number of worker threads
+     * @requires parallelism > 0
+     */
+    public BatchAnalyzer(int parallelism) {
+        assert parallelism > 0 : "Violation of: parallelism > 0";
+        this.pool = new ForkJoinPool(parallelism);
+        this.ownsPool = true;
+    }
+
+    /**
+     * Constructor for an analyzer sharing {@code pool}. Closing the analyzer
+     * leaves the pool running.
+     *
+     * @param pool
+     *            the pool to run in
+     */
+    public BatchAnalyzer(ForkJoinPool pool) {
+        assert pool != null : "Violation of: pool is not null";
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+
+    /**
+     * Reports the number of worker threads.
+     *
+     * @return the parallelism of the pool
+     */
+    public int parallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Returns the result of {@code analysis} for every chord of
+     * {@code batch}.
+     *
+     * @param batch
+     *            the chords to analyze
+     * @param analysis
+     *            the analysis to run
+     * @return array whose entry {@code i} is the result for chord {@code i}
+     */
+    public int[] analyze(ChordBatch batch, ChordBatchAnalysis analysis) {
+        assert batch != null : "Violation of: batch is not null";
+        assert analysis != null : "Violation of: analysis is not null";
+        int[] result = new int[batch.size()];
+        int piece = Math.max(MIN_PIECE,
+                batch.size() / (this.parallelism() * PIECES_PER_THREAD));
+        this.pool.invoke(new Piece(batch, analysis, result, 0, batch.size(),
+                piece));
+        return result;
+    }
+
+    /**
+     * Shuts down the pool if this analyzer created it.
+     */
+    @Override
+    public void close() {
+        if (this.ownsPool) {
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * A range of chords to analyze, split in half until it is small.
+     */
+    private static final class Piece extends RecursiveAction {
+
+        /**
+         * Serialization version (fork/join tasks are serializable).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The chords to analyze.
+         */
+        private final ChordBatch batch;
+
+        /**
+         * The analysis to run.
+         */
+        private final ChordBatchAnalysis analysis;
+
+        /**
+         * Where the results go.
+         */
+        private final int[] result;
+
+        /**
+         * First position in this piece.
+         */
+        private final int from;
+
+        /**
+         * Position just past this piece.
+         */
+        private final int to;
+
+        /**
+         * Largest piece run without splitting.
+         */
+        private final int threshold;
+
+        /**
+         * Constructor from every field.
+         *
+         * @param batch
+         *            the chords to analyze
+         * @param analysis
+         *            the analysis to run
+         * @param result
+         *            where the results go
+         * @param from
+         *            first position in this piece
+         * @param to
+         *            position just past this piece
+         * @param threshold
+         *            largest piece run without splitting
+         */
+        Piece(ChordBatch batch, ChordBatchAnalysis analysis, int[] result,
+                int from, int to, int threshold) {
+            this.batch = batch;
+            this.analysis = analysis;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.threshold) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.result[i] = this.analysis.analyze(this.batch, i);
+                }
+            } else {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new Piece(this.batch, this.analysis, this.result,
+                                this.from, mid, this.threshold),
+                        new Piece(this.batch, this.analysis, this.result, mid,
+                                this.to, this.threshold));
+            }
+        }
+
+    }
+
+}
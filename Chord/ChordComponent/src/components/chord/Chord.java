@@ -1,5 +1,8 @@
 package components.chord;
 
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+
 /**
  * {@code ChordKernel} enhanced with secondary methods.
  *
@@ -64,12 +67,206 @@ public interface Chord extends ChordKernel {
      */
     void octaveDown(String note);
 
+    /**
+     * Moves the note with pitch index {@code from} by {@code semitones}
+     * half-steps, respelling it canonically.
+     *
+     * @param from
+     *            the pitch index of the note to be moved
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @requires {@code from} is in this and {@code from + semitones} is not in
+     *           this and {@code from + semitones} is between the pitches of
+     *           min and max
+     * @ensures this = (#this - from) + {from + semitones}
+     */
+    void transposePitch(int from, int semitones);
+
+    /**
+     * Moves every note in the chord (this) by {@code semitones} half-steps at
+     * once, respelling them canonically. Notes never collide part-way through.
+     *
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @requires every note in this, moved by {@code semitones}, is between min
+     *           and max
+     * @ensures this = {each note in #this moved by semitones}
+     */
+    void transpose(int semitones);
+
+    /**
+     * Moves every note in the chord (this) by {@code octaves} octaves at once.
+     *
+     * @param octaves
+     *            the number of octaves to move (negative is down)
+     * @requires every note in this, moved by {@code octaves} octaves, is
+     *           between min and max
+     * @ensures this = {each note in #this moved by octaves octaves}
+     */
+    void transposeOctaves(int octaves);
+
+    /**
+     * Adds every note of {@code other} that is not already in the chord
+     * (this).
+     *
+     * @param other
+     *            the chord whose notes are added
+     * @requires every note of {@code other} is between min and max
+     * @ensures this = #this union other
+     */
+    void union(Chord other);
+
+    /**
+     * Removes every note of the chord (this) that is not in {@code other}.
+     *
+     * @param other
+     *            the chord whose notes are kept
+     * @ensures this = #this intersection other
+     */
+    void intersect(Chord other);
+
+    /**
+     * Removes every note of {@code other} from the chord (this).
+     *
+     * @param other
+     *            the chord whose notes are removed
+     * @ensures this = #this \ other
+     */
+    void difference(Chord other);
+
+    /**
+     * Reports how many notes the chord (this) and {@code other} have in
+     * common.
+     *
+     * @param other
+     *            the chord to compare with
+     * @ensures commonToneCount = |this intersection other|
+     * @return the number of notes in both chords
+     */
+    int commonToneCount(Chord other);
+
+    /**
+     * Reports whether every note of the chord (this) is in {@code other}.
+     *
+     * @param other
+     *            the chord to compare with
+     * @ensures isSubsetOf = {true if this is a subset of other}
+     * @return true if every note of this is in {@code other}
+     */
+    boolean isSubsetOf(Chord other);
+
     /**
      * Removes and returns the lowest note from the chord (this).
      *
+     * @requires |this| > 0
      * @ensures this = #this - removeLowest
      * @return {lowest note in chord}
      */
     String removeLowest();
 
+    /**
+     * Removes and returns the highest note from the chord (this).
+     *
+     * @requires |this| > 0
+     * @ensures this = #this - removeHighest
+     * @return {highest note in chord}
+     */
+    String removeHighest();
+
+    /**
+     * Reports the lowest note in the chord (this).
+     *
+     * @requires |this| > 0
+     * @ensures lowest = {lowest note in chord}
+     * @return the lowest note in this
+     */
+    String lowest();
+
+    /**
+     * Reports the highest note in the chord (this).
+     *
+     * @requires |this| > 0
+     * @ensures highest = {highest note in chord}
+     * @return the highest note in this
+     */
+    String highest();
+
+    /**
+     * Calls {@code action} with the pitch index of every note in the chord
+     * (this), in ascending pitch order. {@code action} sees the notes that were
+     * in this when the call began, even if it changes this.
+     *
+     * @param action
+     *            the action to be performed on each pitch
+     * @ensures {action has been called once with each pitch in #this, lowest
+     *          first}
+     */
+    void forEachPitch(IntConsumer action);
+
+    /**
+     * Reports which notes of the chord (this) are spelled with the alternate
+     * spelling of their pitch (a sharp, Fb or Cb), as a pitch mask in the
+     * same layout as {@code pitchMask(word)}.
+     *
+     * @param word
+     *            which word of the mask: 0 for pitches 0 through 63, 1 for
+     *            pitches 64 through 127
+     * @requires 0 <= word <= 1
+     * @ensures spellingMask = {bit (p mod 64) set for each pitch p in word
+     *          that is in this and spelled with its alternate spelling}
+     * @return one word of the spelling mask of this
+     */
+    long spellingMask(int word);
+
+    /**
+     * Writes the chord (this) to {@code out} in binary form: one tag byte,
+     * then the 8-byte low word of the pitch mask, the high word if this has a
+     * note above pitch 63, and the matching words of the spelling mask if any
+     * note is spelled with its alternate spelling. A typical chord takes 9
+     * bytes.
+     *
+     * @param out
+     *            the buffer to write to
+     * @requires out has at least 33 bytes remaining
+     * @updates out
+     * @ensures {the encoding of this has been written at the position of out,
+     *          and the position advanced past it}
+     */
+    void writeTo(ByteBuffer out);
+
+    /**
+     * Replaces the chord (this) with the chord encoded at the position of
+     * {@code in}, as written by {@code writeTo}.
+     *
+     * @param in
+     *            the buffer to read from
+     * @requires {in holds an encoded chord at its position} and every note of
+     *           that chord is between min and max
+     * @updates this, in
+     * @ensures this = {the encoded chord, with its spelling} and {the position
+     *          of in has been advanced past it}
+     */
+    void readFrom(ByteBuffer in);
+
+    /**
+     * Returns a new chord of the same implementation and range as the chord
+     * (this) holding the same notes, spelled the same way.
+     *
+     * @return a copy of this
+     * @ensures copy = this and {copy is a new object}
+     */
+    Chord copy();
+
+    /**
+     * Replaces the notes of the chord (this) with the notes of
+     * {@code source}, spelled the same way, leaving {@code source} unchanged.
+     *
+     * @param source
+     *            the chord to copy
+     * @requires every note of source is between min and max
+     * @replaces this
+     * @ensures this = source
+     */
+    void copyFrom(Chord source);
+
 }
@@ -5,7 +5,10 @@ import components.map.Map2;
 
 /**
  * {@code Chord} represented as a {@code Map} with implementations of primary
- * methods.
+ * methods. The keys of the {@code Map} are also kept as a pitch mask, so the
+ * lowest and highest notes are found without scanning, and the keys whose
+ * values are alternate spellings as a second mask, so the spelling words are
+ * read without walking the map.
  *
  * @author Jake Meyer
  *
@@ -18,90 +21,93 @@ public class Chord1 extends ChordSecondary {
     private Map<Integer, String> rep;
 
     /**
-     * Number of possible notes, for noteList.
+     * Keys 0 through 63 of {@code rep} as a pitch mask: bit {@code p} is set
+     * exactly when {@code rep} has key {@code p}.
      */
-    private final int n = 85;
+    private long low;
 
     /**
-     * Sequence of note name options for the user.
+     * Keys 64 through 127 of {@code rep} as a pitch mask: bit {@code p - 64}
+     * is set exactly when {@code rep} has key {@code p}.
      */
-    private String[] noteList = new String[this.n];
+    private long high;
 
     /**
-     * Map of notes organized by name.
+     * Pitches 0 through 63 whose value in {@code rep} is an alternate
+     * spelling, as a pitch mask.
      */
-    private Map<String, Integer> noteListString;
+    private long altLow;
 
     /**
-     * Map of notes organized by their int value.
+     * Pitches 64 through 127 whose value in {@code rep} is an alternate
+     * spelling, as a pitch mask: bit {@code p - 64} is set for pitch {@code p}.
      */
-    private Map<Integer, String> noteListInt;
+    private long altHigh;
 
     /**
-     * Creator of original representation.
+     * Lowest pitch index allowed in {@code this}.
+     */
+    private int minPitch;
+
+    /**
+     * Highest pitch index allowed in {@code this}.
+     */
+    private int maxPitch;
+
+    /**
+     * Creator of original representation. Only the note set is allocated; the
+     * pitch-spelling tables are shared by all instances (see
+     * {@code PitchTable}).
      */
     private void createNewRep() {
+        ChordMetrics.repCreated();
         this.rep = new Map2<Integer, String>();
-        this.noteListString = new Map2<String, Integer>();
-        this.noteListInt = new Map2<Integer, String>();
+        this.low = 0L;
+        this.high = 0L;
+        this.altLow = 0L;
+        this.altHigh = 0L;
+    }
 
+    /**
+     * Records {@code pitch} as present or absent in the pitch masks, and
+     * whether its name in {@code rep} is an alternate spelling.
+     *
+     * @param pitch
+     *            the pitch index
+     * @param present
+     *            whether {@code pitch} is now a key of {@code rep}
+     * @param alternate
+     *            whether {@code pitch} is now present with an alternate
+     *            spelling
+     */
+    private void mark(int pitch, boolean present, boolean alternate) {
         /*
-         * Creating noteListString (done in here so it's only done once).
+         * Shift distances are taken mod 64, so 1L << pitch is the right bit in
+         * either word.
          */
-
-        //Some out of order to allow exceptions like E# to work normally.
-        final String[] notes = new String[] { "C", "C#", "Db", "D", "D#", "Eb",
-                "E", "Fb", "E#", "F", "F#", "Gb", "G", "G#", "Ab", "A", "A#",
-                "Bb", "B", "Cb", "B#" };
-        int value = 0;
-        for (int i = 0; i < notes.length; i++) {
-            String curr = notes[i];
-            if (!this.noteStatus(curr).equals("Flat") && !curr.equals("F")
-                    && !curr.equals("C")) {
-                value++;
+        long bit = 1L << pitch;
+        if (pitch < Long.SIZE) {
+            if (present) {
+                this.low |= bit;
+            } else {
+                this.low &= ~bit;
             }
-            this.noteListString.add(curr, value);
-        }
-
-        //Octave-specific adding
-        value = 0;
-        final int numOctaves = 3;
-        for (int o = 0; o < numOctaves; o++) {
-            for (int i = 0; i < notes.length; i++) {
-                String curr = notes[i];
-                if (!this.noteStatus(curr).equals("Flat") && !curr.equals("F")
-                        && !curr.equals("C")) {
-                    value++;
-                }
-                this.noteListString.add(curr + o, value);
+            if (alternate) {
+                this.altLow |= bit;
+            } else {
+                this.altLow &= ~bit;
             }
-        }
-        this.noteListString.add("C3", value);
-
-        /*
-         * Creating noteListInt.
-         */
-        final String[] notes2 = new String[] { "C", "Db", "D", "Eb", "E", "F",
-                "Gb", "G", "Ab", "A", "Bb", "B" };
-        final int notesInOctave = 12;
-        int key = 0;
-        for (int o = 0; o < numOctaves; o++) {
-            int i = 0;
-            while (key < notes2.length + (notesInOctave * o)) {
-                this.noteListInt.add(key, notes2[i] + o);
-                key++;
-                i++;
+        } else {
+            if (present) {
+                this.high |= bit;
+            } else {
+                this.high &= ~bit;
+            }
+            if (alternate) {
+                this.altHigh |= bit;
+            } else {
+                this.altHigh &= ~bit;
             }
-        }
-        this.noteListInt.add(key, "C3");
-
-        /*
-         * Creating noteList.
-         */
-        int i = 0;
-        for (Map.Pair<String, Integer> curr : this.noteListString) {
-            this.noteList[i] = curr.key();
-            i++;
         }
     }
 
@@ -110,9 +116,28 @@ public class Chord1 extends ChordSecondary {
      */
 
     /**
-     * No-argument constructor.
+     * No-argument constructor; the chord spans C0 through C3.
      */
     public Chord1() {
+        this.minPitch = PitchTable.DEFAULT_MIN;
+        this.maxPitch = PitchTable.DEFAULT_MAX;
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor for a chord spanning {@code min} through {@code max}.
+     *
+     * @param min
+     *            the lowest note allowed
+     * @param max
+     *            the highest note allowed
+     * @requires {@code min} and {@code max} are note names between C0 and G10
+     *           and {@code min} is not above {@code max}
+     */
+    public Chord1(String min, String max) {
+        this.minPitch = PitchTable.pitch(min);
+        this.maxPitch = PitchTable.pitch(max);
+        assert this.minPitch <= this.maxPitch : "Violation of: min <= max";
         this.createNewRep();
     }
 
@@ -122,12 +147,10 @@ public class Chord1 extends ChordSecondary {
 
     @Override
     public final Chord newInstance() {
-        try {
-            return this.getClass().getConstructor().newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new AssertionError(
-                    "Cannot construct object of type " + this.getClass());
-        }
+        Chord1 result = new Chord1();
+        result.minPitch = this.minPitch;
+        result.maxPitch = this.maxPitch;
+        return result;
     }
 
     @Override
@@ -142,90 +165,157 @@ public class Chord1 extends ChordSecondary {
 
         Chord1 localSource = (Chord1) source;
         this.rep = localSource.rep;
+        this.low = localSource.low;
+        this.high = localSource.high;
+        this.altLow = localSource.altLow;
+        this.altHigh = localSource.altHigh;
+        this.minPitch = localSource.minPitch;
+        this.maxPitch = localSource.maxPitch;
         localSource.createNewRep();
     }
 
-    /*
-     * Helper methods ---------------------------------------------------------
-     */
-
-    /**
-     * Small method to scan a note string and return if it has a flat or sharp.
-     *
-     * @param note
-     *            note to be scanned
-     * @return {"Flat" if note is flat, "Sharp" if note is sharp, "" if note is
-     *         natural}
-     */
-    private String noteStatus(String note) {
-        int i = 0;
-        String result = "";
-        while (i < note.length() && result.equals("")) {
-            if (note.charAt(i) == 'b') {
-                result = "Flat";
-            } else if (note.charAt(i) == '#') {
-                result = "Sharp";
-            }
-            i++;
-        }
-        return result;
-    }
-
     /*
      * Kernel methods ---------------------------------------------------------
      */
 
     @Override
     public final void add(String note) {
-        int address = this.noteListString.value(note);
+        int address = PitchTable.pitch(note);
+        assert this.minPitch <= address
+                && address <= this.maxPitch : "Violation of: note is in range";
         this.rep.add(address, note);
+        this.mark(address, true, PitchTable.isAlternate(note));
     }
 
     @Override
     public final String remove(String note) {
-        int address = this.noteListString.value(note);
+        int address = PitchTable.pitch(note);
         this.rep.remove(address);
+        this.mark(address, false, false);
         return note;
     }
 
     @Override
     public final boolean contains(String note) {
-        int address = this.noteListString.value(note);
-        return this.rep.hasKey(address);
+        return this.containsPitch(PitchTable.pitch(note));
+    }
+
+    @Override
+    public final void addPitch(int pitch) {
+        assert this.minPitch <= pitch
+                && pitch <= this.maxPitch : "Violation of: pitch is in range";
+        String name = PitchTable.name(pitch);
+        this.rep.add(pitch, name);
+        this.mark(pitch, true, PitchTable.isAlternate(name));
+    }
+
+    @Override
+    public final void removePitch(int pitch) {
+        this.rep.remove(pitch);
+        this.mark(pitch, false, false);
+    }
+
+    @Override
+    public final boolean containsPitch(int pitch) {
+        long word;
+        if (pitch < Long.SIZE) {
+            word = this.low;
+        } else {
+            word = this.high;
+        }
+        return (word & (1L << pitch)) != 0;
+    }
+
+    @Override
+    public final long pitchMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.low;
+        } else {
+            result = this.high;
+        }
+        return result;
     }
 
     @Override
     public final String[] noteList() {
-        return this.noteList;
+        return PitchTable.noteList(this.minPitch, this.maxPitch);
     }
 
     @Override
     public final Map<String, Integer> noteListString() {
-        return this.noteListString;
+        return PitchTable.noteListString(this.minPitch, this.maxPitch);
     }
 
     @Override
     public final Map<Integer, String> noteListInt() {
-        return this.noteListInt;
+        return PitchTable.noteListInt(this.minPitch, this.maxPitch);
     }
 
     @Override
     public final Map<Integer, String> currentNotes() {
-        return this.rep;
+        /*
+         * The masks mirror the keys of rep, so handing out rep itself would
+         * let a client change one without the other.
+         */
+        Map<Integer, String> result = new Map2<Integer, String>();
+        for (Map.Pair<Integer, String> note : this.rep) {
+            result.add(note.key(), note.value());
+        }
+        return result;
     }
 
     @Override
     public final String max() {
-        return "C3";
+        return PitchTable.name(this.maxPitch);
     }
 
     @Override
     public final String min() {
-        return "C0";
+        return PitchTable.name(this.minPitch);
     }
 
     @Override
     public final int size() {
-        return this.rep.size();
+        return Long.bitCount(this.low) + Long.bitCount(this.high);
+    }
+
+    /*
+     * Secondary methods overridden for efficiency ----------------------------
+     */
+
+    @Override
+    public final long spellingMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.altLow;
+        } else {
+            result = this.altHigh;
+        }
+        return result;
+    }
+
+    @Override
+    public final void copyFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        if (source instanceof Chord1 && source != this) {
+            Chord1 localSource = (Chord1) source;
+            assert this.inRangeAfter(localSource.low, localSource.high,
+                    0) : "Violation of: notes of source are within range";
+            this.createNewRep();
+            for (Map.Pair<Integer, String> note : localSource.rep) {
+                this.rep.add(note.key(), note.value());
+            }
+            this.low = localSource.low;
+            this.high = localSource.high;
+            this.altLow = localSource.altLow;
+            this.altHigh = localSource.altHigh;
+        } else {
+            super.copyFrom(source);
+        }
     }
 }
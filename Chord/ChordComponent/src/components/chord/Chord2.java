@@ -0,0 +1,343 @@
+package components.chord;
+
+import java.nio.ByteBuffer;
+
+import components.map.Map;
+import components.map.Map2;
+
+/**
+ * {@code Chord} represented as a 128-bit pitch mask (two 64-bit words) with
+ * implementations of primary methods.
+ *
+ * <p>
+ * Bit {@code p mod 64} of {@code low} (for {@code p < 64}) or {@code high}
+ * (for {@code p >= 64}) is set exactly when the note with pitch index
+ * {@code p} is in the chord. The same bit of {@code altLow}/{@code altHigh}
+ * records how that note was spelled: set for the alternate spelling (a sharp,
+ * Fb or Cb), clear for the canonical one. The representation is the same size
+ * whatever range the chord is given.
+ * </p>
+ *
+ * @author Jake Meyer
+ *
+ */
+public class Chord2 extends ChordSecondary {
+
+    /**
+     * Pitches 0 through 63 in {@code this}.
+     */
+    private long low;
+
+    /**
+     * Pitches 64 through 127 in {@code this}.
+     */
+    private long high;
+
+    /**
+     * Spelling of each pitch in {@code low}; a subset of {@code low}.
+     */
+    private long altLow;
+
+    /**
+     * Spelling of each pitch in {@code high}; a subset of {@code high}.
+     */
+    private long altHigh;
+
+    /**
+     * Lowest pitch index allowed in {@code this}.
+     */
+    private int minPitch;
+
+    /**
+     * Highest pitch index allowed in {@code this}.
+     */
+    private int maxPitch;
+
+    /**
+     * Creator of original representation.
+     */
+    private void createNewRep() {
+        ChordMetrics.repCreated();
+        this.low = 0L;
+        this.high = 0L;
+        this.altLow = 0L;
+        this.altHigh = 0L;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor; the chord spans C0 through C3.
+     */
+    public Chord2() {
+        this.minPitch = PitchTable.DEFAULT_MIN;
+        this.maxPitch = PitchTable.DEFAULT_MAX;
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor for a chord spanning {@code min} through {@code max}.
+     *
+     * @param min
+     *            the lowest note allowed
+     * @param max
+     *            the highest note allowed
+     * @requires {@code min} and {@code max} are note names between C0 and G10
+     *           and {@code min} is not above {@code max}
+     */
+    public Chord2(String min, String max) {
+        this.minPitch = PitchTable.pitch(min);
+        this.maxPitch = PitchTable.pitch(max);
+        assert this.minPitch <= this.maxPitch : "Violation of: min <= max";
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final Chord newInstance() {
+        Chord2 result = new Chord2();
+        result.minPitch = this.minPitch;
+        result.maxPitch = this.maxPitch;
+        return result;
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        Chord2 localSource = (Chord2) source;
+        this.low = localSource.low;
+        this.high = localSource.high;
+        this.altLow = localSource.altLow;
+        this.altHigh = localSource.altHigh;
+        this.minPitch = localSource.minPitch;
+        this.maxPitch = localSource.maxPitch;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String note) {
+        int pitch = PitchTable.pitch(note);
+        this.addPitch(pitch);
+        if (PitchTable.isAlternate(note)) {
+            if (pitch < Long.SIZE) {
+                this.altLow |= 1L << pitch;
+            } else {
+                this.altHigh |= 1L << pitch;
+            }
+        }
+    }
+
+    @Override
+    public final String remove(String note) {
+        this.removePitch(PitchTable.pitch(note));
+        return note;
+    }
+
+    @Override
+    public final boolean contains(String note) {
+        return this.containsPitch(PitchTable.pitch(note));
+    }
+
+    @Override
+    public final void addPitch(int pitch) {
+        assert this.minPitch <= pitch
+                && pitch <= this.maxPitch : "Violation of: pitch is in range";
+        assert !this.containsPitch(
+                pitch) : "Violation of: pitch is not already in this";
+        /*
+         * Shift distances are taken mod 64, so 1L << pitch is the right bit in
+         * either word.
+         */
+        if (pitch < Long.SIZE) {
+            this.low |= 1L << pitch;
+        } else {
+            this.high |= 1L << pitch;
+        }
+    }
+
+    @Override
+    public final void removePitch(int pitch) {
+        assert this.containsPitch(pitch) : "Violation of: pitch is in this";
+        long keep = ~(1L << pitch);
+        if (pitch < Long.SIZE) {
+            this.low &= keep;
+            this.altLow &= keep;
+        } else {
+            this.high &= keep;
+            this.altHigh &= keep;
+        }
+    }
+
+    @Override
+    public final boolean containsPitch(int pitch) {
+        long word;
+        if (pitch < Long.SIZE) {
+            word = this.low;
+        } else {
+            word = this.high;
+        }
+        return (word & (1L << pitch)) != 0;
+    }
+
+    @Override
+    public final long pitchMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.low;
+        } else {
+            result = this.high;
+        }
+        return result;
+    }
+
+    @Override
+    public final String[] noteList() {
+        return PitchTable.noteList(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<String, Integer> noteListString() {
+        return PitchTable.noteListString(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<Integer, String> noteListInt() {
+        return PitchTable.noteListInt(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<Integer, String> currentNotes() {
+        Map<Integer, String> result = new Map2<Integer, String>();
+        long remaining = this.low;
+        while (remaining != 0) {
+            int p = Long.numberOfTrailingZeros(remaining);
+            result.add(p, PitchTable.name(p, (this.altLow >>> p & 1) != 0));
+            remaining &= remaining - 1;
+        }
+        remaining = this.high;
+        while (remaining != 0) {
+            int b = Long.numberOfTrailingZeros(remaining);
+            result.add(Long.SIZE + b, PitchTable.name(Long.SIZE + b,
+                    (this.altHigh >>> b & 1) != 0));
+            remaining &= remaining - 1;
+        }
+        return result;
+    }
+
+    @Override
+    public final String max() {
+        return PitchTable.name(this.maxPitch);
+    }
+
+    @Override
+    public final String min() {
+        return PitchTable.name(this.minPitch);
+    }
+
+    @Override
+    public final int size() {
+        return Long.bitCount(this.low) + Long.bitCount(this.high);
+    }
+
+    /*
+     * Secondary methods overridden for efficiency ----------------------------
+     */
+
+    @Override
+    public final void transpose(int semitones) {
+        assert this.inRangeAfter(this.low, this.high,
+                semitones) : "Violation of: transposed notes are within range";
+        long newLow = PitchMasks.shiftLow(this.low, this.high, semitones);
+        this.high = PitchMasks.shiftHigh(this.low, this.high, semitones);
+        this.low = newLow;
+        this.altLow = 0L;
+        this.altHigh = 0L;
+    }
+
+    @Override
+    public final void union(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        assert this.inRangeAfter(other.pitchMask(0), other.pitchMask(1),
+                0) : "Violation of: notes of other are within range";
+        this.low |= other.pitchMask(0);
+        this.high |= other.pitchMask(1);
+    }
+
+    @Override
+    public final void intersect(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        this.low &= other.pitchMask(0);
+        this.high &= other.pitchMask(1);
+        this.altLow &= this.low;
+        this.altHigh &= this.high;
+    }
+
+    @Override
+    public final void difference(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        this.low &= ~other.pitchMask(0);
+        this.high &= ~other.pitchMask(1);
+        this.altLow &= this.low;
+        this.altHigh &= this.high;
+    }
+
+    @Override
+    public final long spellingMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.altLow;
+        } else {
+            result = this.altHigh;
+        }
+        return result;
+    }
+
+    @Override
+    public final Chord copy() {
+        Chord2 result = new Chord2();
+        result.low = this.low;
+        result.high = this.high;
+        result.altLow = this.altLow;
+        result.altHigh = this.altHigh;
+        result.minPitch = this.minPitch;
+        result.maxPitch = this.maxPitch;
+        return result;
+    }
+
+    @Override
+    public final void writeTo(ByteBuffer out) {
+        assert out != null : "Violation of: out is not null";
+        ChordCodec.write(out, this.low, this.high, this.altLow, this.altHigh);
+    }
+
+    @Override
+    final void load(long low, long high, long altLow, long altHigh) {
+        assert this.inRangeAfter(low, high,
+                0) : "Violation of: notes of encoded chord are within range";
+        this.low = low;
+        this.high = high;
+        this.altLow = altLow & low;
+        this.altHigh = altHigh & high;
+    }
+
+}
@@ -0,0 +1,102 @@
+package components.chord;
+
+/**
+ * Standard per-chord analyses for {@code BatchAnalyzer}. Every analysis here
+ * reads only the immutable batch and class-level tables, so it is safe to run
+ * from many threads.
+ *
+ * @author Jake Meyer
+ */
+public final class ChordAnalyses {
+
+    /**
+     * Number of pitch classes.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * The pitch-class set of each chord; look it up in {@code ChordTypes} for
+     * the chord type.
+     */
+    public static final ChordBatchAnalysis PITCH_CLASS_SET = ChordBatch::pitchClassSet;
+
+    /**
+     * The root pitch class of each chord, or -1 if its type is unknown.
+     */
+    public static final ChordBatchAnalysis ROOT = (batch, index) -> ChordTypes
+            .root(batch.pitchClassSet(index));
+
+    /**
+     * The inversion of each chord: 0 for root position, 1 if the third (or
+     * next chord tone above the root) is in the bass, and so on; -1 if its type
+     * is unknown.
+     */
+    public static final ChordBatchAnalysis INVERSION = ChordAnalyses::inversion;
+
+    /**
+     * The number of notes each chord shares with the chord before it; 0 for
+     * the first chord.
+     */
+    public static final ChordBatchAnalysis COMMON_TONES_WITH_PREVIOUS = (batch,
+            index) -> {
+        int result = 0;
+        if (index > 0) {
+            result = batch.commonToneCount(index - 1, index);
+        }
+        return result;
+    };
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordAnalyses() {
+    }
+
+    /**
+     * Returns the inversion of chord {@code index} of {@code batch}.
+     *
+     * @param batch
+     *            the batch
+     * @param index
+     *            the position of the chord
+     * @return the inversion, or -1 if the type is unknown
+     */
+    private static int inversion(ChordBatch batch, int index) {
+        int pcs = batch.pitchClassSet(index);
+        int root = ChordTypes.root(pcs);
+        int result = -1;
+        if (root >= 0) {
+            int bass = (batch.lowest(index) - root + NOTES_IN_OCTAVE)
+                    % NOTES_IN_OCTAVE;
+            int fromRoot = PitchClassSet.transpose(pcs, -root);
+            result = Integer.bitCount(fromRoot & ((1 << bass) - 1));
+        }
+        return result;
+    }
+
+    /**
+     * Returns an analysis giving 1 for each chord whose notes all lie between
+     * {@code min} and {@code max}, and 0 for every other chord. An empty chord
+     * is in range.
+     *
+     * @param min
+     *            the lowest note allowed
+     * @param max
+     *            the highest note allowed
+     * @return the analysis
+     * @requires {@code min} and {@code max} are note names
+     */
+    public static ChordBatchAnalysis inRange(String min, String max) {
+        final int minPitch = PitchTable.pitch(min);
+        final int maxPitch = PitchTable.pitch(max);
+        return (batch, index) -> {
+            int result = 1;
+            if (!batch.isEmpty(index) && (batch.lowest(index) < minPitch
+                    || batch.highest(index) > maxPitch)) {
+                result = 0;
+            }
+            return result;
+        };
+    }
+
+}
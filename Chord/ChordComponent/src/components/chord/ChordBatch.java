@@ -0,0 +1,187 @@
+package components.chord;
+
+/**
+ * Immutable snapshot of a sequence of chords, packed as two arrays of
+ * pitch-mask words. Once built it is never changed, so any number of threads
+ * may read it at once; this is the representation {@code BatchAnalyzer} works
+ * on.
+ *
+ * @author Jake Meyer
+ */
+public final class ChordBatch {
+
+    /**
+     * Pitches 0 through 63 of each chord.
+     */
+    private final long[] low;
+
+    /**
+     * Pitches 64 through 127 of each chord.
+     */
+    private final long[] high;
+
+    /**
+     * Constructor from arrays owned by the new batch.
+     *
+     * @param low
+     *            pitches 0 through 63 of each chord
+     * @param high
+     *            pitches 64 through 127 of each chord
+     */
+    private ChordBatch(long[] low, long[] high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Returns a batch holding the notes of {@code chords}, in order.
+     *
+     * @param chords
+     *            the chords
+     * @return the batch
+     */
+    public static ChordBatch of(Chord... chords) {
+        assert chords != null : "Violation of: chords is not null";
+        long[] low = new long[chords.length];
+        long[] high = new long[chords.length];
+        for (int i = 0; i < chords.length; i++) {
+            low[i] = chords[i].pitchMask(0);
+            high[i] = chords[i].pitchMask(1);
+        }
+        return new ChordBatch(low, high);
+    }
+
+    /**
+     * Returns a batch holding the notes of every chord in {@code store}, in
+     * slot order.
+     *
+     * @param store
+     *            the store
+     * @return the batch
+     */
+    public static ChordBatch of(ChordStore store) {
+        assert store != null : "Violation of: store is not null";
+        int size = store.size();
+        long[] low = new long[size];
+        long[] high = new long[size];
+        for (int i = 0; i < size; i++) {
+            low[i] = store.pitchMask(i, 0);
+            high[i] = store.pitchMask(i, 1);
+        }
+        return new ChordBatch(low, high);
+    }
+
+    /**
+     * Returns a batch holding the chords of {@code progression}, in order.
+     *
+     * @param progression
+     *            the progression
+     * @return the batch
+     */
+    public static ChordBatch of(Progression progression) {
+        assert progression != null : "Violation of: progression is not null";
+        int size = progression.size();
+        long[] low = new long[size];
+        long[] high = new long[size];
+        for (int i = 0; i < size; i++) {
+            low[i] = progression.pitchMask(i, 0);
+            high[i] = progression.pitchMask(i, 1);
+        }
+        return new ChordBatch(low, high);
+    }
+
+    /**
+     * Reports the number of chords in the batch.
+     *
+     * @return the number of chords
+     */
+    public int size() {
+        return this.low.length;
+    }
+
+    /**
+     * Returns one word of the pitch mask of chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the word
+     * @requires 0 <= index < size() and 0 <= word <= 1
+     */
+    public long pitchMask(int index, int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.low[index];
+        } else {
+            result = this.high[index];
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether chord {@code index} has no notes.
+     *
+     * @param index
+     *            the position of the chord
+     * @return true if chord {@code index} is empty
+     * @requires 0 <= index < size()
+     */
+    public boolean isEmpty(int index) {
+        return (this.low[index] | this.high[index]) == 0;
+    }
+
+    /**
+     * Returns the lowest pitch of chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @return the lowest pitch index
+     * @requires 0 <= index < size() and chord {@code index} is not empty
+     */
+    public int lowest(int index) {
+        return PitchMasks.lowest(this.low[index], this.high[index]);
+    }
+
+    /**
+     * Returns the highest pitch of chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @return the highest pitch index
+     * @requires 0 <= index < size() and chord {@code index} is not empty
+     */
+    public int highest(int index) {
+        return PitchMasks.highest(this.low[index], this.high[index]);
+    }
+
+    /**
+     * Returns the pitch-class set of chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @return the pitch-class set
+     * @requires 0 <= index < size()
+     */
+    public int pitchClassSet(int index) {
+        return PitchClassSet.of(this.low[index], this.high[index]);
+    }
+
+    /**
+     * Returns the number of notes chords {@code i} and {@code j} share.
+     *
+     * @param i
+     *            the position of one chord
+     * @param j
+     *            the position of the other chord
+     * @return the number of common notes
+     * @requires 0 <= i < size() and 0 <= j < size()
+     */
+    public int commonToneCount(int i, int j) {
+        return Long.bitCount(this.low[i] & this.low[j])
+                + Long.bitCount(this.high[i] & this.high[j]);
+    }
+
+}
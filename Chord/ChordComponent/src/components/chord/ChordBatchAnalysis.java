@@ -0,0 +1,26 @@
+package components.chord;
+
+/**
+ * An analysis computing one {@code int} for each chord of a
+ * {@code ChordBatch}. {@code BatchAnalyzer} calls it from many threads at once,
+ * so it must not keep state between calls.
+ *
+ * @author Jake Meyer
+ */
+@FunctionalInterface
+public interface ChordBatchAnalysis {
+
+    /**
+     * Returns the result of the analysis for chord {@code index} of
+     * {@code batch}. May read any chord of the batch, such as its neighbors.
+     *
+     * @param batch
+     *            the batch
+     * @param index
+     *            the position of the chord
+     * @return the result for chord {@code index}
+     * @requires 0 <= index < |batch|
+     */
+    int analyze(ChordBatch batch, int index);
+
+}
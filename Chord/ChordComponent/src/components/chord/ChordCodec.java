@@ -0,0 +1,272 @@
+package components.chord;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of a chord as pitch-mask and spelling-mask words, shared by
+ * {@code Chord.writeTo}/{@code readFrom} and the chord stream classes.
+ *
+ * <p>
+ * The words of one chord are, in order: the low word of the pitch mask
+ * (always), the high word (if {@code WIDE}), the low word of the spelling
+ * mask (if {@code SPELLED}) and the high word of the spelling mask (if both).
+ * A single encoded chord starts with a tag byte holding its flags; a chord
+ * stream states the flags once in its header and every record has the same
+ * size.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+final class ChordCodec {
+
+    /**
+     * Flag set when the encoding has the high words (pitches 64 through 127).
+     */
+    static final int WIDE = 1;
+
+    /**
+     * Flag set when the encoding has the spelling-mask words.
+     */
+    static final int SPELLED = 2;
+
+    /**
+     * Every flag.
+     */
+    static final int ALL_FLAGS = WIDE | SPELLED;
+
+    /**
+     * Most bytes a single encoded chord takes (tag byte plus four words).
+     */
+    static final int MAX_BYTES = 1 + 4 * Long.BYTES;
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordCodec() {
+    }
+
+    /**
+     * Returns the smallest set of flags that can encode the given masks.
+     *
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @return the flags
+     */
+    static int flags(long high, long altLow, long altHigh) {
+        int result = 0;
+        if ((high | altHigh) != 0) {
+            result |= WIDE;
+        }
+        if ((altLow | altHigh) != 0) {
+            result |= SPELLED;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes in the words of one chord with
+     * {@code flags}, not counting any tag byte.
+     *
+     * @param flags
+     *            the flags
+     * @return the size of the words in bytes
+     */
+    static int recordBytes(int flags) {
+        int words = 1;
+        if ((flags & WIDE) != 0) {
+            words *= 2;
+        }
+        if ((flags & SPELLED) != 0) {
+            words *= 2;
+        }
+        return words * Long.BYTES;
+    }
+
+    /**
+     * Writes a tag byte and the words of a chord to {@code out}.
+     *
+     * @param out
+     *            the buffer to write to
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @updates out
+     */
+    static void write(ByteBuffer out, long low, long high, long altLow,
+            long altHigh) {
+        int flags = flags(high, altLow, altHigh);
+        out.put((byte) flags);
+        putWords(out, flags, low, high, altLow, altHigh);
+    }
+
+    /**
+     * Writes the words of a chord selected by {@code flags} to {@code out}.
+     * Spelling words are dropped if {@code flags} lacks {@code SPELLED}.
+     *
+     * @param out
+     *            the buffer to write to
+     * @param flags
+     *            which words to write
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @requires high = 0 or {flags has WIDE}
+     * @updates out
+     */
+    static void putWords(ByteBuffer out, int flags, long low, long high,
+            long altLow, long altHigh) {
+        assert high == 0 || (flags
+                & WIDE) != 0 : "Violation of: high = 0 or flags has WIDE";
+        out.putLong(low);
+        if ((flags & WIDE) != 0) {
+            out.putLong(high);
+        }
+        if ((flags & SPELLED) != 0) {
+            out.putLong(altLow);
+            if ((flags & WIDE) != 0) {
+                out.putLong(altHigh);
+            }
+        }
+    }
+
+    /**
+     * Reads the tag byte of an encoded chord from {@code in}.
+     *
+     * @param in
+     *            the buffer to read from
+     * @updates in
+     * @return the flags in the tag
+     */
+    static int readTag(ByteBuffer in) {
+        int tag = in.get();
+        assert (tag & ~ALL_FLAGS) == 0 : "Violation of: in holds an encoded chord";
+        return tag;
+    }
+
+    /**
+     * Reads the words of a chord with {@code flags} from {@code in} and
+     * replaces {@code chord} with the chord they encode.
+     *
+     * @param in
+     *            the buffer to read from
+     * @param flags
+     *            which words are present
+     * @param chord
+     *            the chord to replace
+     * @requires every note of the encoded chord is between the min and max of
+     *           chord
+     * @updates in, chord
+     */
+    static void read(ByteBuffer in, int flags, Chord chord) {
+        long low = in.getLong();
+        long high = 0L;
+        long altLow = 0L;
+        long altHigh = 0L;
+        if ((flags & WIDE) != 0) {
+            high = in.getLong();
+        }
+        if ((flags & SPELLED) != 0) {
+            altLow = in.getLong();
+            if ((flags & WIDE) != 0) {
+                altHigh = in.getLong();
+            }
+        }
+        replace(chord, low, high, altLow, altHigh);
+    }
+
+    /**
+     * Replaces {@code chord} with the notes in {@code low}/{@code high},
+     * spelled as {@code altLow}/{@code altHigh} say, taking the masks directly
+     * where the implementation allows.
+     *
+     * @param chord
+     *            the chord to replace
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @requires every pitch in low/high is between the min and max of chord
+     * @replaces chord
+     */
+    static void replace(Chord chord, long low, long high, long altLow,
+            long altHigh) {
+        if (chord instanceof ChordSecondary) {
+            ((ChordSecondary) chord).load(low, high, altLow, altHigh);
+        } else {
+            load(chord, low, high, altLow, altHigh);
+        }
+    }
+
+    /**
+     * Replaces {@code chord} with the notes in {@code low}/{@code high},
+     * spelled as {@code altLow}/{@code altHigh} say, one note at a time.
+     *
+     * @param chord
+     *            the chord to replace
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @requires every pitch in low/high is between the min and max of chord
+     * @replaces chord
+     */
+    static void load(Chord chord, long low, long high, long altLow,
+            long altHigh) {
+        chord.clear();
+        addAll(chord, low, altLow, 0);
+        addAll(chord, high, altHigh, Long.SIZE);
+    }
+
+    /**
+     * Adds every pitch in {@code pitches}, offset by {@code base}, to
+     * {@code chord}, giving those also in {@code alternates} their alternate
+     * spelling.
+     *
+     * @param chord
+     *            the chord to add to
+     * @param pitches
+     *            pitch mask of the notes to be added
+     * @param alternates
+     *            pitch mask of the notes to be spelled the alternate way
+     * @param base
+     *            pitch index of bit 0 of {@code pitches}
+     * @requires no pitch in pitches is in chord
+     * @updates chord
+     */
+    private static void addAll(Chord chord, long pitches, long alternates,
+            int base) {
+        long remaining = pitches;
+        while (remaining != 0) {
+            int pitch = base + Long.numberOfTrailingZeros(remaining);
+            if ((alternates & (1L << pitch)) != 0) {
+                chord.add(PitchTable.name(pitch, true));
+            } else {
+                chord.addPitch(pitch);
+            }
+            remaining &= remaining - 1;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package components.chord;
+
+/**
+ * A measure of how far apart two chords are, given as pitch masks. Results are
+ * never negative, and a chord is at distance 0 from itself.
+ * {@code SimilarityIndex} calls a distance from many threads at once, so it
+ * must not keep state between calls that other threads can see.
+ *
+ * @author Jake Meyer
+ */
+@FunctionalInterface
+public interface ChordDistance {
+
+    /**
+     * Returns the distance between the chords {@code aLow}/{@code aHigh} and
+     * {@code bLow}/{@code bHigh}.
+     *
+     * @param aLow
+     *            pitches 0 through 63 of the first chord
+     * @param aHigh
+     *            pitches 64 through 127 of the first chord
+     * @param bLow
+     *            pitches 0 through 63 of the second chord
+     * @param bHigh
+     *            pitches 64 through 127 of the second chord
+     * @return the distance, at least 0
+     */
+    int distance(long aLow, long aHigh, long bLow, long bHigh);
+
+}
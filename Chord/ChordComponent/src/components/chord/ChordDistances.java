@@ -0,0 +1,111 @@
+package components.chord;
+
+/**
+ * Standard distances between chords for {@code SimilarityIndex}.
+ * {@code HAMMING} and {@code INTERVAL_VECTOR} are metrics (symmetric and
+ * obeying the triangle inequality), so an index can be built on them; the
+ * voice-leading distance is not, and is only for exact scans.
+ *
+ * @author Jake Meyer
+ */
+public final class ChordDistances {
+
+    /**
+     * Bits per entry of a packed interval-class vector.
+     */
+    private static final int BITS_PER_ENTRY = 4;
+
+    /**
+     * Number of entries in an interval-class vector.
+     */
+    private static final int ENTRIES = PitchClassSet.SIZE / 2;
+
+    /**
+     * Mask of one entry of a packed interval-class vector.
+     */
+    private static final int ENTRY_MASK = (1 << BITS_PER_ENTRY) - 1;
+
+    /**
+     * The packed interval-class vector of every pitch-class set.
+     */
+    private static final int[] VECTORS = new int[PitchClassSet.COUNT];
+
+    static {
+        for (int pcs = 0; pcs < PitchClassSet.COUNT; pcs++) {
+            VECTORS[pcs] = PitchClassSet.intervalVector(pcs);
+        }
+    }
+
+    /**
+     * The number of pitches in one chord and not the other: the Hamming
+     * distance between the pitch masks.
+     */
+    public static final ChordDistance HAMMING = (aLow, aHigh, bLow,
+            bHigh) -> Long.bitCount(aLow ^ bLow) + Long.bitCount(aHigh ^ bHigh);
+
+    /**
+     * The sum, over the six interval classes, of the difference between the
+     * two chords' counts of that interval class. Chords with the same
+     * interval-class vector (for instance, transpositions of each other) are at
+     * distance 0.
+     */
+    public static final ChordDistance INTERVAL_VECTOR = (aLow, aHigh, bLow,
+            bHigh) -> intervalVectorDistance(PitchClassSet.of(aLow, aHigh),
+                    PitchClassSet.of(bLow, bHigh));
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordDistances() {
+    }
+
+    /**
+     * Returns the sum of the differences between the interval-class vectors of
+     * {@code a} and {@code b}, entry by entry.
+     *
+     * @param a
+     *            pitch-class set
+     * @param b
+     *            pitch-class set
+     * @return the interval-vector distance
+     * @requires a and b are pitch-class sets
+     */
+    public static int intervalVectorDistance(int a, int b) {
+        int va = VECTORS[a];
+        int vb = VECTORS[b];
+        int result = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            int shift = BITS_PER_ENTRY * i;
+            result += Math.abs(((va >>> shift) & ENTRY_MASK)
+                    - ((vb >>> shift) & ENTRY_MASK));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the voice-leading distance of {@code VoiceLeading}, with one
+     * {@code VoiceLeading} (and so one cache) per calling thread. This is not
+     * a metric, so it is only for exact scans; an empty chord is at distance
+     * 0 from itself and {@code Integer.MAX_VALUE} from every other chord.
+     *
+     * @return the voice-leading distance
+     */
+    public static ChordDistance voiceLeading() {
+        ThreadLocal<VoiceLeading> engines = ThreadLocal
+                .withInitial(VoiceLeading::new);
+        return (aLow, aHigh, bLow, bHigh) -> {
+            int result;
+            if ((aLow | aHigh) == 0 || (bLow | bHigh) == 0) {
+                if (aLow == bLow && aHigh == bHigh) {
+                    result = 0;
+                } else {
+                    result = Integer.MAX_VALUE;
+                }
+            } else {
+                result = engines.get().distance(aLow, aHigh, bLow, bHigh);
+            }
+            return result;
+        };
+    }
+
+}
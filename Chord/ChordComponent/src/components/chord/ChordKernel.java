@@ -45,6 +45,55 @@ public interface ChordKernel extends Standard<Chord> {
      */
     boolean contains(String note);
 
+    /**
+     * Adds the note with pitch index {@code pitch} to the chord (this), using
+     * its canonical spelling.
+     *
+     * @param pitch
+     *            the pitch index of the note to be added
+     * @requires {@code pitch} is not already in this and {@code pitch} is
+     *           between the pitches of min and max
+     * @ensures this = #this + pitch
+     */
+    void addPitch(int pitch);
+
+    /**
+     * Removes the note with pitch index {@code pitch} from the chord (this).
+     *
+     * @param pitch
+     *            the pitch index of the note to be removed
+     * @requires {@code pitch} is in this
+     * @ensures this = #this - pitch
+     */
+    void removePitch(int pitch);
+
+    /**
+     * Checks whether the note with pitch index {@code pitch} is in the chord
+     * (this).
+     *
+     * @param pitch
+     *            the pitch index to check for
+     * @requires {@code pitch} is between the pitches of min and max
+     * @ensures containsPitch = {true if pitch is in this, false otherwise}
+     * @return true if pitch is in this, false otherwise
+     */
+    boolean containsPitch(int pitch);
+
+    /**
+     * Returns one 64-pitch block of the chord (this) as a bit mask, ordered by
+     * pitch: bit {@code b} of {@code pitchMask(w)} is set exactly when the note
+     * with pitch index {@code 64 * w + b} is in this. Word 0 holds pitches 0
+     * through 63 and word 1 holds pitches 64 through 127.
+     *
+     * @param word
+     *            which block of 64 pitches
+     * @requires 0 <= word <= 1
+     * @ensures pitchMask = {sum of 2^(p - 64 * word) for each pitch p in this
+     *          with 64 * word <= p < 64 * (word + 1)}
+     * @return the pitches in block {@code word} of this as a bit mask
+     */
+    long pitchMask(int word);
+
     /**
      * Returns an array of all possible note names to guide the user.
      *
@@ -58,7 +107,8 @@ public interface ChordKernel extends Standard<Chord> {
      * so user can use methods with syntax such as
      * add(noteListString.value("A"). Note: Just typing "A" will function as
      * "A1". Other octaves can be specified, but only values within the map will
-     * function as expected.
+     * function as expected. The map is a new copy of the shared spelling table,
+     * so changes to it do not affect any chord.
      *
      * @ensures noteListString = {map of note names and their respective ints}
      * @return a map of notes and their int values, searchable by name
@@ -68,7 +118,8 @@ public interface ChordKernel extends Standard<Chord> {
     /**
      * Returns a map that is essentially noteListString but flipped. Used to
      * assist remove and add. If a note is flat/sharp, it will default to
-     * showing the corresponding flat. Will also include the octave number.
+     * showing the corresponding flat. Will also include the octave number. The
+     * map is a new copy of the shared spelling table.
      *
      * @ensures noteListInt = {inverted version of noteListString}
      * @return a map of notes and their int values, searchable by int
@@ -78,6 +129,7 @@ public interface ChordKernel extends Standard<Chord> {
     /**
      * Returns a map of all notes currently inside this. Client should only
      * expect notes with a number after. Ex: if C was added, expect C0, not C.
+     * The map is a new copy, so changes to it do not affect this.
      *
      * @ensures currentNotes = {representation of the chord in map form}
      * @return a map of all notes currently inside this
@@ -85,8 +137,9 @@ public interface ChordKernel extends Standard<Chord> {
     Map<Integer, String> currentNotes();
 
     /**
-     * Returns the highest note allowed by the component in Letter * Octave
-     * form.
+     * Returns the highest note allowed by the chord (this) in Letter * Octave
+     * form. Defaults to C3; may be set as high as G10 (MIDI 127) when the
+     * chord is constructed.
      *
      * @ensures max = {highest note allowed by the component}
      * @return highest note allowed by the component
@@ -94,7 +147,8 @@ public interface ChordKernel extends Standard<Chord> {
     String max();
 
     /**
-     * Returns the lowest note allowed by the component in Letter * Octave form.
+     * Returns the lowest note allowed by the chord (this) in Letter * Octave
+     * form. Defaults to C0, which is also the lowest that may be set.
      *
      * @ensures min = {lowest note allowed by the component}
      * @return lowest note allowed by the component
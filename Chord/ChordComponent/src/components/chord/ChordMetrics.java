@@ -0,0 +1,404 @@
+package components.chord;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Process-wide metrics for the chord layer: call counts and latency
+ * histograms for each {@code InstrumentedChord} operation, the mask words
+ * examined by {@code removeLowest}, representations created by
+ * {@code Chord1} and {@code Chord2}, and note-name lookups in the pitch
+ * table.
+ *
+ * <p>
+ * Recording is off until {@code setEnabled(true)}. While it is off, every
+ * hook here costs one volatile read and a branch. Results can be read as a
+ * {@code Snapshot} or, after {@code registerMBean}, over JMX.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class ChordMetrics {
+
+    /**
+     * Name the MXBean is registered under.
+     */
+    public static final String OBJECT_NAME = "components.chord:type=ChordMetrics";
+
+    /**
+     * Start time returned by {@code start} when recording is off.
+     */
+    private static final long OFF = Long.MIN_VALUE;
+
+    /**
+     * Percentile reported as the median.
+     */
+    private static final double MEDIAN = 50.0;
+
+    /**
+     * Tail percentile reported.
+     */
+    private static final double TAIL = 99.0;
+
+    /**
+     * Whether metrics are recorded.
+     */
+    private static volatile boolean enabled = false;
+
+    /**
+     * Latency of each operation, in nanoseconds.
+     */
+    private static final LatencyHistogram[] LATENCY = new LatencyHistogram[ChordOperation
+            .values().length];
+
+    static {
+        for (int i = 0; i < LATENCY.length; i++) {
+            LATENCY[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Mask words examined by {@code removeLowest}.
+     */
+    private static final LongAdder REMOVE_LOWEST_PROBES = new LongAdder();
+
+    /**
+     * Representations created.
+     */
+    private static final LongAdder REP_CREATIONS = new LongAdder();
+
+    /**
+     * Note-name lookups.
+     */
+    private static final LongAdder TABLE_LOOKUPS = new LongAdder();
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordMetrics() {
+    }
+
+    /*
+     * Control ----------------------------------------------------------------
+     */
+
+    /**
+     * Reports whether metrics are being recorded.
+     *
+     * @return true if recording
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off. What has been recorded is kept.
+     *
+     * @param on
+     *            whether to record
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Forgets everything recorded.
+     */
+    public static void reset() {
+        for (LatencyHistogram h : LATENCY) {
+            h.reset();
+        }
+        REMOVE_LOWEST_PROBES.reset();
+        REP_CREATIONS.reset();
+        TABLE_LOOKUPS.reset();
+    }
+
+    /**
+     * Registers the metrics MXBean with the platform MBean server under
+     * {@code OBJECT_NAME}, unless it is already registered.
+     *
+     * @throws JMException
+     *             if the MBean server refuses the registration
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new StandardMBean(new Management(),
+                    ChordMetricsMXBean.class, true), name);
+        }
+    }
+
+    /*
+     * Hooks ------------------------------------------------------------------
+     */
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return the start time to pass to {@code record}
+     */
+    static long start() {
+        long result = OFF;
+        if (enabled) {
+            result = System.nanoTime();
+        }
+        return result;
+    }
+
+    /**
+     * Finishes timing {@code op}, begun by {@code start}.
+     *
+     * @param op
+     *            the operation
+     * @param start
+     *            the value {@code start} returned
+     */
+    static void record(ChordOperation op, long start) {
+        if (start != OFF) {
+            LATENCY[op.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts the mask words {@code removeLowest} will examine to find the
+     * lowest note of {@code chord}: one if it has a note below pitch 64, two
+     * otherwise.
+     *
+     * @param chord
+     *            the chord, before its lowest note is removed
+     */
+    static void removeLowestProbes(Chord chord) {
+        if (enabled) {
+            int words = 1;
+            if (chord.pitchMask(0) == 0) {
+                words = 2;
+            }
+            REMOVE_LOWEST_PROBES.add(words);
+        }
+    }
+
+    /**
+     * Counts a representation created.
+     */
+    static void repCreated() {
+        if (enabled) {
+            REP_CREATIONS.increment();
+        }
+    }
+
+    /**
+     * Counts a note-name lookup.
+     */
+    static void tableLookup() {
+        if (enabled) {
+            TABLE_LOOKUPS.increment();
+        }
+    }
+
+    /*
+     * Reading ----------------------------------------------------------------
+     */
+
+    /**
+     * Returns a copy of everything recorded so far. Values recorded while the
+     * copy is taken may or may not be included.
+     *
+     * @return the snapshot
+     */
+    public static Snapshot snapshot() {
+        Map<ChordOperation, LatencyHistogram> latency = new EnumMap<>(
+                ChordOperation.class);
+        for (ChordOperation op : ChordOperation.values()) {
+            latency.put(op, LATENCY[op.ordinal()].copy());
+        }
+        return new Snapshot(latency, REMOVE_LOWEST_PROBES.sum(),
+                REP_CREATIONS.sum(), TABLE_LOOKUPS.sum());
+    }
+
+    /**
+     * Metrics as they stood when {@code snapshot} was called.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Latency of each operation.
+         */
+        private final Map<ChordOperation, LatencyHistogram> latency;
+
+        /**
+         * Mask words examined by {@code removeLowest}.
+         */
+        private final long removeLowestProbes;
+
+        /**
+         * Representations created.
+         */
+        private final long repCreations;
+
+        /**
+         * Note-name lookups.
+         */
+        private final long tableLookups;
+
+        /**
+         * Constructor from copied values.
+         *
+         * @param latency
+         *            latency of each operation
+         * @param removeLowestProbes
+         *            mask words examined by {@code removeLowest}
+         * @param repCreations
+         *            representations created
+         * @param tableLookups
+         *            note-name lookups
+         */
+        private Snapshot(Map<ChordOperation, LatencyHistogram> latency,
+                long removeLowestProbes, long repCreations,
+                long tableLookups) {
+            this.latency = latency;
+            this.removeLowestProbes = removeLowestProbes;
+            this.repCreations = repCreations;
+            this.tableLookups = tableLookups;
+        }
+
+        /**
+         * Reports the number of calls of {@code op}.
+         *
+         * @param op
+         *            the operation
+         * @return the number of calls
+         */
+        public long calls(ChordOperation op) {
+            return this.latency.get(op).count();
+        }
+
+        /**
+         * Returns the latencies of {@code op}, in nanoseconds. The histogram
+         * belongs to this snapshot; changing it changes nothing else.
+         *
+         * @param op
+         *            the operation
+         * @return the histogram
+         */
+        public LatencyHistogram latency(ChordOperation op) {
+            return this.latency.get(op);
+        }
+
+        /**
+         * Reports the number of mask words examined by {@code removeLowest}.
+         *
+         * @return the number of probes
+         */
+        public long removeLowestProbes() {
+            return this.removeLowestProbes;
+        }
+
+        /**
+         * Reports the number of representations created.
+         *
+         * @return the number of representations
+         */
+        public long repCreations() {
+            return this.repCreations;
+        }
+
+        /**
+         * Reports the number of note-name lookups.
+         *
+         * @return the number of lookups
+         */
+        public long tableLookups() {
+            return this.tableLookups;
+        }
+
+        /**
+         * Returns {@code value} of the latency of every operation that has
+         * been called, keyed by operation name.
+         *
+         * @param value
+         *            what to report of each histogram
+         * @return the values by operation
+         */
+        Map<String, Long> byOperation(ToLongFunction<LatencyHistogram> value) {
+            Map<String, Long> result = new TreeMap<>();
+            for (Map.Entry<ChordOperation, LatencyHistogram> e : this.latency
+                    .entrySet()) {
+                if (e.getValue().count() > 0) {
+                    result.put(e.getKey().name(),
+                            value.applyAsLong(e.getValue()));
+                }
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * The MXBean, reading a fresh snapshot for each attribute.
+     */
+    private static final class Management implements ChordMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return ChordMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            ChordMetrics.setEnabled(on);
+        }
+
+        @Override
+        public Map<String, Long> getCallCounts() {
+            return snapshot().byOperation(LatencyHistogram::count);
+        }
+
+        @Override
+        public Map<String, Long> getMedianNanos() {
+            return snapshot()
+                    .byOperation(h -> h.valueAtPercentile(MEDIAN));
+        }
+
+        @Override
+        public Map<String, Long> getP99Nanos() {
+            return snapshot().byOperation(h -> h.valueAtPercentile(TAIL));
+        }
+
+        @Override
+        public Map<String, Long> getMaxNanos() {
+            return snapshot().byOperation(LatencyHistogram::max);
+        }
+
+        @Override
+        public long getRemoveLowestProbes() {
+            return REMOVE_LOWEST_PROBES.sum();
+        }
+
+        @Override
+        public long getRepCreations() {
+            return REP_CREATIONS.sum();
+        }
+
+        @Override
+        public long getTableLookups() {
+            return TABLE_LOOKUPS.sum();
+        }
+
+        @Override
+        public void reset() {
+            ChordMetrics.reset();
+        }
+
+    }
+
+}
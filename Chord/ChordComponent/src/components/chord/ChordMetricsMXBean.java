@@ -0,0 +1,84 @@
+package components.chord;
+
+import java.util.Map;
+
+/**
+ * Management interface through which {@code ChordMetrics} is exported over
+ * JMX. Maps are keyed by {@code ChordOperation} name and hold only
+ * operations that have been called.
+ *
+ * @author Jake Meyer
+ */
+public interface ChordMetricsMXBean {
+
+    /**
+     * Reports whether metrics are being recorded.
+     *
+     * @return true if recording
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns recording on or off.
+     *
+     * @param enabled
+     *            whether to record
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Reports the number of calls of each operation.
+     *
+     * @return calls by operation
+     */
+    Map<String, Long> getCallCounts();
+
+    /**
+     * Reports the median latency of each operation.
+     *
+     * @return nanoseconds by operation
+     */
+    Map<String, Long> getMedianNanos();
+
+    /**
+     * Reports the 99th-percentile latency of each operation.
+     *
+     * @return nanoseconds by operation
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * Reports the largest latency of each operation.
+     *
+     * @return nanoseconds by operation
+     */
+    Map<String, Long> getMaxNanos();
+
+    /**
+     * Reports the number of mask words examined by {@code removeLowest}.
+     *
+     * @return the number of probes
+     */
+    long getRemoveLowestProbes();
+
+    /**
+     * Reports the number of representations created by {@code Chord1} and
+     * {@code Chord2}.
+     *
+     * @return the number of representations
+     */
+    long getRepCreations();
+
+    /**
+     * Reports the number of note-name lookups in the pitch table.
+     *
+     * @return the number of lookups
+     */
+    long getTableLookups();
+
+    /**
+     * Forgets everything recorded.
+     */
+    void reset();
+
+}
@@ -0,0 +1,211 @@
+package components.chord;
+
+/**
+ * The {@code Chord} methods {@code InstrumentedChord} counts and times, one
+ * constant per method.
+ *
+ * @author Jake Meyer
+ */
+public enum ChordOperation {
+
+    /**
+     * Times {@code newInstance}.
+     */
+    NEW_INSTANCE,
+
+    /**
+     * Times {@code clear}.
+     */
+    CLEAR,
+
+    /**
+     * Times {@code transferFrom}.
+     */
+    TRANSFER_FROM,
+
+    /**
+     * Times {@code add}.
+     */
+    ADD,
+
+    /**
+     * Times {@code remove}.
+     */
+    REMOVE,
+
+    /**
+     * Times {@code contains}.
+     */
+    CONTAINS,
+
+    /**
+     * Times {@code addPitch}.
+     */
+    ADD_PITCH,
+
+    /**
+     * Times {@code removePitch}.
+     */
+    REMOVE_PITCH,
+
+    /**
+     * Times {@code containsPitch}.
+     */
+    CONTAINS_PITCH,
+
+    /**
+     * Times {@code pitchMask}.
+     */
+    PITCH_MASK,
+
+    /**
+     * Times {@code noteList}.
+     */
+    NOTE_LIST,
+
+    /**
+     * Times {@code noteListString}.
+     */
+    NOTE_LIST_STRING,
+
+    /**
+     * Times {@code noteListInt}.
+     */
+    NOTE_LIST_INT,
+
+    /**
+     * Times {@code currentNotes}.
+     */
+    CURRENT_NOTES,
+
+    /**
+     * Times {@code max}.
+     */
+    MAX,
+
+    /**
+     * Times {@code min}.
+     */
+    MIN,
+
+    /**
+     * Times {@code size}.
+     */
+    SIZE,
+
+    /**
+     * Times {@code flat}.
+     */
+    FLAT,
+
+    /**
+     * Times {@code sharp}.
+     */
+    SHARP,
+
+    /**
+     * Times {@code natural}.
+     */
+    NATURAL,
+
+    /**
+     * Times {@code octaveUp}.
+     */
+    OCTAVE_UP,
+
+    /**
+     * Times {@code octaveDown}.
+     */
+    OCTAVE_DOWN,
+
+    /**
+     * Times {@code transposePitch}.
+     */
+    TRANSPOSE_PITCH,
+
+    /**
+     * Times {@code transpose}.
+     */
+    TRANSPOSE,
+
+    /**
+     * Times {@code transposeOctaves}.
+     */
+    TRANSPOSE_OCTAVES,
+
+    /**
+     * Times {@code union}.
+     */
+    UNION,
+
+    /**
+     * Times {@code intersect}.
+     */
+    INTERSECT,
+
+    /**
+     * Times {@code difference}.
+     */
+    DIFFERENCE,
+
+    /**
+     * Times {@code commonToneCount}.
+     */
+    COMMON_TONE_COUNT,
+
+    /**
+     * Times {@code isSubsetOf}.
+     */
+    IS_SUBSET_OF,
+
+    /**
+     * Times {@code removeLowest}.
+     */
+    REMOVE_LOWEST,
+
+    /**
+     * Times {@code removeHighest}.
+     */
+    REMOVE_HIGHEST,
+
+    /**
+     * Times {@code lowest}.
+     */
+    LOWEST,
+
+    /**
+     * Times {@code highest}.
+     */
+    HIGHEST,
+
+    /**
+     * Times {@code forEachPitch}.
+     */
+    FOR_EACH_PITCH,
+
+    /**
+     * Times {@code spellingMask}.
+     */
+    SPELLING_MASK,
+
+    /**
+     * Times {@code writeTo}.
+     */
+    WRITE_TO,
+
+    /**
+     * Times {@code readFrom}.
+     */
+    READ_FROM,
+
+    /**
+     * Times {@code copy}.
+     */
+    COPY,
+
+    /**
+     * Times {@code copyFrom}.
+     */
+    COPY_FROM;
+
+}
@@ -0,0 +1,171 @@
+package components.chord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads a stream of chords written by {@code ChordWriter} from a channel.
+ * Records are fetched from the channel in large blocks and decoded straight
+ * into a chord supplied by the caller, so reading a corpus allocates nothing
+ * per chord and parses no note names. The channel must be in blocking mode: a
+ * read that returns no bytes is reported as an error rather than retried.
+ *
+ * @author Jake Meyer
+ */
+public final class ChordReader implements Closeable {
+
+    /**
+     * Size of the block buffer in bytes.
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Channel being read from.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Bytes read from {@code channel} but not yet decoded.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Which words each record has.
+     */
+    private final int flags;
+
+    /**
+     * Size of each record in bytes.
+     */
+    private final int recordBytes;
+
+    /**
+     * Whether {@code channel} has reached its end.
+     */
+    private boolean atEnd;
+
+    /**
+     * Constructor from a channel positioned at the start of a chord stream.
+     * Reads the stream header.
+     *
+     * @param channel
+     *            the channel to read from
+     * @throws IOException
+     *             if the channel cannot be read or does not start with a
+     *             chord-stream header
+     * @requires channel is in blocking mode
+     */
+    public ChordReader(ReadableByteChannel channel) throws IOException {
+        assert channel != null : "Violation of: channel is not null";
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        this.buffer.flip();
+        this.atEnd = false;
+        this.fill(ChordStreams.HEADER_BYTES);
+        if (this.buffer.remaining() < ChordStreams.HEADER_BYTES) {
+            throw new IOException("Not a chord stream: header is truncated");
+        }
+        this.flags = ChordStreams.getHeader(this.buffer);
+        this.recordBytes = ChordCodec.recordBytes(this.flags);
+    }
+
+    /**
+     * Reports whether the records hold pitches 64 through 127.
+     *
+     * @return true if the stream is wide
+     */
+    public boolean isWide() {
+        return (this.flags & ChordCodec.WIDE) != 0;
+    }
+
+    /**
+     * Reports whether the records keep the spelling of each note.
+     *
+     * @return true if the stream is spelled
+     */
+    public boolean isSpelled() {
+        return (this.flags & ChordCodec.SPELLED) != 0;
+    }
+
+    /**
+     * Reports whether another chord remains in the stream.
+     *
+     * @return true if {@code next} may be called
+     * @throws IOException
+     *             if the channel cannot be read or ends partway through a
+     *             record
+     */
+    public boolean hasNext() throws IOException {
+        if (this.buffer.remaining() < this.recordBytes) {
+            this.fill(this.recordBytes);
+            if (this.buffer.hasRemaining()
+                    && this.buffer.remaining() < this.recordBytes) {
+                throw new IOException(
+                        "Chord stream ends partway through a record");
+            }
+        }
+        return this.buffer.hasRemaining();
+    }
+
+    /**
+     * Replaces {@code chord} with the next chord in the stream.
+     *
+     * @param chord
+     *            the chord to read into
+     * @throws IOException
+     *             if the channel cannot be read
+     * @requires hasNext() and every note of the next chord is between the min
+     *           and max of chord
+     * @replaces chord
+     */
+    public void next(Chord chord) throws IOException {
+        assert chord != null : "Violation of: chord is not null";
+        boolean more = this.hasNext();
+        assert more : "Violation of: hasNext()";
+        ChordCodec.read(this.buffer, this.flags, chord);
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Reads from the channel until {@code buffer} holds at least
+     * {@code needed} bytes or the channel ends.
+     *
+     * @param needed
+     *            number of bytes wanted
+     * @throws IOException
+     *             if the channel cannot be read or a read makes no progress
+     */
+    private void fill(int needed) throws IOException {
+        this.buffer.compact();
+        while (!this.atEnd && this.buffer.position() < needed) {
+            /*
+             * The buffer always has room here, so a blocking channel reads at
+             * least one byte or reports the end; 0 means a non-blocking
+             * channel with nothing ready, which would otherwise spin forever.
+             */
+            int read = this.channel.read(this.buffer);
+            if (read < 0) {
+                this.atEnd = true;
+            } else if (read == 0) {
+                this.buffer.flip();
+                throw new IOException(
+                        "Chord stream channel returned no bytes; it must be "
+                                + "in blocking mode");
+            }
+        }
+        this.buffer.flip();
+    }
+
+}
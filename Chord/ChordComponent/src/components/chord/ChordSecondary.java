@@ -1,5 +1,10 @@
 package components.chord;
 
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+
+import components.map.Map;
+
 /**
  * Layered implementations of secondary methods for {@code Chord}.
  *
@@ -27,38 +32,29 @@ public abstract class ChordSecondary implements Chord {
         if (!(obj instanceof Chord)) {
             return false;
         }
-        Chord c = (Chord) obj;
-        if (this.size() != c.size()) {
-            return false;
-        }
-        Chord thisTemp = this.newInstance();
-        Chord cTemp = this.newInstance();
-        while (this.size() > 0) {
-            String x1 = this.removeLowest();
-            Object x2 = c.removeLowest();
-            if (!x2.equals(x1)) {
-                return false;
-            }
-            thisTemp.add(x1);
-            cTemp.add((String) x2);
-        }
-        this.transferFrom(thisTemp);
-        c.transferFrom(cTemp);
-        return true;
+        return this.value().equals(valueOf((Chord) obj));
+    }
+
+    @Override
+    public final int hashCode() {
+        return this.value().hashCode();
     }
 
     @Override
     public String toString() {
         StringBuilder result = new StringBuilder("<");
-        Chord temp = this.newInstance();
-        while (this.size() > 0) {
-            result.append(this.removeLowest());
-            if (this.size() > 0) {
-                result.append(",");
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = this.pitchMask(w);
+            while (remaining != 0) {
+                if (result.length() > 1) {
+                    result.append(",");
+                }
+                result.append(PitchTable.name(
+                        w * Long.SIZE + Long.numberOfTrailingZeros(remaining)));
+                remaining &= remaining - 1;
             }
         }
         result.append(">");
-        this.transferFrom(temp);
         return result.toString();
     }
 
@@ -67,81 +63,299 @@ public abstract class ChordSecondary implements Chord {
      */
 
     /**
-     * Small method to scan a note string and return if it has a flat or sharp.
+     * Returns the notes of this as a value, with both pitch-mask words read
+     * at one instant. {@code equals} and {@code hashCode} go through this;
+     * overridden where separate {@code pitchMask} calls could see different
+     * states of this.
      *
-     * @param note
-     *            note to be scanned
-     * @return {"Flat" if note is flat, "Sharp" if note is sharp, "" if note is
-     *         natural}
+     * @return the notes of this
      */
-    private String noteStatus(String note) {
-        int i = 0;
-        String result = "";
-        while (i < note.length() && result.equals("")) {
-            if (note.charAt(i) == 'b') {
-                result = "Flat";
-            } else if (note.charAt(i) == '#') {
-                result = "Sharp";
-            }
-            i++;
+    ChordValue value() {
+        return ChordValue.of(this.pitchMask(0), this.pitchMask(1));
+    }
+
+    /**
+     * Returns the notes of {@code chord} as a value, read at one instant if
+     * {@code chord} offers that.
+     *
+     * @param chord
+     *            the chord
+     * @return the notes of {@code chord}
+     */
+    static ChordValue valueOf(Chord chord) {
+        ChordValue result;
+        if (chord instanceof ChordSecondary) {
+            result = ((ChordSecondary) chord).value();
+        } else {
+            result = ChordValue.of(chord);
         }
         return result;
     }
 
+    /**
+     * Reports whether every note in the set {@code low}/{@code high}, moved by
+     * {@code semitones}, stays between the pitches of min and max.
+     *
+     * @param low
+     *            pitches 0 through 63 of the notes to be moved
+     * @param high
+     *            pitches 64 through 127 of the notes to be moved
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @return true if every moved note is within range
+     */
+    protected final boolean inRangeAfter(long low, long high, int semitones) {
+        boolean result = true;
+        if ((low | high) != 0) {
+            result = PitchMasks.lowest(low, high) + semitones >= PitchTable
+                    .pitch(this.min())
+                    && PitchMasks.highest(low, high) + semitones <= PitchTable
+                            .pitch(this.max());
+        }
+        return result;
+    }
+
+    /**
+     * Adds every pitch in {@code pitches}, offset by {@code base}, to this.
+     *
+     * @param pitches
+     *            pitch mask of the notes to be added
+     * @param base
+     *            pitch index of bit 0 of {@code pitches}
+     * @requires no pitch in pitches is in this
+     * @ensures this = #this + pitches
+     */
+    private void addAll(long pitches, int base) {
+        long remaining = pitches;
+        while (remaining != 0) {
+            this.addPitch(base + Long.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+    }
+
+    /**
+     * Removes every pitch in {@code pitches}, offset by {@code base}, from
+     * this.
+     *
+     * @param pitches
+     *            pitch mask of the notes to be removed
+     * @param base
+     *            pitch index of bit 0 of {@code pitches}
+     * @requires pitches is a subset of this
+     * @ensures this = #this - pitches
+     */
+    private void removeAll(long pitches, int base) {
+        long remaining = pitches;
+        while (remaining != 0) {
+            this.removePitch(base + Long.numberOfTrailingZeros(remaining));
+            remaining &= remaining - 1;
+        }
+    }
+
+    /**
+     * Replaces this with the notes in {@code low}/{@code high}, spelled as
+     * {@code altLow}/{@code altHigh} say. Used to decode chords; overridden
+     * where the representation can take the masks directly.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @requires every pitch in low/high is between the pitches of min and max
+     * @replaces this
+     */
+    void load(long low, long high, long altLow, long altHigh) {
+        ChordCodec.load(this, low, high, altLow, altHigh);
+    }
+
     /*
      * Other non-kernel methods -----------------------------------------------
      */
 
+    @Override
+    public void transposePitch(int from, int semitones) {
+        this.removePitch(from);
+        this.addPitch(from + semitones);
+    }
+
+    @Override
+    public void transpose(int semitones) {
+        long low = this.pitchMask(0);
+        long high = this.pitchMask(1);
+        assert this.inRangeAfter(low, high,
+                semitones) : "Violation of: transposed notes are within range";
+        if (semitones != 0) {
+            this.clear();
+            this.addAll(PitchMasks.shiftLow(low, high, semitones), 0);
+            this.addAll(PitchMasks.shiftHigh(low, high, semitones), Long.SIZE);
+        }
+    }
+
+    @Override
+    public void transposeOctaves(int octaves) {
+        this.transpose(octaves * NOTES_IN_OCTAVE);
+    }
+
+    @Override
+    public void union(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            this.addAll(other.pitchMask(w) & ~this.pitchMask(w), w * Long.SIZE);
+        }
+    }
+
+    @Override
+    public void intersect(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            this.removeAll(this.pitchMask(w) & ~other.pitchMask(w),
+                    w * Long.SIZE);
+        }
+    }
+
+    @Override
+    public void difference(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            this.removeAll(this.pitchMask(w) & other.pitchMask(w),
+                    w * Long.SIZE);
+        }
+    }
+
+    @Override
+    public int commonToneCount(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        return Long.bitCount(this.pitchMask(0) & other.pitchMask(0))
+                + Long.bitCount(this.pitchMask(1) & other.pitchMask(1));
+    }
+
+    @Override
+    public boolean isSubsetOf(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        return (this.pitchMask(0) & ~other.pitchMask(0)) == 0
+                && (this.pitchMask(1) & ~other.pitchMask(1)) == 0;
+    }
+
     @Override
     public void flat(String note) {
-        this.remove(note);
-        int address = this.noteListString().value(note);
-        this.add(this.noteListInt().value(address - 1));
+        this.transposePitch(PitchTable.pitch(note), -1);
     }
 
     @Override
     public void sharp(String note) {
-        this.remove(note);
-        int address = this.noteListString().value(note);
-        this.add(this.noteListInt().value(address + 1));
+        this.transposePitch(PitchTable.pitch(note), 1);
     }
 
     @Override
     public void natural(String note) {
-        int address = this.noteListString().value(note);
-        this.remove(note);
-        String status = this.noteStatus(note);
-        if (status.equals("Flat")) {
-            address++;
-        } else if (status.equals("Sharp")) {
-            address--;
-        }
-        this.add(this.noteListInt().value(address));
-
+        int address = PitchTable.pitch(note);
+        int step = -PitchTable.alteration(note);
+        this.removePitch(address);
+        this.addPitch(address + step);
     }
 
     @Override
     public void octaveUp(String note) {
-        this.remove(note);
-        int address = this.noteListString().value(note);
-        this.add(this.noteListInt().value(address + NOTES_IN_OCTAVE));
+        this.transposePitch(PitchTable.pitch(note), NOTES_IN_OCTAVE);
     }
 
     @Override
     public void octaveDown(String note) {
-        this.remove(note);
-        int address = this.noteListString().value(note);
-        this.add(this.noteListInt().value(address - NOTES_IN_OCTAVE));
+        this.transposePitch(PitchTable.pitch(note), -NOTES_IN_OCTAVE);
     }
 
     @Override
     public String removeLowest() {
-        int i = 0;
-        while (!this.contains(this.noteList()[i])) {
-            i++;
+        assert this.size() > 0 : "Violation of: |this| > 0";
+        int lowest = PitchMasks.lowest(this.pitchMask(0), this.pitchMask(1));
+        this.removePitch(lowest);
+        return PitchTable.name(lowest);
+    }
+
+    @Override
+    public String removeHighest() {
+        assert this.size() > 0 : "Violation of: |this| > 0";
+        int highest = PitchMasks.highest(this.pitchMask(0), this.pitchMask(1));
+        this.removePitch(highest);
+        return PitchTable.name(highest);
+    }
+
+    @Override
+    public String lowest() {
+        assert this.size() > 0 : "Violation of: |this| > 0";
+        return PitchTable.name(
+                PitchMasks.lowest(this.pitchMask(0), this.pitchMask(1)));
+    }
+
+    @Override
+    public String highest() {
+        assert this.size() > 0 : "Violation of: |this| > 0";
+        return PitchTable.name(
+                PitchMasks.highest(this.pitchMask(0), this.pitchMask(1)));
+    }
+
+    @Override
+    public void forEachPitch(IntConsumer action) {
+        assert action != null : "Violation of: action is not null";
+        long low = this.pitchMask(0);
+        long high = this.pitchMask(1);
+        while (low != 0) {
+            action.accept(Long.numberOfTrailingZeros(low));
+            low &= low - 1;
+        }
+        while (high != 0) {
+            action.accept(Long.SIZE + Long.numberOfTrailingZeros(high));
+            high &= high - 1;
         }
+    }
+
+    @Override
+    public long spellingMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result = 0L;
+        Map<Integer, String> notes = this.currentNotes();
+        for (Map.Pair<Integer, String> note : notes) {
+            int pitch = note.key();
+            if (pitch / Long.SIZE == word
+                    && PitchTable.isAlternate(note.value())) {
+                result |= 1L << pitch;
+            }
+        }
+        return result;
+    }
 
-        return this.remove(this.noteListInt().value(i));
+    @Override
+    public Chord copy() {
+        Chord result = this.newInstance();
+        result.copyFrom(this);
+        return result;
+    }
+
+    @Override
+    public void copyFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        if (source != this) {
+            this.load(source.pitchMask(0), source.pitchMask(1),
+                    source.spellingMask(0), source.spellingMask(1));
+        }
+    }
+
+    @Override
+    public void writeTo(ByteBuffer out) {
+        assert out != null : "Violation of: out is not null";
+        ChordCodec.write(out, this.pitchMask(0), this.pitchMask(1),
+                this.spellingMask(0), this.spellingMask(1));
+    }
+
+    @Override
+    public void readFrom(ByteBuffer in) {
+        assert in != null : "Violation of: in is not null";
+        ChordCodec.read(in, ChordCodec.readTag(in), this);
     }
 
 }
@@ -0,0 +1,653 @@
+package components.chord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap, memory-mapped store of many chords, kept in a file as columns of
+ * 64-bit words: the low pitch-mask word of every chord, then (for a store
+ * reaching above pitch 63) the high words, then optionally the spelling words
+ * and a timestamp per chord. A chord in the store costs 8 to 40 bytes of file
+ * and no heap at all, so a corpus far larger than the heap can be scanned,
+ * filtered and transposed in place with sequential I/O. Chords are read and
+ * changed through {@code StoredChord}, a flyweight view moved from slot to
+ * slot.
+ *
+ * <p>
+ * The file starts with a 64-byte header: the magic bytes "CHST", a version
+ * byte, a flags byte, the min and max pitch of every chord in the store, the
+ * capacity and the number of chords stored. Each column holds
+ * {@code capacity} words. Every column is mapped on its own, so a store can
+ * hold up to 268,435,455 chords.
+ * </p>
+ *
+ * <p>
+ * Closing the store flushes it and closes the file; as with any
+ * {@code MappedByteBuffer}, the mappings themselves are released when they are
+ * garbage collected.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class ChordStore implements Closeable {
+
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER_BYTES = 64;
+
+    /**
+     * The bytes "CHST" that open every store file.
+     */
+    private static final int MAGIC = 0x43485354;
+
+    /**
+     * Version of the format written.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Flag set when the store has spelling columns.
+     */
+    private static final int SPELLED = 1;
+
+    /**
+     * Flag set when the store has a timestamp column.
+     */
+    private static final int TIMED = 2;
+
+    /**
+     * Offset of the version byte in the header.
+     */
+    private static final int VERSION_AT = 4;
+
+    /**
+     * Offset of the flags byte in the header.
+     */
+    private static final int FLAGS_AT = 5;
+
+    /**
+     * Offset of the min pitch byte in the header.
+     */
+    private static final int MIN_AT = 6;
+
+    /**
+     * Offset of the max pitch byte in the header.
+     */
+    private static final int MAX_AT = 7;
+
+    /**
+     * Offset of the capacity in the header.
+     */
+    private static final int CAPACITY_AT = 8;
+
+    /**
+     * Offset of the number of chords stored in the header.
+     */
+    private static final int SIZE_AT = 12;
+
+    /**
+     * Largest capacity, so that a column fits in one mapping.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / Long.BYTES;
+
+    /**
+     * Column of low pitch-mask words.
+     */
+    static final int LOW = 0;
+
+    /**
+     * Column of high pitch-mask words.
+     */
+    static final int HIGH = 1;
+
+    /**
+     * Column of low spelling-mask words.
+     */
+    static final int ALT_LOW = 2;
+
+    /**
+     * Column of high spelling-mask words.
+     */
+    static final int ALT_HIGH = 3;
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The header.
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * The mask columns, indexed by {@code LOW} through {@code ALT_HIGH};
+     * {@code null} for columns the store does not have.
+     */
+    private final MappedByteBuffer[] columns;
+
+    /**
+     * The timestamp column, or {@code null}.
+     */
+    private final MappedByteBuffer times;
+
+    /**
+     * Lowest pitch allowed in any chord of the store.
+     */
+    private final int minPitch;
+
+    /**
+     * Highest pitch allowed in any chord of the store.
+     */
+    private final int maxPitch;
+
+    /**
+     * Number of slots in the file.
+     */
+    private final int capacity;
+
+    /**
+     * Number of chords stored.
+     */
+    private int size;
+
+    /**
+     * Constructor from an open file whose header is already written.
+     *
+     * @param channel
+     *            the file
+     * @param header
+     *            the header mapping
+     * @throws IOException
+     *             if the columns cannot be mapped
+     */
+    private ChordStore(FileChannel channel, MappedByteBuffer header)
+            throws IOException {
+        this.channel = channel;
+        this.header = header;
+        int flags = header.get(FLAGS_AT);
+        this.minPitch = header.get(MIN_AT);
+        this.maxPitch = header.get(MAX_AT);
+        this.capacity = header.getInt(CAPACITY_AT);
+        this.size = header.getInt(SIZE_AT);
+        this.columns = new MappedByteBuffer[PitchMasks.WORDS * 2];
+
+        boolean wide = this.maxPitch >= Long.SIZE;
+        long position = HEADER_BYTES;
+        long columnBytes = (long) this.capacity * Long.BYTES;
+        for (int c = LOW; c <= ALT_HIGH; c++) {
+            boolean present = (c != HIGH && c != ALT_HIGH) || wide;
+            if (c >= ALT_LOW) {
+                present &= (flags & SPELLED) != 0;
+            }
+            if (present) {
+                this.columns[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        position, columnBytes);
+                position += columnBytes;
+            }
+        }
+        if ((flags & TIMED) != 0) {
+            this.times = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                    columnBytes);
+        } else {
+            this.times = null;
+        }
+    }
+
+    /**
+     * Creates a new, empty store file with room for {@code capacity} chords
+     * spanning {@code min} through {@code max}, replacing any existing file.
+     *
+     * @param file
+     *            the file to create
+     * @param capacity
+     *            the number of chords the store can hold
+     * @param min
+     *            the lowest note allowed in stored chords
+     * @param max
+     *            the highest note allowed in stored chords
+     * @param spelled
+     *            whether to keep the spelling of each note
+     * @param timed
+     *            whether to keep a timestamp for each chord
+     * @return the new store
+     * @throws IOException
+     *             if the file cannot be created or mapped
+     * @requires 0 <= capacity <= 268,435,455 and {@code min} and {@code max}
+     *           are note names between C0 and G10 and {@code min} is not
+     *           above {@code max}
+     */
+    public static ChordStore create(Path file, int capacity, String min,
+            String max, boolean spelled, boolean timed) throws IOException {
+        assert file != null : "Violation of: file is not null";
+        assert 0 <= capacity
+                && capacity <= MAX_CAPACITY : "Violation of: capacity is in range";
+        int minPitch = PitchTable.pitch(min);
+        int maxPitch = PitchTable.pitch(max);
+        assert minPitch <= maxPitch : "Violation of: min <= max";
+
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ChordStore result;
+        boolean made = false;
+        try {
+            MappedByteBuffer header = channel
+                    .map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            int flags = 0;
+            if (spelled) {
+                flags |= SPELLED;
+            }
+            if (timed) {
+                flags |= TIMED;
+            }
+            header.putInt(0, MAGIC);
+            header.put(VERSION_AT, (byte) VERSION);
+            header.put(FLAGS_AT, (byte) flags);
+            header.put(MIN_AT, (byte) minPitch);
+            header.put(MAX_AT, (byte) maxPitch);
+            header.putInt(CAPACITY_AT, capacity);
+            header.putInt(SIZE_AT, 0);
+            result = new ChordStore(channel, header);
+            made = true;
+        } finally {
+            if (!made) {
+                channel.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens an existing store file for reading and writing.
+     *
+     * @param file
+     *            the file to open
+     * @return the store
+     * @throws IOException
+     *             if the file cannot be opened or mapped, is not a store, or
+     *             has a header that does not fit its length
+     */
+    public static ChordStore open(Path file) throws IOException {
+        assert file != null : "Violation of: file is not null";
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ChordStore result;
+        boolean made = false;
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a chord store: header is truncated");
+            }
+            MappedByteBuffer header = channel
+                    .map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a chord store: bad magic number");
+            }
+            if (header.get(VERSION_AT) != VERSION) {
+                throw new IOException("Unsupported chord store version "
+                        + header.get(VERSION_AT));
+            }
+            checkHeader(header, channel.size());
+            result = new ChordStore(channel, header);
+            made = true;
+        } finally {
+            if (!made) {
+                channel.close();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the fields of {@code header} are consistent with each other
+     * and with a file of {@code length} bytes, so that opening the store
+     * neither trusts a corrupt header nor extends a truncated file.
+     *
+     * @param header
+     *            the header mapping, with a valid magic number and version
+     * @param length
+     *            the length of the file in bytes
+     * @throws IOException
+     *             if the header is inconsistent or the file is too short
+     */
+    private static void checkHeader(MappedByteBuffer header, long length)
+            throws IOException {
+        int flags = header.get(FLAGS_AT);
+        int minPitch = header.get(MIN_AT);
+        int maxPitch = header.get(MAX_AT);
+        int capacity = header.getInt(CAPACITY_AT);
+        int size = header.getInt(SIZE_AT);
+        if ((flags & ~(SPELLED | TIMED)) != 0) {
+            throw new IOException("Corrupt chord store: unknown flags "
+                    + flags);
+        }
+        if (minPitch < 0 || minPitch > maxPitch
+                || maxPitch > PitchTable.MAX_PITCH) {
+            throw new IOException("Corrupt chord store: pitch range "
+                    + minPitch + " to " + maxPitch);
+        }
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IOException("Corrupt chord store: capacity " + capacity);
+        }
+        if (size < 0 || size > capacity) {
+            throw new IOException("Corrupt chord store: size " + size
+                    + " with capacity " + capacity);
+        }
+        long needed = fileBytes(flags, maxPitch, capacity);
+        if (length < needed) {
+            throw new IOException("Corrupt chord store: file has " + length
+                    + " bytes, columns need " + needed);
+        }
+    }
+
+    /**
+     * Returns the length in bytes of a store file with {@code flags},
+     * highest pitch {@code maxPitch} and {@code capacity} slots.
+     *
+     * @param flags
+     *            the header flags
+     * @param maxPitch
+     *            the highest pitch allowed
+     * @param capacity
+     *            the number of slots
+     * @return the length of the header and every column
+     */
+    private static long fileBytes(int flags, int maxPitch, int capacity) {
+        int words = 1;
+        if (maxPitch >= Long.SIZE) {
+            words = PitchMasks.WORDS;
+        }
+        int columns = words;
+        if ((flags & SPELLED) != 0) {
+            columns += words;
+        }
+        if ((flags & TIMED) != 0) {
+            columns++;
+        }
+        return HEADER_BYTES + (long) columns * capacity * Long.BYTES;
+    }
+
+    /**
+     * Reports the number of chords stored.
+     *
+     * @return the number of chords stored
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Reports the number of chords the store can hold.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Reports whether the store keeps the spelling of each note.
+     *
+     * @return true if the store is spelled
+     */
+    public boolean isSpelled() {
+        return this.columns[ALT_LOW] != null;
+    }
+
+    /**
+     * Reports whether the store keeps a timestamp for each chord.
+     *
+     * @return true if the store is timed
+     */
+    public boolean isTimed() {
+        return this.times != null;
+    }
+
+    /**
+     * Reports the lowest note allowed in stored chords.
+     *
+     * @return the lowest note allowed
+     */
+    public String min() {
+        return PitchTable.name(this.minPitch);
+    }
+
+    /**
+     * Reports the highest note allowed in stored chords.
+     *
+     * @return the highest note allowed
+     */
+    public String max() {
+        return PitchTable.name(this.maxPitch);
+    }
+
+    /**
+     * Appends a copy of {@code chord}, with timestamp 0 if the store is timed.
+     *
+     * @param chord
+     *            the chord to append
+     * @return the slot of the new chord
+     * @requires size() < capacity() and every note of chord is between min()
+     *           and max()
+     */
+    public int append(Chord chord) {
+        return this.append(chord, 0L);
+    }
+
+    /**
+     * Appends a copy of {@code chord} with timestamp {@code time}. The
+     * timestamp is dropped if the store is not timed, and the spelling if it
+     * is not spelled.
+     *
+     * @param chord
+     *            the chord to append
+     * @param time
+     *            the timestamp of the chord
+     * @return the slot of the new chord
+     * @requires size() < capacity() and every note of chord is between min()
+     *           and max()
+     */
+    public int append(Chord chord, long time) {
+        assert chord != null : "Violation of: chord is not null";
+        assert this.size < this.capacity : "Violation of: size() < capacity()";
+        int slot = this.size;
+        this.setMasks(slot, chord.pitchMask(0), chord.pitchMask(1),
+                chord.spellingMask(0), chord.spellingMask(1));
+        if (this.times != null) {
+            this.times.putLong(slot * Long.BYTES, time);
+        }
+        this.size++;
+        this.header.putInt(SIZE_AT, this.size);
+        return slot;
+    }
+
+    /**
+     * Returns one word of the pitch mask of the chord in {@code slot}, without
+     * a view.
+     *
+     * @param slot
+     *            the slot
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the word
+     * @requires 0 <= slot < size() and 0 <= word <= 1
+     */
+    public long pitchMask(int slot, int word) {
+        assert 0 <= slot && slot < this.size : "Violation of: slot is in use";
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.word(word, slot);
+    }
+
+    /**
+     * Returns the timestamp of the chord in {@code slot}.
+     *
+     * @param slot
+     *            the slot
+     * @return the timestamp
+     * @requires isTimed() and 0 <= slot < size()
+     */
+    public long time(int slot) {
+        assert this.times != null : "Violation of: isTimed()";
+        assert 0 <= slot && slot < this.size : "Violation of: slot is in use";
+        return this.times.getLong(slot * Long.BYTES);
+    }
+
+    /**
+     * Sets the timestamp of the chord in {@code slot}.
+     *
+     * @param slot
+     *            the slot
+     * @param time
+     *            the new timestamp
+     * @requires isTimed() and 0 <= slot < size()
+     */
+    public void setTime(int slot, long time) {
+        assert this.times != null : "Violation of: isTimed()";
+        assert 0 <= slot && slot < this.size : "Violation of: slot is in use";
+        this.times.putLong(slot * Long.BYTES, time);
+    }
+
+    /**
+     * Returns a view of the chord in {@code slot}. The view can be moved to
+     * other slots with {@code moveTo}, so one view serves a whole scan.
+     *
+     * @param slot
+     *            the slot
+     * @return a view of the chord in {@code slot}
+     * @requires 0 <= slot < size()
+     */
+    public StoredChord view(int slot) {
+        assert 0 <= slot && slot < this.size : "Violation of: slot is in use";
+        return new StoredChord(this, slot);
+    }
+
+    /**
+     * Writes every change to the file.
+     */
+    public void flush() {
+        this.header.force();
+        for (MappedByteBuffer column : this.columns) {
+            if (column != null) {
+                column.force();
+            }
+        }
+        if (this.times != null) {
+            this.times.force();
+        }
+    }
+
+    /**
+     * Flushes the store and closes the file.
+     *
+     * @throws IOException
+     *             if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        this.channel.close();
+    }
+
+    /*
+     * Package-private access for StoredChord --------------------------------
+     */
+
+    /**
+     * Reports the lowest pitch allowed in stored chords.
+     *
+     * @return the lowest pitch allowed
+     */
+    int minPitch() {
+        return this.minPitch;
+    }
+
+    /**
+     * Reports the highest pitch allowed in stored chords.
+     *
+     * @return the highest pitch allowed
+     */
+    int maxPitch() {
+        return this.maxPitch;
+    }
+
+    /**
+     * Reports whether {@code slot} holds a chord.
+     *
+     * @param slot
+     *            the slot
+     * @return true if 0 <= slot < size()
+     */
+    boolean inUse(int slot) {
+        return 0 <= slot && slot < this.size;
+    }
+
+    /**
+     * Returns the word of {@code column} in {@code slot}, or 0 if the store
+     * does not have that column.
+     *
+     * @param column
+     *            {@code LOW} through {@code ALT_HIGH}
+     * @param slot
+     *            the slot
+     * @return the word
+     */
+    long word(int column, int slot) {
+        MappedByteBuffer c = this.columns[column];
+        long result = 0L;
+        if (c != null) {
+            result = c.getLong(slot * Long.BYTES);
+        }
+        return result;
+    }
+
+    /**
+     * Sets the word of {@code column} in {@code slot}; does nothing if the
+     * store does not have that column.
+     *
+     * @param column
+     *            {@code LOW} through {@code ALT_HIGH}
+     * @param slot
+     *            the slot
+     * @param value
+     *            the new word
+     */
+    void setWord(int column, int slot, long value) {
+        MappedByteBuffer c = this.columns[column];
+        if (c != null) {
+            c.putLong(slot * Long.BYTES, value);
+        }
+    }
+
+    /**
+     * Sets every mask word of {@code slot}.
+     *
+     * @param slot
+     *            the slot
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param altLow
+     *            alternately spelled pitches 0 through 63
+     * @param altHigh
+     *            alternately spelled pitches 64 through 127
+     * @requires every pitch in low/high is between minPitch() and maxPitch()
+     */
+    void setMasks(int slot, long low, long high, long altLow, long altHigh) {
+        boolean inRange = (low | high) == 0
+                || (this.minPitch <= PitchMasks.lowest(low, high)
+                        && PitchMasks.highest(low, high) <= this.maxPitch);
+        assert inRange : "Violation of: notes are within range";
+        this.setWord(LOW, slot, low);
+        this.setWord(HIGH, slot, high);
+        this.setWord(ALT_LOW, slot, altLow & low);
+        this.setWord(ALT_HIGH, slot, altHigh & high);
+    }
+
+}
@@ -0,0 +1,79 @@
+package components.chord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Header of the binary chord-stream format shared by {@code ChordWriter} and
+ * {@code ChordReader}.
+ *
+ * @author Jake Meyer
+ */
+final class ChordStreams {
+
+    /**
+     * Size of the stream header in bytes.
+     */
+    static final int HEADER_BYTES = 8;
+
+    /**
+     * The bytes "CHRD" that open every chord stream.
+     */
+    private static final int MAGIC = 0x43485244;
+
+    /**
+     * Version of the format written.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordStreams() {
+    }
+
+    /**
+     * Writes a stream header to {@code out}.
+     *
+     * @param out
+     *            the buffer to write to
+     * @param flags
+     *            which words each record has
+     * @updates out
+     */
+    static void putHeader(ByteBuffer out, int flags) {
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+        out.put((byte) flags);
+        out.putShort((short) 0);
+    }
+
+    /**
+     * Reads a stream header from {@code in}.
+     *
+     * @param in
+     *            the buffer to read from
+     * @return which words each record has
+     * @throws IOException
+     *             if {@code in} does not hold a header this version can read
+     * @requires in has at least HEADER_BYTES remaining
+     * @updates in
+     */
+    static int getHeader(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a chord stream: bad magic number");
+        }
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported chord stream version " + version);
+        }
+        int flags = in.get();
+        in.getShort();
+        if ((flags & ~ChordCodec.ALL_FLAGS) != 0) {
+            throw new IOException("Unknown chord stream flags " + flags);
+        }
+        return flags;
+    }
+
+}
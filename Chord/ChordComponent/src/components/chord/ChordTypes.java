@@ -0,0 +1,137 @@
+package components.chord;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed catalog of chord types, indexed by pitch-class set. Every one of
+ * the 4096 pitch-class sets is looked up once when the class is loaded, so
+ * recognizing a chord afterwards is a single array read.
+ *
+ * <p>
+ * When a set matches more than one type (C E G A is both C6 and Am7), the type
+ * listed first in {@code TYPES} wins, and every matching root is reported by
+ * {@code rootCandidates}.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class ChordTypes {
+
+    /**
+     * Chord type names, in order of preference. All are string literals, so
+     * the names returned by {@code type} are interned.
+     */
+    private static final String[] TYPES = { "maj", "m", "dim", "aug", "sus4",
+            "sus2", "7", "maj7", "m7", "m7b5", "dim7", "mMaj7", "7sus4", "aug7",
+            "augMaj7", "7b5", "6", "m6", "add9", "madd9", "9", "maj9", "m9",
+            "7b9", "7#9", "6/9", "11", "m11", "13", "5" };
+
+    /**
+     * Intervals above the root of each type in {@code TYPES}, in half-steps.
+     */
+    private static final int[][] INTERVALS = { { 0, 4, 7 }, { 0, 3, 7 },
+            { 0, 3, 6 }, { 0, 4, 8 }, { 0, 5, 7 }, { 0, 2, 7 }, { 0, 4, 7, 10 },
+            { 0, 4, 7, 11 }, { 0, 3, 7, 10 }, { 0, 3, 6, 10 }, { 0, 3, 6, 9 },
+            { 0, 3, 7, 11 }, { 0, 5, 7, 10 }, { 0, 4, 8, 10 }, { 0, 4, 8, 11 },
+            { 0, 4, 6, 10 }, { 0, 4, 7, 9 }, { 0, 3, 7, 9 }, { 0, 2, 4, 7 },
+            { 0, 2, 3, 7 }, { 0, 2, 4, 7, 10 }, { 0, 2, 4, 7, 11 },
+            { 0, 2, 3, 7, 10 }, { 0, 1, 4, 7, 10 }, { 0, 3, 4, 7, 10 },
+            { 0, 2, 4, 7, 9 }, { 0, 2, 4, 5, 7, 10 }, { 0, 2, 3, 5, 7, 10 },
+            { 0, 2, 4, 7, 9, 10 }, { 0, 7 } };
+
+    /**
+     * Type name of each pitch-class set, or {@code null} if it has none.
+     */
+    private static final String[] TYPE_OF = new String[PitchClassSet.COUNT];
+
+    /**
+     * Preferred root of each pitch-class set, or -1 if it has no type.
+     */
+    private static final byte[] ROOT_OF = new byte[PitchClassSet.COUNT];
+
+    /**
+     * Every root under which each pitch-class set matches some type, as a
+     * pitch-class set.
+     */
+    private static final short[] ROOTS_OF = new short[PitchClassSet.COUNT];
+
+    static {
+        Arrays.fill(ROOT_OF, (byte) -1);
+        for (int t = 0; t < TYPES.length; t++) {
+            int shape = 0;
+            for (int interval : INTERVALS[t]) {
+                shape |= 1 << interval;
+            }
+            for (int root = 0; root < PitchClassSet.SIZE; root++) {
+                int pcs = PitchClassSet.transpose(shape, root);
+                if (TYPE_OF[pcs] == null) {
+                    TYPE_OF[pcs] = TYPES[t];
+                    ROOT_OF[pcs] = (byte) root;
+                }
+                ROOTS_OF[pcs] |= 1 << root;
+            }
+        }
+    }
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private ChordTypes() {
+    }
+
+    /**
+     * Returns the chord type of {@code pcs}, such as "maj7" or "m7b5".
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the type name, or {@code null} if {@code pcs} is not a known type
+     */
+    public static String type(int pcs) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        return TYPE_OF[pcs];
+    }
+
+    /**
+     * Returns the chord type of {@code chord}, such as "maj7" or "m7b5".
+     * Octaves and voicing are ignored.
+     *
+     * @param chord
+     *            the chord
+     * @return the type name, or {@code null} if {@code chord} is not a known
+     *         type
+     */
+    public static String type(Chord chord) {
+        return TYPE_OF[PitchClassSet.of(chord)];
+    }
+
+    /**
+     * Returns the preferred root of {@code pcs}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the pitch class of the root, or -1 if {@code pcs} is not a known
+     *         type
+     */
+    public static int root(int pcs) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        return ROOT_OF[pcs];
+    }
+
+    /**
+     * Returns every pitch class that is the root of some type matching
+     * {@code pcs}, such as both C and A for C E G A.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the possible roots as a pitch-class set, empty if {@code pcs} is
+     *         not a known type
+     */
+    public static int rootCandidates(int pcs) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        return ROOTS_OF[pcs];
+    }
+
+}
@@ -0,0 +1,446 @@
+package components.chord;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable chord: a set of pitches from C0 (pitch 0) through G10 (pitch 127),
+ * held as two {@code long} words in the layout of {@code Chord.pitchMask}.
+ * Every "change" returns a new value and leaves this one alone, so values can
+ * be shared between threads freely, with no locking or defensive copies.
+ * Notes are always reported with their canonical (flat) spelling.
+ *
+ * <p>
+ * Values built through {@code of} are interned when the chord spans less than
+ * an octave, as every close-position triad and seventh chord does: equal
+ * values of that kind are the same object, and deriving one allocates nothing
+ * after the first time.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class ChordValue {
+
+    /**
+     * Number of half-steps in an octave.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * Number of pitches above the lowest that an interned value may use.
+     */
+    private static final int SPAN_BITS = NOTES_IN_OCTAVE - 1;
+
+    /**
+     * Interned values, indexed by lowest pitch and the pitches above it.
+     */
+    private static final AtomicReferenceArray<ChordValue> CANONICAL = new AtomicReferenceArray<ChordValue>(
+            (PitchTable.MAX_PITCH + 1) << SPAN_BITS);
+
+    /**
+     * The chord with no notes.
+     */
+    public static final ChordValue EMPTY = new ChordValue(0L, 0L);
+
+    /**
+     * Pitches 0 through 63.
+     */
+    private final long low;
+
+    /**
+     * Pitches 64 through 127.
+     */
+    private final long high;
+
+    /**
+     * Constructor from the pitch mask.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     */
+    private ChordValue(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /*
+     * Factories --------------------------------------------------------------
+     */
+
+    /**
+     * Returns the value with pitch mask {@code low}/{@code high}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @return the value
+     */
+    public static ChordValue of(long low, long high) {
+        ChordValue result;
+        if ((low | high) == 0) {
+            result = EMPTY;
+        } else {
+            int lowest = PitchMasks.lowest(low, high);
+            long above = PitchMasks.shiftLow(low, high, -lowest) >>> 1;
+            if (PitchMasks.shiftHigh(low, high, -lowest) == 0
+                    && (above >>> SPAN_BITS) == 0) {
+                int index = (lowest << SPAN_BITS) | (int) above;
+                result = CANONICAL.get(index);
+                if (result == null) {
+                    CANONICAL.compareAndSet(index, null,
+                            new ChordValue(low, high));
+                    result = CANONICAL.get(index);
+                }
+            } else {
+                result = new ChordValue(low, high);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value holding the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord to copy
+     * @return the value
+     */
+    public static ChordValue of(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        return of(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Returns the value holding {@code notes}.
+     *
+     * @param notes
+     *            the note names
+     * @return the value
+     * @requires every entry of notes is a note name between C0 and G10
+     */
+    public static ChordValue of(String... notes) {
+        assert notes != null : "Violation of: notes is not null";
+        long low = 0L;
+        long high = 0L;
+        for (String note : notes) {
+            int pitch = PitchTable.pitch(note);
+            if (pitch < Long.SIZE) {
+                low |= 1L << pitch;
+            } else {
+                high |= 1L << pitch;
+            }
+        }
+        return of(low, high);
+    }
+
+    /*
+     * Conversions ------------------------------------------------------------
+     */
+
+    /**
+     * Returns a new mutable chord spanning C0 through G10 with the notes of
+     * this.
+     *
+     * @return the new chord
+     */
+    public Chord toChord() {
+        Chord result = new Chord2(PitchTable.name(0),
+                PitchTable.name(PitchTable.MAX_PITCH));
+        this.copyTo(result);
+        return result;
+    }
+
+    /**
+     * Replaces the notes of {@code chord} with the notes of this.
+     *
+     * @param chord
+     *            the chord to overwrite
+     * @requires every note of this is between the min and max of chord
+     * @replaces chord
+     */
+    public void copyTo(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        ChordCodec.replace(chord, this.low, this.high, 0L, 0L);
+    }
+
+    /*
+     * Queries ----------------------------------------------------------------
+     */
+
+    /**
+     * Returns one word of the pitch mask.
+     *
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the word
+     * @requires 0 <= word <= 1
+     */
+    public long pitchMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        long result;
+        if (word == 0) {
+            result = this.low;
+        } else {
+            result = this.high;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of notes.
+     *
+     * @return the number of notes
+     */
+    public int size() {
+        return Long.bitCount(this.low) + Long.bitCount(this.high);
+    }
+
+    /**
+     * Reports whether {@code pitch} is in this.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return true if {@code pitch} is in this
+     * @requires 0 <= pitch <= 127
+     */
+    public boolean containsPitch(int pitch) {
+        long word;
+        if (pitch < Long.SIZE) {
+            word = this.low;
+        } else {
+            word = this.high;
+        }
+        return (word & (1L << pitch)) != 0;
+    }
+
+    /**
+     * Reports whether {@code note} is in this.
+     *
+     * @param note
+     *            the note name
+     * @return true if {@code note} is in this
+     * @requires {@code note} is a note name between C0 and G10
+     */
+    public boolean contains(String note) {
+        return this.containsPitch(PitchTable.pitch(note));
+    }
+
+    /**
+     * Reports the lowest note.
+     *
+     * @return the lowest note
+     * @requires size() > 0
+     */
+    public String lowest() {
+        return PitchTable.name(PitchMasks.lowest(this.low, this.high));
+    }
+
+    /**
+     * Reports the highest note.
+     *
+     * @return the highest note
+     * @requires size() > 0
+     */
+    public String highest() {
+        return PitchTable.name(PitchMasks.highest(this.low, this.high));
+    }
+
+    /**
+     * Returns the pitch-class set of this.
+     *
+     * @return the pitch-class set
+     */
+    public int pitchClassSet() {
+        return PitchClassSet.of(this.low, this.high);
+    }
+
+    /*
+     * Derivations ------------------------------------------------------------
+     */
+
+    /**
+     * Returns this with {@code pitch} added.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return this + {pitch}
+     * @requires 0 <= pitch <= 127
+     */
+    public ChordValue withPitch(int pitch) {
+        assert 0 <= pitch
+                && pitch <= PitchTable.MAX_PITCH : "Violation of: 0 <= pitch <= 127";
+        ChordValue result;
+        if (pitch < Long.SIZE) {
+            result = of(this.low | (1L << pitch), this.high);
+        } else {
+            result = of(this.low, this.high | (1L << pitch));
+        }
+        return result;
+    }
+
+    /**
+     * Returns this with {@code pitch} removed.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return this - {pitch}
+     * @requires 0 <= pitch <= 127
+     */
+    public ChordValue withoutPitch(int pitch) {
+        assert 0 <= pitch
+                && pitch <= PitchTable.MAX_PITCH : "Violation of: 0 <= pitch <= 127";
+        ChordValue result;
+        if (pitch < Long.SIZE) {
+            result = of(this.low & ~(1L << pitch), this.high);
+        } else {
+            result = of(this.low, this.high & ~(1L << pitch));
+        }
+        return result;
+    }
+
+    /**
+     * Returns this with {@code note} added.
+     *
+     * @param note
+     *            the note name
+     * @return this + {note}
+     * @requires {@code note} is a note name between C0 and G10
+     */
+    public ChordValue with(String note) {
+        return this.withPitch(PitchTable.pitch(note));
+    }
+
+    /**
+     * Returns this with {@code note} removed.
+     *
+     * @param note
+     *            the note name
+     * @return this - {note}
+     * @requires {@code note} is a note name between C0 and G10
+     */
+    public ChordValue without(String note) {
+        return this.withoutPitch(PitchTable.pitch(note));
+    }
+
+    /**
+     * Returns this with {@code note} raised by one half-step.
+     *
+     * @param note
+     *            the note name
+     * @return this with {@code note} raised
+     * @requires {@code note} is in this and raised {@code note} is not in this
+     *           and is not above G10
+     */
+    public ChordValue sharp(String note) {
+        int pitch = PitchTable.pitch(note);
+        assert this.containsPitch(pitch) : "Violation of: note is in this";
+        boolean free = pitch < PitchTable.MAX_PITCH
+                && !this.containsPitch(pitch + 1);
+        assert free : "Violation of: raised note is not in this";
+        return this.withoutPitch(pitch).withPitch(pitch + 1);
+    }
+
+    /**
+     * Returns this with {@code note} lowered by one half-step.
+     *
+     * @param note
+     *            the note name
+     * @return this with {@code note} lowered
+     * @requires {@code note} is in this and lowered {@code note} is not in
+     *           this and is not below C0
+     */
+    public ChordValue flat(String note) {
+        int pitch = PitchTable.pitch(note);
+        assert this.containsPitch(pitch) : "Violation of: note is in this";
+        boolean free = pitch > 0 && !this.containsPitch(pitch - 1);
+        assert free : "Violation of: lowered note is not in this";
+        return this.withoutPitch(pitch).withPitch(pitch - 1);
+    }
+
+    /**
+     * Returns this moved by {@code semitones} half-steps.
+     *
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @return this transposed
+     * @requires every note of this, moved by {@code semitones}, is between C0
+     *           and G10
+     */
+    public ChordValue transpose(int semitones) {
+        boolean inRange = (this.low | this.high) == 0
+                || (PitchMasks.lowest(this.low, this.high) + semitones >= 0
+                        && PitchMasks.highest(this.low, this.high)
+                                + semitones <= PitchTable.MAX_PITCH);
+        assert inRange : "Violation of: transposed notes are within C0 to G10";
+        return of(PitchMasks.shiftLow(this.low, this.high, semitones),
+                PitchMasks.shiftHigh(this.low, this.high, semitones));
+    }
+
+    /**
+     * Returns the notes in this or {@code other}.
+     *
+     * @param other
+     *            the other value
+     * @return this union other
+     */
+    public ChordValue union(ChordValue other) {
+        assert other != null : "Violation of: other is not null";
+        return of(this.low | other.low, this.high | other.high);
+    }
+
+    /**
+     * Returns the notes in both this and {@code other}.
+     *
+     * @param other
+     *            the other value
+     * @return this intersection other
+     */
+    public ChordValue intersect(ChordValue other) {
+        assert other != null : "Violation of: other is not null";
+        return of(this.low & other.low, this.high & other.high);
+    }
+
+    /*
+     * Common methods (from Object) -------------------------------------------
+     */
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ChordValue)) {
+            return false;
+        }
+        ChordValue v = (ChordValue) obj;
+        return this.low == v.low && this.high == v.high;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        return prime * Long.hashCode(this.low) + Long.hashCode(this.high);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("<");
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = this.pitchMask(w);
+            while (remaining != 0) {
+                if (result.length() > 1) {
+                    result.append(",");
+                }
+                result.append(PitchTable.name(
+                        w * Long.SIZE + Long.numberOfTrailingZeros(remaining)));
+                remaining &= remaining - 1;
+            }
+        }
+        result.append(">");
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+package components.chord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a stream of chords to a channel in the binary chord-stream format
+ * read by {@code ChordReader}.
+ *
+ * <p>
+ * The stream starts with an 8-byte header: the magic bytes "CHRD", a version
+ * byte, a flags byte saying whether records have the high words
+ * ({@code wide}) and the spelling words ({@code spelled}), and two zero
+ * bytes. Every record after it has the same size: 8 bytes for a plain chord
+ * within pitches 0 through 63, 16 if wide or spelled, 32 if both. Records are
+ * gathered in a buffer and written to the channel in large blocks.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class ChordWriter implements Closeable {
+
+    /**
+     * Size of the block buffer in bytes.
+     */
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Channel being written to.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Records not yet written to {@code channel}.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Which words each record has.
+     */
+    private final int flags;
+
+    /**
+     * Number of chords written so far.
+     */
+    private long count;
+
+    /**
+     * Constructor from a channel and the record layout. Nothing is written to
+     * {@code channel} until the buffer fills or {@code flush} is called.
+     *
+     * @param channel
+     *            the channel to write to
+     * @param wide
+     *            whether records hold pitches 64 through 127
+     * @param spelled
+     *            whether records keep the spelling of each note
+     */
+    public ChordWriter(WritableByteChannel channel, boolean wide,
+            boolean spelled) {
+        assert channel != null : "Violation of: channel is not null";
+        this.channel = channel;
+        int f = 0;
+        if (wide) {
+            f |= ChordCodec.WIDE;
+        }
+        if (spelled) {
+            f |= ChordCodec.SPELLED;
+        }
+        this.flags = f;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        ChordStreams.putHeader(this.buffer, this.flags);
+        this.count = 0;
+    }
+
+    /**
+     * Appends {@code chord} to the stream. Its spelling is dropped unless the
+     * stream is spelled.
+     *
+     * @param chord
+     *            the chord to write
+     * @throws IOException
+     *             if the channel cannot be written
+     * @requires every note of chord is below pitch 64, or the stream is wide
+     */
+    public void write(Chord chord) throws IOException {
+        assert chord != null : "Violation of: chord is not null";
+        if (this.buffer.remaining() < ChordCodec.recordBytes(this.flags)) {
+            this.drain();
+        }
+        long altLow = 0L;
+        long altHigh = 0L;
+        if ((this.flags & ChordCodec.SPELLED) != 0) {
+            altLow = chord.spellingMask(0);
+            altHigh = chord.spellingMask(1);
+        }
+        ChordCodec.putWords(this.buffer, this.flags, chord.pitchMask(0),
+                chord.pitchMask(1), altLow, altHigh);
+        this.count++;
+    }
+
+    /**
+     * Reports the number of chords written so far.
+     *
+     * @return the number of chords written
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * Writes every buffered record to the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        this.drain();
+    }
+
+    /**
+     * Flushes the stream and closes the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.drain();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Writes the contents of {@code buffer} to the channel and empties it.
+     *
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+}
@@ -0,0 +1,137 @@
+package components.chord;
+
+/**
+ * Follows how long each note of a {@code Progression} has been held: a run
+ * of a pitch is a stretch of consecutive chords that all contain it. Only
+ * the pitches added or removed at a step are touched.
+ *
+ * @author Jake Meyer
+ */
+public final class CommonToneRuns implements ProgressionAnalyzer {
+
+    /**
+     * Number of pitches.
+     */
+    private static final int PITCHES = PitchTable.MAX_PITCH + 1;
+
+    /**
+     * Position of the chord each sounding pitch's run began in.
+     */
+    private final int[] start = new int[PITCHES];
+
+    /**
+     * Pitches 0 through 63 of the latest chord.
+     */
+    private long low;
+
+    /**
+     * Pitches 64 through 127 of the latest chord.
+     */
+    private long high;
+
+    /**
+     * Position of the latest chord, or -1 before any.
+     */
+    private int index;
+
+    /**
+     * Number of notes the latest chord shares with the one before it.
+     */
+    private int commonTones;
+
+    /**
+     * Length of the longest run that has ended.
+     */
+    private int longestEnded;
+
+    /**
+     * No-argument constructor.
+     */
+    public CommonToneRuns() {
+        this.index = -1;
+    }
+
+    @Override
+    public void step(Progression progression, int index) {
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long removed = progression.removed(index, w);
+            while (removed != 0) {
+                int p = w * Long.SIZE + Long.numberOfTrailingZeros(removed);
+                this.longestEnded = Math.max(this.longestEnded,
+                        index - this.start[p]);
+                removed &= removed - 1;
+            }
+            long added = progression.added(index, w);
+            while (added != 0) {
+                this.start[w * Long.SIZE
+                        + Long.numberOfTrailingZeros(added)] = index;
+                added &= added - 1;
+            }
+        }
+        long newLow = progression.pitchMask(index, 0);
+        long newHigh = progression.pitchMask(index, 1);
+        this.commonTones = Long.bitCount(newLow & this.low)
+                + Long.bitCount(newHigh & this.high);
+        this.low = newLow;
+        this.high = newHigh;
+        this.index = index;
+    }
+
+    /**
+     * Reports how many chords in a row, ending with the latest, contain
+     * {@code pitch}.
+     *
+     * @param pitch
+     *            the pitch
+     * @return the length of the run, or 0 if the latest chord lacks
+     *         {@code pitch}
+     * @requires 0 <= pitch <= 127
+     */
+    public int runLength(int pitch) {
+        assert 0 <= pitch
+                && pitch < PITCHES : "Violation of: 0 <= pitch <= 127";
+        long word;
+        if (pitch < Long.SIZE) {
+            word = this.low;
+        } else {
+            word = this.high;
+        }
+        int result = 0;
+        if ((word >>> pitch & 1) != 0) {
+            result = this.index - this.start[pitch] + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the length of the longest run so far, ended or not.
+     *
+     * @return the number of chords
+     */
+    public int longestRun() {
+        int result = this.longestEnded;
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = this.low;
+            if (w == 1) {
+                remaining = this.high;
+            }
+            while (remaining != 0) {
+                int p = w * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                result = Math.max(result, this.index - this.start[p] + 1);
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports the number of notes the latest chord shares with the one
+     * before it; 0 for the first chord.
+     *
+     * @return the number of common tones
+     */
+    public int commonTones() {
+        return this.commonTones;
+    }
+
+}
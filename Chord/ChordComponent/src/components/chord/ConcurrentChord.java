@@ -0,0 +1,752 @@
+package components.chord;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+import components.map.Map;
+import components.map.Map2;
+
+/**
+ * {@code Chord} that many threads may read and change at once without a lock.
+ *
+ * <p>
+ * The notes and their spellings are held as one immutable value in an
+ * {@code AtomicReference}. Every read is one volatile load of that reference,
+ * so readers never wait and always see a set of notes that really was the
+ * chord at some instant; {@code snapshot} hands that set out as a
+ * {@code ChordValue}. Every change builds the new value and installs it with
+ * compare-and-set, retrying if another thread got there first, so a bulk
+ * change such as {@code transpose} or {@code union} is atomic too.
+ * </p>
+ *
+ * <p>
+ * Kernel preconditions such as "pitch is not already in this" are checked
+ * against the value the change is applied to. Threads that may race on the
+ * same note should use {@code addIfAbsent} and {@code removeIfPresent}, which
+ * report what they did instead of requiring it. Notes installed from a
+ * {@code ChordValue} are spelled canonically. {@code transferFrom} is not
+ * meant to be used concurrently with other calls.
+ * </p>
+ *
+ * @author Jake Meyer
+ *
+ */
+public final class ConcurrentChord extends ChordSecondary {
+
+    /**
+     * Immutable notes and spellings, laid out as in {@code Chord2}.
+     */
+    private static final class Notes {
+
+        /**
+         * No notes.
+         */
+        static final Notes EMPTY = new Notes(0L, 0L, 0L, 0L);
+
+        /**
+         * Pitches 0 through 63.
+         */
+        final long low;
+
+        /**
+         * Pitches 64 through 127.
+         */
+        final long high;
+
+        /**
+         * Alternately spelled pitches 0 through 63; a subset of {@code low}.
+         */
+        final long altLow;
+
+        /**
+         * Alternately spelled pitches 64 through 127; a subset of
+         * {@code high}.
+         */
+        final long altHigh;
+
+        /**
+         * Constructor from the masks; spellings of absent pitches are dropped.
+         *
+         * @param low
+         *            pitches 0 through 63
+         * @param high
+         *            pitches 64 through 127
+         * @param altLow
+         *            alternately spelled pitches 0 through 63
+         * @param altHigh
+         *            alternately spelled pitches 64 through 127
+         */
+        Notes(long low, long high, long altLow, long altHigh) {
+            this.low = low;
+            this.high = high;
+            this.altLow = altLow & low;
+            this.altHigh = altHigh & high;
+        }
+
+        /**
+         * Returns the pitch mask word {@code word}.
+         *
+         * @param word
+         *            0 or 1
+         * @return the word
+         */
+        long word(int word) {
+            long result;
+            if (word == 0) {
+                result = this.low;
+            } else {
+                result = this.high;
+            }
+            return result;
+        }
+
+        /**
+         * Reports whether {@code pitch} is present.
+         *
+         * @param pitch
+         *            the pitch index
+         * @return true if present
+         */
+        boolean has(int pitch) {
+            return (this.word(pitch / Long.SIZE) & (1L << pitch)) != 0;
+        }
+
+        /**
+         * Returns these notes with {@code pitch} added, spelled as
+         * {@code alternate} says.
+         *
+         * @param pitch
+         *            the pitch index
+         * @param alternate
+         *            whether the alternate spelling is used
+         * @return the new notes
+         */
+        Notes with(int pitch, boolean alternate) {
+            long bit = 1L << pitch;
+            long alt = 0L;
+            if (alternate) {
+                alt = bit;
+            }
+            Notes result;
+            if (pitch < Long.SIZE) {
+                result = new Notes(this.low | bit, this.high,
+                        this.altLow | alt, this.altHigh);
+            } else {
+                result = new Notes(this.low, this.high | bit, this.altLow,
+                        this.altHigh | alt);
+            }
+            return result;
+        }
+
+        /**
+         * Returns these notes without {@code pitch}.
+         *
+         * @param pitch
+         *            the pitch index
+         * @return the new notes
+         */
+        Notes without(int pitch) {
+            long keep = ~(1L << pitch);
+            Notes result;
+            if (pitch < Long.SIZE) {
+                result = new Notes(this.low & keep, this.high, this.altLow,
+                        this.altHigh);
+            } else {
+                result = new Notes(this.low, this.high & keep, this.altLow,
+                        this.altHigh);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the note set as a value.
+         *
+         * @return the value
+         */
+        ChordValue value() {
+            return ChordValue.of(this.low, this.high);
+        }
+
+    }
+
+    /**
+     * The notes of {@code this}.
+     */
+    private final AtomicReference<Notes> state;
+
+    /**
+     * Lowest pitch index allowed in {@code this}.
+     */
+    private int minPitch;
+
+    /**
+     * Highest pitch index allowed in {@code this}.
+     */
+    private int maxPitch;
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor; the chord spans C0 through C3.
+     */
+    public ConcurrentChord() {
+        this.minPitch = PitchTable.DEFAULT_MIN;
+        this.maxPitch = PitchTable.DEFAULT_MAX;
+        this.state = new AtomicReference<>(Notes.EMPTY);
+    }
+
+    /**
+     * Constructor for a chord spanning {@code min} through {@code max}.
+     *
+     * @param min
+     *            the lowest note allowed
+     * @param max
+     *            the highest note allowed
+     * @requires {@code min} and {@code max} are note names between C0 and G10
+     *           and {@code min} is not above {@code max}
+     */
+    public ConcurrentChord(String min, String max) {
+        this.minPitch = PitchTable.pitch(min);
+        this.maxPitch = PitchTable.pitch(max);
+        assert this.minPitch <= this.maxPitch : "Violation of: min <= max";
+        this.state = new AtomicReference<>(Notes.EMPTY);
+    }
+
+    /**
+     * Reports whether {@code pitch} is within the range of this.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return true if {@code pitch} is in range
+     */
+    private boolean inRange(int pitch) {
+        return this.minPitch <= pitch && pitch <= this.maxPitch;
+    }
+
+    /**
+     * Reports whether every pitch in {@code low}/{@code high} is within the
+     * range of this.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @return true if every pitch is in range
+     */
+    private boolean inRange(long low, long high) {
+        return (low | high) == 0
+                || (this.inRange(PitchMasks.lowest(low, high))
+                        && this.inRange(PitchMasks.highest(low, high)));
+    }
+
+    /**
+     * Returns the notes of {@code chord}, read at one instant if it is a
+     * {@code ConcurrentChord}.
+     *
+     * @param chord
+     *            the chord
+     * @return its notes and spellings
+     */
+    private static Notes notesOf(Chord chord) {
+        Notes result;
+        if (chord instanceof ConcurrentChord) {
+            result = ((ConcurrentChord) chord).state.get();
+        } else {
+            result = new Notes(chord.pitchMask(0), chord.pitchMask(1),
+                    chord.spellingMask(0), chord.spellingMask(1));
+        }
+        return result;
+    }
+
+    /**
+     * Applies {@code function} to the notes of this atomically, keeping the
+     * spelling of every note that stays. {@code function} may be called more
+     * than once.
+     *
+     * @param function
+     *            the change to the note set
+     * @return the new notes
+     */
+    private Notes update(UnaryOperator<ChordValue> function) {
+        Notes current;
+        Notes result;
+        do {
+            current = this.state.get();
+            ChordValue next = function.apply(current.value());
+            long low = next.pitchMask(0);
+            long high = next.pitchMask(1);
+            assert this.inRange(low,
+                    high) : "Violation of: new notes are within range";
+            result = new Notes(low, high, current.altLow, current.altHigh);
+        } while (!this.state.compareAndSet(current, result));
+        return result;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final Chord newInstance() {
+        ConcurrentChord result = new ConcurrentChord();
+        result.minPitch = this.minPitch;
+        result.maxPitch = this.maxPitch;
+        return result;
+    }
+
+    @Override
+    public final void clear() {
+        this.state.set(Notes.EMPTY);
+    }
+
+    @Override
+    public final void transferFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        ConcurrentChord localSource = (ConcurrentChord) source;
+        this.minPitch = localSource.minPitch;
+        this.maxPitch = localSource.maxPitch;
+        this.state.set(localSource.state.getAndSet(Notes.EMPTY));
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String note) {
+        int pitch = PitchTable.pitch(note);
+        boolean alternate = PitchTable.isAlternate(note);
+        assert this.inRange(pitch) : "Violation of: note is in range";
+        Notes current;
+        do {
+            current = this.state.get();
+            assert !current.has(
+                    pitch) : "Violation of: note is not already in this";
+        } while (!this.state.compareAndSet(current,
+                current.with(pitch, alternate)));
+    }
+
+    @Override
+    public final String remove(String note) {
+        this.removePitch(PitchTable.pitch(note));
+        return note;
+    }
+
+    @Override
+    public final boolean contains(String note) {
+        return this.containsPitch(PitchTable.pitch(note));
+    }
+
+    @Override
+    public final void addPitch(int pitch) {
+        assert this.inRange(pitch) : "Violation of: pitch is in range";
+        Notes current;
+        do {
+            current = this.state.get();
+            assert !current
+                    .has(pitch) : "Violation of: pitch is not already in this";
+        } while (!this.state.compareAndSet(current,
+                current.with(pitch, false)));
+    }
+
+    @Override
+    public final void removePitch(int pitch) {
+        Notes current;
+        do {
+            current = this.state.get();
+            assert current.has(pitch) : "Violation of: pitch is in this";
+        } while (!this.state.compareAndSet(current, current.without(pitch)));
+    }
+
+    @Override
+    public final boolean containsPitch(int pitch) {
+        return this.state.get().has(pitch);
+    }
+
+    @Override
+    public final long pitchMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.state.get().word(word);
+    }
+
+    @Override
+    public final String[] noteList() {
+        return PitchTable.noteList(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<String, Integer> noteListString() {
+        return PitchTable.noteListString(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<Integer, String> noteListInt() {
+        return PitchTable.noteListInt(this.minPitch, this.maxPitch);
+    }
+
+    @Override
+    public final Map<Integer, String> currentNotes() {
+        Map<Integer, String> result = new Map2<Integer, String>();
+        Notes current = this.state.get();
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = current.word(w);
+            long alt = current.altLow;
+            if (w == 1) {
+                alt = current.altHigh;
+            }
+            while (remaining != 0) {
+                int b = Long.numberOfTrailingZeros(remaining);
+                result.add(w * Long.SIZE + b, PitchTable
+                        .name(w * Long.SIZE + b, (alt >>> b & 1) != 0));
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final String max() {
+        return PitchTable.name(this.maxPitch);
+    }
+
+    @Override
+    public final String min() {
+        return PitchTable.name(this.minPitch);
+    }
+
+    @Override
+    public final int size() {
+        Notes current = this.state.get();
+        return Long.bitCount(current.low) + Long.bitCount(current.high);
+    }
+
+    /*
+     * Atomic operations ------------------------------------------------------
+     */
+
+    /**
+     * Returns the notes of this at one instant.
+     *
+     * @return the notes
+     */
+    public ChordValue snapshot() {
+        return this.state.get().value();
+    }
+
+    /**
+     * Adds {@code pitch} unless it is already in this.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return true if {@code pitch} was added, false if it was already here
+     * @updates this
+     * @requires pitch is between the pitches of min and max
+     * @ensures this = #this union {pitch} and addIfAbsent = (pitch not in
+     *          #this)
+     */
+    public boolean addIfAbsent(int pitch) {
+        assert this.inRange(pitch) : "Violation of: pitch is in range";
+        Notes current;
+        boolean result;
+        do {
+            current = this.state.get();
+            result = !current.has(pitch);
+        } while (result && !this.state.compareAndSet(current,
+                current.with(pitch, false)));
+        return result;
+    }
+
+    /**
+     * Removes {@code pitch} if it is in this.
+     *
+     * @param pitch
+     *            the pitch index
+     * @return true if {@code pitch} was removed, false if it was not here
+     * @updates this
+     * @ensures this = #this \ {pitch} and removeIfPresent = (pitch in #this)
+     */
+    public boolean removeIfPresent(int pitch) {
+        Notes current;
+        boolean result;
+        do {
+            current = this.state.get();
+            result = current.has(pitch);
+        } while (result
+                && !this.state.compareAndSet(current, current.without(pitch)));
+        return result;
+    }
+
+    /**
+     * Replaces the notes of this with {@code update} if they are currently
+     * {@code expected}. The new notes are spelled canonically.
+     *
+     * @param expected
+     *            the notes this must have
+     * @param update
+     *            the new notes
+     * @return true if this was changed
+     * @updates this
+     * @requires every note of update is between min and max
+     */
+    public boolean compareAndSet(ChordValue expected, ChordValue update) {
+        assert expected != null : "Violation of: expected is not null";
+        assert update != null : "Violation of: update is not null";
+        assert this.inRange(update.pitchMask(0),
+                update.pitchMask(1)) : "Violation of: update is within range";
+        Notes next = new Notes(update.pitchMask(0), update.pitchMask(1), 0L,
+                0L);
+        Notes current;
+        boolean result;
+        do {
+            current = this.state.get();
+            result = current.low == expected.pitchMask(0)
+                    && current.high == expected.pitchMask(1);
+        } while (result && !this.state.compareAndSet(current, next));
+        return result;
+    }
+
+    /**
+     * Replaces the notes of this with {@code update}, spelled canonically.
+     *
+     * @param update
+     *            the new notes
+     * @return the notes replaced
+     * @updates this
+     * @requires every note of update is between min and max
+     */
+    public ChordValue getAndSet(ChordValue update) {
+        assert update != null : "Violation of: update is not null";
+        assert this.inRange(update.pitchMask(0),
+                update.pitchMask(1)) : "Violation of: update is within range";
+        return this.state.getAndSet(new Notes(update.pitchMask(0),
+                update.pitchMask(1), 0L, 0L)).value();
+    }
+
+    /**
+     * Replaces the notes of this with {@code function} of them, atomically;
+     * notes that stay keep their spelling. {@code function} may be called more
+     * than once, so it should have no side effects.
+     *
+     * @param function
+     *            the change
+     * @return the new notes
+     * @updates this
+     * @requires every note of the result is between min and max
+     */
+    public ChordValue updateAndGet(UnaryOperator<ChordValue> function) {
+        assert function != null : "Violation of: function is not null";
+        return this.update(function).value();
+    }
+
+    /*
+     * Secondary methods overridden to be atomic ------------------------------
+     */
+
+    @Override
+    public final void transposePitch(int from, int semitones) {
+        int to = from + semitones;
+        assert this.inRange(to) : "Violation of: moved pitch is in range";
+        Notes current;
+        do {
+            current = this.state.get();
+            assert current.has(from) : "Violation of: from is in this";
+            assert semitones == 0 || !current
+                    .has(to) : "Violation of: moved pitch is not in this";
+        } while (!this.state.compareAndSet(current,
+                current.without(from).with(to, false)));
+    }
+
+    @Override
+    public final void natural(String note) {
+        this.transposePitch(PitchTable.pitch(note),
+                -PitchTable.alteration(note));
+    }
+
+    @Override
+    public final void transpose(int semitones) {
+        Notes current;
+        Notes result;
+        do {
+            current = this.state.get();
+            long low = PitchMasks.shiftLow(current.low, current.high,
+                    semitones);
+            long high = PitchMasks.shiftHigh(current.low, current.high,
+                    semitones);
+            assert this.inRangeAfter(current.low, current.high,
+                    semitones) : "Violation of: transposed notes are within range";
+            result = new Notes(low, high, 0L, 0L);
+        } while (!this.state.compareAndSet(current, result));
+    }
+
+    @Override
+    public final void union(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        Notes o = notesOf(other);
+        Notes current;
+        do {
+            current = this.state.get();
+            assert this.inRange(o.low,
+                    o.high) : "Violation of: notes of other are within range";
+        } while (!this.state.compareAndSet(current,
+                new Notes(current.low | o.low, current.high | o.high,
+                        current.altLow, current.altHigh)));
+    }
+
+    @Override
+    public final void intersect(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        Notes o = notesOf(other);
+        Notes current;
+        do {
+            current = this.state.get();
+        } while (!this.state.compareAndSet(current,
+                new Notes(current.low & o.low, current.high & o.high,
+                        current.altLow, current.altHigh)));
+    }
+
+    @Override
+    public final void difference(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        Notes o = notesOf(other);
+        Notes current;
+        do {
+            current = this.state.get();
+        } while (!this.state.compareAndSet(current,
+                new Notes(current.low & ~o.low, current.high & ~o.high,
+                        current.altLow, current.altHigh)));
+    }
+
+    @Override
+    public final int commonToneCount(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        Notes current = this.state.get();
+        Notes o = notesOf(other);
+        return Long.bitCount(current.low & o.low)
+                + Long.bitCount(current.high & o.high);
+    }
+
+    @Override
+    public final boolean isSubsetOf(Chord other) {
+        assert other != null : "Violation of: other is not null";
+        Notes current = this.state.get();
+        Notes o = notesOf(other);
+        return (current.low & ~o.low) == 0 && (current.high & ~o.high) == 0;
+    }
+
+    @Override
+    public final String removeLowest() {
+        Notes current;
+        int lowest;
+        do {
+            current = this.state.get();
+            assert (current.low
+                    | current.high) != 0 : "Violation of: |this| > 0";
+            lowest = PitchMasks.lowest(current.low, current.high);
+        } while (!this.state.compareAndSet(current, current.without(lowest)));
+        return PitchTable.name(lowest);
+    }
+
+    @Override
+    public final String removeHighest() {
+        Notes current;
+        int highest;
+        do {
+            current = this.state.get();
+            assert (current.low
+                    | current.high) != 0 : "Violation of: |this| > 0";
+            highest = PitchMasks.highest(current.low, current.high);
+        } while (!this.state.compareAndSet(current, current.without(highest)));
+        return PitchTable.name(highest);
+    }
+
+    @Override
+    public final String lowest() {
+        Notes current = this.state.get();
+        assert (current.low | current.high) != 0 : "Violation of: |this| > 0";
+        return PitchTable.name(PitchMasks.lowest(current.low, current.high));
+    }
+
+    @Override
+    public final String highest() {
+        Notes current = this.state.get();
+        assert (current.low | current.high) != 0 : "Violation of: |this| > 0";
+        return PitchTable.name(PitchMasks.highest(current.low, current.high));
+    }
+
+    @Override
+    public final void forEachPitch(IntConsumer action) {
+        assert action != null : "Violation of: action is not null";
+        Notes current = this.state.get();
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = current.word(w);
+            while (remaining != 0) {
+                action.accept(
+                        w * Long.SIZE + Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+            }
+        }
+    }
+
+    @Override
+    public final long spellingMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        Notes current = this.state.get();
+        long result = current.altLow;
+        if (word == 1) {
+            result = current.altHigh;
+        }
+        return result;
+    }
+
+    @Override
+    public final Chord copy() {
+        ConcurrentChord result = new ConcurrentChord();
+        result.minPitch = this.minPitch;
+        result.maxPitch = this.maxPitch;
+        result.state.set(this.state.get());
+        return result;
+    }
+
+    @Override
+    public final void copyFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        Notes notes = notesOf(source);
+        assert this.inRange(notes.low,
+                notes.high) : "Violation of: notes of source are within range";
+        this.state.set(notes);
+    }
+
+    @Override
+    public final void writeTo(ByteBuffer out) {
+        assert out != null : "Violation of: out is not null";
+        Notes current = this.state.get();
+        ChordCodec.write(out, current.low, current.high, current.altLow,
+                current.altHigh);
+    }
+
+    @Override
+    public String toString() {
+        return this.state.get().value().toString();
+    }
+
+    @Override
+    final ChordValue value() {
+        return this.state.get().value();
+    }
+
+    @Override
+    final void load(long low, long high, long altLow, long altHigh) {
+        assert this.inRange(low,
+                high) : "Violation of: notes of encoded chord are within range";
+        this.state.set(new Notes(low, high, altLow, altHigh));
+    }
+
+}
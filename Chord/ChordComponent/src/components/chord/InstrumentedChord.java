@@ -0,0 +1,390 @@
+package components.chord;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+
+import components.map.Map;
+
+/**
+ * {@code Chord} that passes every call to another chord, counting and timing
+ * it in {@code ChordMetrics}. {@code removeLowest} also counts the mask words
+ * its search examines. With metrics turned off each call costs one volatile
+ * read more than the chord it wraps.
+ *
+ * <p>
+ * Chords passed as arguments are unwrapped first, so the wrapped chord sees
+ * the same implementations it would without the decorator.
+ * </p>
+ *
+ * @author Jake Meyer
+ *
+ */
+public final class InstrumentedChord extends ChordSecondary {
+
+    /**
+     * The chord calls are passed to.
+     */
+    private final Chord delegate;
+
+    /**
+     * Constructor wrapping {@code delegate}.
+     *
+     * @param delegate
+     *            the chord calls are passed to
+     */
+    public InstrumentedChord(Chord delegate) {
+        assert delegate != null : "Violation of: delegate is not null";
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the chord calls are passed to.
+     *
+     * @return the wrapped chord
+     */
+    public Chord delegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Returns the chord {@code chord} wraps, or {@code chord} if it is not
+     * instrumented.
+     *
+     * @param chord
+     *            the chord
+     * @return the innermost chord
+     */
+    private static Chord unwrap(Chord chord) {
+        Chord result = chord;
+        if (chord instanceof InstrumentedChord) {
+            result = ((InstrumentedChord) chord).delegate;
+        }
+        return result;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final Chord newInstance() {
+        long start = ChordMetrics.start();
+        Chord result = new InstrumentedChord(this.delegate.newInstance());
+        ChordMetrics.record(ChordOperation.NEW_INSTANCE, start);
+        return result;
+    }
+
+    @Override
+    public final void clear() {
+        long start = ChordMetrics.start();
+        this.delegate.clear();
+        ChordMetrics.record(ChordOperation.CLEAR, start);
+    }
+
+    @Override
+    public final void transferFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        long start = ChordMetrics.start();
+        this.delegate.transferFrom(unwrap(source));
+        ChordMetrics.record(ChordOperation.TRANSFER_FROM, start);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.add(note);
+        ChordMetrics.record(ChordOperation.ADD, start);
+    }
+
+    @Override
+    public final String remove(String note) {
+        long start = ChordMetrics.start();
+        String result = this.delegate.remove(note);
+        ChordMetrics.record(ChordOperation.REMOVE, start);
+        return result;
+    }
+
+    @Override
+    public final boolean contains(String note) {
+        long start = ChordMetrics.start();
+        boolean result = this.delegate.contains(note);
+        ChordMetrics.record(ChordOperation.CONTAINS, start);
+        return result;
+    }
+
+    @Override
+    public final void addPitch(int pitch) {
+        long start = ChordMetrics.start();
+        this.delegate.addPitch(pitch);
+        ChordMetrics.record(ChordOperation.ADD_PITCH, start);
+    }
+
+    @Override
+    public final void removePitch(int pitch) {
+        long start = ChordMetrics.start();
+        this.delegate.removePitch(pitch);
+        ChordMetrics.record(ChordOperation.REMOVE_PITCH, start);
+    }
+
+    @Override
+    public final boolean containsPitch(int pitch) {
+        long start = ChordMetrics.start();
+        boolean result = this.delegate.containsPitch(pitch);
+        ChordMetrics.record(ChordOperation.CONTAINS_PITCH, start);
+        return result;
+    }
+
+    @Override
+    public final long pitchMask(int word) {
+        long start = ChordMetrics.start();
+        long result = this.delegate.pitchMask(word);
+        ChordMetrics.record(ChordOperation.PITCH_MASK, start);
+        return result;
+    }
+
+    @Override
+    public final String[] noteList() {
+        long start = ChordMetrics.start();
+        String[] result = this.delegate.noteList();
+        ChordMetrics.record(ChordOperation.NOTE_LIST, start);
+        return result;
+    }
+
+    @Override
+    public final Map<String, Integer> noteListString() {
+        long start = ChordMetrics.start();
+        Map<String, Integer> result = this.delegate.noteListString();
+        ChordMetrics.record(ChordOperation.NOTE_LIST_STRING, start);
+        return result;
+    }
+
+    @Override
+    public final Map<Integer, String> noteListInt() {
+        long start = ChordMetrics.start();
+        Map<Integer, String> result = this.delegate.noteListInt();
+        ChordMetrics.record(ChordOperation.NOTE_LIST_INT, start);
+        return result;
+    }
+
+    @Override
+    public final Map<Integer, String> currentNotes() {
+        long start = ChordMetrics.start();
+        Map<Integer, String> result = this.delegate.currentNotes();
+        ChordMetrics.record(ChordOperation.CURRENT_NOTES, start);
+        return result;
+    }
+
+    @Override
+    public final String max() {
+        long start = ChordMetrics.start();
+        String result = this.delegate.max();
+        ChordMetrics.record(ChordOperation.MAX, start);
+        return result;
+    }
+
+    @Override
+    public final String min() {
+        long start = ChordMetrics.start();
+        String result = this.delegate.min();
+        ChordMetrics.record(ChordOperation.MIN, start);
+        return result;
+    }
+
+    @Override
+    public final int size() {
+        long start = ChordMetrics.start();
+        int result = this.delegate.size();
+        ChordMetrics.record(ChordOperation.SIZE, start);
+        return result;
+    }
+
+    /*
+     * Secondary methods ------------------------------------------------------
+     */
+
+    @Override
+    public final void flat(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.flat(note);
+        ChordMetrics.record(ChordOperation.FLAT, start);
+    }
+
+    @Override
+    public final void sharp(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.sharp(note);
+        ChordMetrics.record(ChordOperation.SHARP, start);
+    }
+
+    @Override
+    public final void natural(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.natural(note);
+        ChordMetrics.record(ChordOperation.NATURAL, start);
+    }
+
+    @Override
+    public final void octaveUp(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.octaveUp(note);
+        ChordMetrics.record(ChordOperation.OCTAVE_UP, start);
+    }
+
+    @Override
+    public final void octaveDown(String note) {
+        long start = ChordMetrics.start();
+        this.delegate.octaveDown(note);
+        ChordMetrics.record(ChordOperation.OCTAVE_DOWN, start);
+    }
+
+    @Override
+    public final void transposePitch(int from, int semitones) {
+        long start = ChordMetrics.start();
+        this.delegate.transposePitch(from, semitones);
+        ChordMetrics.record(ChordOperation.TRANSPOSE_PITCH, start);
+    }
+
+    @Override
+    public final void transpose(int semitones) {
+        long start = ChordMetrics.start();
+        this.delegate.transpose(semitones);
+        ChordMetrics.record(ChordOperation.TRANSPOSE, start);
+    }
+
+    @Override
+    public final void transposeOctaves(int octaves) {
+        long start = ChordMetrics.start();
+        this.delegate.transposeOctaves(octaves);
+        ChordMetrics.record(ChordOperation.TRANSPOSE_OCTAVES, start);
+    }
+
+    @Override
+    public final void union(Chord other) {
+        long start = ChordMetrics.start();
+        this.delegate.union(unwrap(other));
+        ChordMetrics.record(ChordOperation.UNION, start);
+    }
+
+    @Override
+    public final void intersect(Chord other) {
+        long start = ChordMetrics.start();
+        this.delegate.intersect(unwrap(other));
+        ChordMetrics.record(ChordOperation.INTERSECT, start);
+    }
+
+    @Override
+    public final void difference(Chord other) {
+        long start = ChordMetrics.start();
+        this.delegate.difference(unwrap(other));
+        ChordMetrics.record(ChordOperation.DIFFERENCE, start);
+    }
+
+    @Override
+    public final int commonToneCount(Chord other) {
+        long start = ChordMetrics.start();
+        int result = this.delegate.commonToneCount(unwrap(other));
+        ChordMetrics.record(ChordOperation.COMMON_TONE_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public final boolean isSubsetOf(Chord other) {
+        long start = ChordMetrics.start();
+        boolean result = this.delegate.isSubsetOf(unwrap(other));
+        ChordMetrics.record(ChordOperation.IS_SUBSET_OF, start);
+        return result;
+    }
+
+    @Override
+    public final String removeLowest() {
+        ChordMetrics.removeLowestProbes(this.delegate);
+        long start = ChordMetrics.start();
+        String result = this.delegate.removeLowest();
+        ChordMetrics.record(ChordOperation.REMOVE_LOWEST, start);
+        return result;
+    }
+
+    @Override
+    public final String removeHighest() {
+        long start = ChordMetrics.start();
+        String result = this.delegate.removeHighest();
+        ChordMetrics.record(ChordOperation.REMOVE_HIGHEST, start);
+        return result;
+    }
+
+    @Override
+    public final String lowest() {
+        long start = ChordMetrics.start();
+        String result = this.delegate.lowest();
+        ChordMetrics.record(ChordOperation.LOWEST, start);
+        return result;
+    }
+
+    @Override
+    public final String highest() {
+        long start = ChordMetrics.start();
+        String result = this.delegate.highest();
+        ChordMetrics.record(ChordOperation.HIGHEST, start);
+        return result;
+    }
+
+    @Override
+    public final void forEachPitch(IntConsumer action) {
+        long start = ChordMetrics.start();
+        this.delegate.forEachPitch(action);
+        ChordMetrics.record(ChordOperation.FOR_EACH_PITCH, start);
+    }
+
+    @Override
+    public final long spellingMask(int word) {
+        long start = ChordMetrics.start();
+        long result = this.delegate.spellingMask(word);
+        ChordMetrics.record(ChordOperation.SPELLING_MASK, start);
+        return result;
+    }
+
+    @Override
+    public final void writeTo(ByteBuffer out) {
+        long start = ChordMetrics.start();
+        this.delegate.writeTo(out);
+        ChordMetrics.record(ChordOperation.WRITE_TO, start);
+    }
+
+    @Override
+    public final void readFrom(ByteBuffer in) {
+        long start = ChordMetrics.start();
+        this.delegate.readFrom(in);
+        ChordMetrics.record(ChordOperation.READ_FROM, start);
+    }
+
+    @Override
+    public final Chord copy() {
+        long start = ChordMetrics.start();
+        Chord result = new InstrumentedChord(this.delegate.copy());
+        ChordMetrics.record(ChordOperation.COPY, start);
+        return result;
+    }
+
+    @Override
+    public final void copyFrom(Chord source) {
+        long start = ChordMetrics.start();
+        this.delegate.copyFrom(unwrap(source));
+        ChordMetrics.record(ChordOperation.COPY_FROM, start);
+    }
+
+    @Override
+    final void load(long low, long high, long altLow, long altHigh) {
+        ChordCodec.replace(this.delegate, low, high, altLow, altHigh);
+    }
+
+    @Override
+    final ChordValue value() {
+        return valueOf(this.delegate);
+    }
+
+}
@@ -0,0 +1,183 @@
+package components.chord;
+
+/**
+ * Estimates the key of the last few chords of a {@code Progression}.
+ *
+ * <p>
+ * Each pitch class is weighted by the number of chords in the window that use
+ * it, and each of the 24 major and minor keys is scored as the sum of those
+ * weights times the Krumhansl-Kessler key profile (scaled to integers). As the
+ * window slides only the pitch classes that enter or leave it change, and
+ * just their terms of the scores are updated, so a step costs time in
+ * proportion to that change rather than to the window.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class KeyEstimator implements ProgressionAnalyzer {
+
+    /**
+     * Number of pitch classes.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * Number of keys: twelve major, then twelve minor.
+     */
+    private static final int KEYS = 2 * NOTES_IN_OCTAVE;
+
+    /**
+     * Krumhansl-Kessler major profile times 100, from the tonic up.
+     */
+    private static final int[] MAJOR = { 635, 223, 348, 233, 438, 409, 252,
+            519, 239, 366, 229, 288 };
+
+    /**
+     * Krumhansl-Kessler minor profile times 100, from the tonic up.
+     */
+    private static final int[] MINOR = { 633, 268, 352, 538, 260, 353, 254,
+            475, 398, 269, 334, 317 };
+
+    /**
+     * Profile weight of pitch class {@code pc} in key {@code k}, at
+     * {@code k * 12 + pc}.
+     */
+    private static final int[] PROFILE = new int[KEYS * NOTES_IN_OCTAVE];
+
+    static {
+        for (int tonic = 0; tonic < NOTES_IN_OCTAVE; tonic++) {
+            for (int pc = 0; pc < NOTES_IN_OCTAVE; pc++) {
+                int degree = (pc - tonic + NOTES_IN_OCTAVE) % NOTES_IN_OCTAVE;
+                PROFILE[tonic * NOTES_IN_OCTAVE + pc] = MAJOR[degree];
+                PROFILE[(NOTES_IN_OCTAVE + tonic) * NOTES_IN_OCTAVE
+                        + pc] = MINOR[degree];
+            }
+        }
+    }
+
+    /**
+     * Number of chords in the window.
+     */
+    private final int window;
+
+    /**
+     * Number of chords in the window using each pitch class.
+     */
+    private final int[] weight = new int[NOTES_IN_OCTAVE];
+
+    /**
+     * Score of each key.
+     */
+    private final long[] score = new long[KEYS];
+
+    /**
+     * Best-scoring key.
+     */
+    private int best;
+
+    /**
+     * Constructor for an estimate over the last {@code window} chords.
+     *
+     * @param window
+     *            the number of chords to consider
+     * @requires window > 0
+     */
+    public KeyEstimator(int window) {
+        assert window > 0 : "Violation of: window > 0";
+        this.window = window;
+        this.best = 0;
+    }
+
+    /**
+     * Adds {@code change} to the weight of every pitch class in {@code pcs}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @param change
+     *            +1 or -1
+     */
+    private void adjust(int pcs, int change) {
+        int remaining = pcs;
+        while (remaining != 0) {
+            int pc = Integer.numberOfTrailingZeros(remaining);
+            this.weight[pc] += change;
+            for (int k = 0; k < KEYS; k++) {
+                this.score[k] += change * PROFILE[k * NOTES_IN_OCTAVE + pc];
+            }
+            remaining &= remaining - 1;
+        }
+    }
+
+    @Override
+    public void step(Progression progression, int index) {
+        int entering = PitchClassSet.of(progression.pitchMask(index, 0),
+                progression.pitchMask(index, 1));
+        int leaving = 0;
+        int out = index - this.window;
+        if (out >= 0) {
+            leaving = PitchClassSet.of(progression.pitchMask(out, 0),
+                    progression.pitchMask(out, 1));
+        }
+        this.adjust(entering & ~leaving, 1);
+        this.adjust(leaving & ~entering, -1);
+        int result = 0;
+        for (int k = 1; k < KEYS; k++) {
+            if (this.score[k] > this.score[result]) {
+                result = k;
+            }
+        }
+        this.best = result;
+    }
+
+    /**
+     * Reports the tonic of the estimated key; C major before any chord.
+     *
+     * @return the pitch class of the tonic
+     */
+    public int tonic() {
+        return this.best % NOTES_IN_OCTAVE;
+    }
+
+    /**
+     * Reports whether the estimated key is minor.
+     *
+     * @return true if minor, false if major
+     */
+    public boolean isMinor() {
+        return this.best >= NOTES_IN_OCTAVE;
+    }
+
+    /**
+     * Reports the score of a key; higher is a better fit.
+     *
+     * @param tonic
+     *            the pitch class of the tonic
+     * @param minor
+     *            whether the key is minor
+     * @return the score
+     * @requires 0 <= tonic < 12
+     */
+    public long score(int tonic, boolean minor) {
+        assert 0 <= tonic
+                && tonic < NOTES_IN_OCTAVE : "Violation of: 0 <= tonic < 12";
+        int k = tonic;
+        if (minor) {
+            k += NOTES_IN_OCTAVE;
+        }
+        return this.score[k];
+    }
+
+    /**
+     * Reports how many chords in the window use pitch class {@code pc}.
+     *
+     * @param pc
+     *            the pitch class
+     * @return the number of chords
+     * @requires 0 <= pc < 12
+     */
+    public int weight(int pc) {
+        assert 0 <= pc && pc < NOTES_IN_OCTAVE : "Violation of: 0 <= pc < 12";
+        return this.weight[pc];
+    }
+
+}
@@ -0,0 +1,187 @@
+package components.chord;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values such as latencies in nanoseconds, with
+ * log-linear buckets in the manner of HdrHistogram: values below 16 are
+ * counted exactly, and above that each power of two is split into eight
+ * buckets, so any recorded value is known to within 12.5%. Recording is one
+ * atomic increment (plus a compare-and-set when a new maximum is seen) and is
+ * safe from many threads at once.
+ *
+ * @author Jake Meyer
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of bits of each value kept past its leading one bit.
+     */
+    private static final int SUB_BITS = 3;
+
+    /**
+     * Number of buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * Values below this are each their own bucket.
+     */
+    private static final int EXACT = 2 * SUB_BUCKETS;
+
+    /**
+     * Number of buckets, enough for any non-negative {@code long}.
+     */
+    private static final int BUCKETS = (Long.SIZE - 1 - SUB_BITS) * SUB_BUCKETS
+            + SUB_BUCKETS;
+
+    /**
+     * Count of values in each bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * Largest value recorded.
+     */
+    private final AtomicLong max;
+
+    /**
+     * No-argument constructor for an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Returns the bucket holding {@code value}.
+     *
+     * @param value
+     *            the value
+     * @return the bucket index
+     */
+    private static int bucket(long value) {
+        int result;
+        if (value < EXACT) {
+            result = (int) value;
+        } else {
+            int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value)
+                    - SUB_BITS;
+            result = shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest value that falls in bucket {@code index}.
+     *
+     * @param index
+     *            the bucket index
+     * @return the top of the bucket
+     */
+    private static long top(int index) {
+        long result;
+        if (index < EXACT) {
+            result = index;
+        } else {
+            int shift = index / SUB_BUCKETS - 1;
+            long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+            result = ((sub + 1) << shift) - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Records {@code value}; negative values are recorded as 0.
+     *
+     * @param value
+     *            the value
+     */
+    public void record(long value) {
+        long v = Math.max(0L, value);
+        this.counts.incrementAndGet(bucket(v));
+        long m = this.max.get();
+        while (v > m && !this.max.compareAndSet(m, v)) {
+            m = this.max.get();
+        }
+    }
+
+    /**
+     * Reports the number of values recorded.
+     *
+     * @return the count
+     */
+    public long count() {
+        long result = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            result += this.counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Reports the largest value recorded.
+     *
+     * @return the largest value, or 0 if none has been recorded
+     */
+    public long max() {
+        return this.max.get();
+    }
+
+    /**
+     * Reports a value that {@code percentile} percent of the recorded values
+     * are at or below, rounded up to the top of its bucket (but never above
+     * the largest value recorded).
+     *
+     * @param percentile
+     *            the percentile
+     * @return the value, or 0 if none has been recorded
+     * @requires 0 <= percentile <= 100
+     */
+    public long valueAtPercentile(double percentile) {
+        assert 0 <= percentile
+                && percentile <= 100 : "Violation of: 0 <= percentile <= 100";
+        long total = this.count();
+        long wanted = Math.max(1L, (long) Math.ceil(total * percentile / 100));
+        long result = 0;
+        long seen = 0;
+        int i = 0;
+        while (total > 0 && seen < wanted && i < BUCKETS) {
+            seen += this.counts.get(i);
+            if (seen >= wanted) {
+                result = Math.min(top(i), this.max.get());
+            }
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Forgets every recorded value.
+     *
+     * @clears this
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0L);
+        }
+        this.max.set(0L);
+    }
+
+    /**
+     * Returns a copy of this, taken bucket by bucket; values recorded while
+     * copying may or may not be included.
+     *
+     * @return the copy
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram result = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            result.counts.set(i, this.counts.get(i));
+        }
+        result.max.set(this.max.get());
+        return result;
+    }
+
+}
@@ -0,0 +1,201 @@
+package components.chord;
+
+/**
+ * Operations on pitch-class sets represented as 12-bit masks: bit {@code c} is
+ * set exactly when pitch class {@code c} (0 = C, 1 = Db, ..., 11 = B) is in
+ * the set. Pitch classes come from the pitch indices of {@code Chord}: pitch
+ * {@code p} has pitch class {@code p mod 12}.
+ *
+ * @author Jake Meyer
+ */
+public final class PitchClassSet {
+
+    /**
+     * Number of pitch classes.
+     */
+    public static final int SIZE = 12;
+
+    /**
+     * Number of distinct pitch-class sets.
+     */
+    public static final int COUNT = 1 << SIZE;
+
+    /**
+     * Mask of all twelve pitch classes.
+     */
+    public static final int ALL = COUNT - 1;
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private PitchClassSet() {
+    }
+
+    /**
+     * Returns the pitch classes of the pitches in {@code pitches}, which holds
+     * pitches 0 through 63.
+     *
+     * @param pitches
+     *            pitch mask, as returned by {@code Chord.pitchMask(0)}
+     * @return the pitch-class set of {@code pitches}
+     */
+    public static int of(long pitches) {
+        long result = 0;
+        long remaining = pitches;
+        while (remaining != 0) {
+            result |= remaining;
+            remaining >>>= SIZE;
+        }
+        return (int) (result & ALL);
+    }
+
+    /**
+     * Returns the pitch classes of the notes in {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @return the pitch-class set of {@code chord}
+     */
+    public static int of(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        return of(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Returns the pitch classes of the pitches in the 128-bit set
+     * {@code low}/{@code high}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @return the pitch-class set of the pitches
+     */
+    public static int of(long low, long high) {
+        /*
+         * Pitch 64 is pitch class 4 (E), so the high word is folded and then
+         * rotated up by four.
+         */
+        return of(low) | transpose(of(high), Long.SIZE % SIZE);
+    }
+
+    /**
+     * Returns {@code pcs} moved up by {@code semitones} half-steps (a rotation
+     * of the 12-bit mask).
+     *
+     * @param pcs
+     *            pitch-class set
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @return the transposed set
+     */
+    public static int transpose(int pcs, int semitones) {
+        assert (pcs & ~ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        int n = Math.floorMod(semitones, SIZE);
+        return ((pcs << n) | (pcs >>> (SIZE - n))) & ALL;
+    }
+
+    /**
+     * Returns the inversion of {@code pcs} around C: pitch class {@code c}
+     * becomes {@code -c mod 12}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the inverted set
+     */
+    public static int invert(int pcs) {
+        assert (pcs & ~ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        int reversed = Integer.reverse(pcs) >>> (Integer.SIZE - SIZE);
+        return transpose(reversed, 1);
+    }
+
+    /**
+     * Returns the pitch class that begins the normal form of {@code pcs}: the
+     * rotation that is most packed to the left, ties broken toward the lowest
+     * pitch class (Rahn's ordering).
+     *
+     * @param pcs
+     *            pitch-class set
+     * @requires pcs is not empty
+     * @return the first pitch class of the normal form
+     */
+    public static int normalFormStart(int pcs) {
+        assert pcs != 0 : "Violation of: pcs is not empty";
+        int best = Integer.MAX_VALUE;
+        int start = 0;
+        int remaining = pcs;
+        while (remaining != 0) {
+            int c = Integer.numberOfTrailingZeros(remaining);
+            /*
+             * With pitch class c moved to 0, comparing the masks as integers
+             * compares the span first, then each inner interval from the top
+             * down, which is exactly the normal-form ordering.
+             */
+            int rotated = transpose(pcs, -c);
+            if (rotated < best) {
+                best = rotated;
+                start = c;
+            }
+            remaining &= remaining - 1;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the normal form of {@code pcs}, transposed so that it begins on
+     * C.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the normal form of {@code pcs} starting at 0, or 0 if
+     *         {@code pcs} is empty
+     */
+    public static int normalForm(int pcs) {
+        int result = 0;
+        if (pcs != 0) {
+            result = transpose(pcs, -normalFormStart(pcs));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the prime form of {@code pcs}: the more packed of the normal
+     * forms of {@code pcs} and of its inversion, beginning on C.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the prime form of {@code pcs}, or 0 if {@code pcs} is empty
+     */
+    public static int primeForm(int pcs) {
+        return Math.min(normalForm(pcs), normalForm(invert(pcs)));
+    }
+
+    /**
+     * Returns the interval-class vector of {@code pcs}, packed four bits per
+     * entry: entry {@code i} (bits {@code 4(i-1)} to {@code 4i-1}) counts the
+     * pairs of pitch classes {@code i} half-steps apart, for {@code i} from 1
+     * to 6.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the packed interval-class vector
+     */
+    public static int intervalVector(int pcs) {
+        final int bitsPerEntry = 4;
+        final int classes = SIZE / 2;
+        int result = 0;
+        for (int i = 1; i <= classes; i++) {
+            int count = Integer.bitCount(pcs & transpose(pcs, i));
+            if (i == classes) {
+                /*
+                 * The tritone maps onto itself, so every pair was counted
+                 * twice.
+                 */
+                count /= 2;
+            }
+            result |= count << (bitsPerEntry * (i - 1));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,85 @@
+package components.chord;
+
+/**
+ * Reusable cursor over the pitches of a {@code Chord}, in ascending pitch
+ * order. One cursor can walk any number of chords one after another without
+ * allocating: call {@code reset} with the next chord and loop on
+ * {@code hasNext}/{@code next}.
+ *
+ * <pre>
+ * PitchCursor cursor = new PitchCursor();
+ * for (Chord c : chords) {
+ *     cursor.reset(c);
+ *     while (cursor.hasNext()) {
+ *         int p = cursor.next();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Jake Meyer
+ */
+public final class PitchCursor {
+
+    /**
+     * Pitches 0 through 63 not yet returned by {@code next}.
+     */
+    private long low;
+
+    /**
+     * Pitches 64 through 127 not yet returned by {@code next}.
+     */
+    private long high;
+
+    /**
+     * No-argument constructor; the cursor starts with no pitches.
+     */
+    public PitchCursor() {
+        this.low = 0L;
+        this.high = 0L;
+    }
+
+    /**
+     * Points this cursor at the lowest pitch of {@code chord}. The cursor
+     * walks the notes that were in {@code chord} at the time of the call.
+     *
+     * @param chord
+     *            the chord to walk
+     * @ensures this = {pitches of chord}
+     */
+    public void reset(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        this.low = chord.pitchMask(0);
+        this.high = chord.pitchMask(1);
+    }
+
+    /**
+     * Reports whether there are pitches left to visit.
+     *
+     * @return true if {@code next} may be called
+     */
+    public boolean hasNext() {
+        return (this.low | this.high) != 0;
+    }
+
+    /**
+     * Returns the next pitch in ascending order.
+     *
+     * @requires hasNext
+     * @ensures next = {lowest pitch of #this} and this = #this - next
+     * @return the next pitch index
+     */
+    public int next() {
+        assert this.hasNext() : "Violation of: hasNext";
+        int result;
+        if (this.low != 0) {
+            result = Long.numberOfTrailingZeros(this.low);
+            this.low &= this.low - 1;
+        } else {
+            result = Long.SIZE + Long.numberOfTrailingZeros(this.high);
+            this.high &= this.high - 1;
+        }
+        return result;
+    }
+
+}
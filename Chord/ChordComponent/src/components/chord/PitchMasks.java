@@ -0,0 +1,115 @@
+package components.chord;
+
+/**
+ * Helpers for 128-bit pitch sets held as two 64-bit words: {@code low} holds
+ * pitches 0 through 63 and {@code high} holds pitches 64 through 127, pitch
+ * {@code p} at bit {@code p mod 64}.
+ *
+ * @author Jake Meyer
+ */
+final class PitchMasks {
+
+    /**
+     * Number of 64-bit words in a pitch set.
+     */
+    static final int WORDS = 2;
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private PitchMasks() {
+    }
+
+    /**
+     * Returns the lowest pitch in the set.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @requires the set is not empty
+     * @return the lowest pitch index
+     */
+    static int lowest(long low, long high) {
+        assert (low | high) != 0 : "Violation of: set is not empty";
+        int result;
+        if (low != 0) {
+            result = Long.numberOfTrailingZeros(low);
+        } else {
+            result = Long.SIZE + Long.numberOfTrailingZeros(high);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the highest pitch in the set.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @requires the set is not empty
+     * @return the highest pitch index
+     */
+    static int highest(long low, long high) {
+        assert (low | high) != 0 : "Violation of: set is not empty";
+        int result;
+        if (high != 0) {
+            result = 2 * Long.SIZE - 1 - Long.numberOfLeadingZeros(high);
+        } else {
+            result = Long.SIZE - 1 - Long.numberOfLeadingZeros(low);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the low word of the set moved by {@code semitones}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @return pitches 0 through 63 of the moved set
+     */
+    static long shiftLow(long low, long high, int semitones) {
+        long result;
+        if (semitones >= Long.SIZE || semitones <= -2 * Long.SIZE) {
+            result = 0L;
+        } else if (semitones >= 0) {
+            result = low << semitones;
+        } else if (semitones > -Long.SIZE) {
+            result = (low >>> -semitones) | (high << (Long.SIZE + semitones));
+        } else {
+            result = high >>> (-semitones - Long.SIZE);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the high word of the set moved by {@code semitones}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param semitones
+     *            the number of half-steps to move (negative is down)
+     * @return pitches 64 through 127 of the moved set
+     */
+    static long shiftHigh(long low, long high, int semitones) {
+        long result;
+        if (semitones <= -Long.SIZE || semitones >= 2 * Long.SIZE) {
+            result = 0L;
+        } else if (semitones <= 0) {
+            result = high >>> -semitones;
+        } else if (semitones < Long.SIZE) {
+            result = (high << semitones) | (low >>> (Long.SIZE - semitones));
+        } else {
+            result = low << (semitones - Long.SIZE);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,94 @@
+package components.chord;
+
+/**
+ * Converts between note names and the pitch indices used by the primitive
+ * {@code Chord} methods. Intended to be called once at the boundary of a
+ * program, so that inner loops work only with {@code int} pitches.
+ *
+ * @author Jake Meyer
+ */
+public final class PitchSpeller {
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private PitchSpeller() {
+    }
+
+    /**
+     * Reports whether {@code note} is a recognized note name: a letter A
+     * through G, up to two accidentals ("#", "b", "##", "x" or "bb") and an
+     * optional octave number, naming a pitch between C0 and G10.
+     *
+     * @param note
+     *            the note name
+     * @return true if {@code note} is a recognized note name
+     */
+    public static boolean isNote(CharSequence note) {
+        assert note != null : "Violation of: note is not null";
+        return PitchTable.isNote(note);
+    }
+
+    /**
+     * Returns the pitch index of {@code note}. Does not allocate, so it may be
+     * called on a reused {@code StringBuilder} or a slice of a larger buffer.
+     *
+     * @param note
+     *            the note name
+     * @requires {@code note} is a recognized note name
+     * @ensures parse = {pitch index of note}
+     * @return the pitch index of {@code note}
+     */
+    public static int parse(CharSequence note) {
+        assert note != null : "Violation of: note is not null";
+        return PitchTable.pitch(note);
+    }
+
+    /**
+     * Returns the number of half-steps the accidentals of {@code note} raise
+     * it by.
+     *
+     * @param note
+     *            the note name
+     * @requires {@code note} is a recognized note name
+     * @ensures accidental = {2 for a double sharp, 1 for a sharp, 0 for a
+     *          natural, -1 for a flat, -2 for a double flat}
+     * @return the alteration of {@code note}
+     */
+    public static int accidental(CharSequence note) {
+        assert note != null : "Violation of: note is not null";
+        assert PitchTable.isNote(note) : "Violation of: note is a note name";
+        return PitchTable.alteration(note);
+    }
+
+    /**
+     * Returns the canonical name of {@code pitch}, preferring flats and
+     * including the octave number.
+     *
+     * @param pitch
+     *            the pitch index
+     * @requires {@code pitch} is between the pitches of min and max
+     * @ensures name = {canonical name of pitch}
+     * @return the canonical name of {@code pitch}
+     */
+    public static String name(int pitch) {
+        return PitchTable.name(pitch);
+    }
+
+    /**
+     * Returns the name of {@code pitch}, using its alternate spelling (a sharp,
+     * Fb or Cb) if {@code alternate} is set and the pitch has one.
+     *
+     * @param pitch
+     *            the pitch index
+     * @param alternate
+     *            whether to use the alternate spelling
+     * @requires {@code pitch} is between the pitches of min and max
+     * @ensures name = {name of pitch in the requested spelling}
+     * @return the name of {@code pitch}
+     */
+    public static String name(int pitch, boolean alternate) {
+        return PitchTable.name(pitch, alternate);
+    }
+
+}
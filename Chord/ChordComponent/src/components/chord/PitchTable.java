@@ -0,0 +1,404 @@
+package components.chord;
+
+import components.map.Map;
+import components.map.Map2;
+
+/**
+ * Class-level, immutable pitch-spelling registry shared by every {@code Chord}
+ * implementation. Built once when the class is loaded, so constructing or
+ * clearing a chord never rebuilds it. Covers the whole MIDI span, pitch 0 (C0)
+ * through pitch 127 (G10); each chord limits itself to its own range. Note
+ * names are parsed arithmetically, one character at a time, so resolving a
+ * name neither hashes nor allocates.
+ *
+ * @author Jake Meyer
+ */
+final class PitchTable {
+
+    /**
+     * Highest pitch index in the table.
+     */
+    static final int MAX_PITCH = 127;
+
+    /**
+     * Pitch index of "C0", the default lowest note.
+     */
+    static final int DEFAULT_MIN = 0;
+
+    /**
+     * Pitch index of "C3", the default highest note.
+     */
+    static final int DEFAULT_MAX = 36;
+
+    /**
+     * Returned by {@code parse} for a name that is not a note.
+     */
+    static final int NOT_A_NOTE = -1;
+
+    /**
+     * Returned by {@code alteration} for characters that are not accidentals.
+     */
+    private static final int NOT_ACCIDENTALS = Integer.MIN_VALUE;
+
+    /**
+     * Number of half-steps in an octave.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * Highest octave number.
+     */
+    private static final int MAX_OCTAVE = 10;
+
+    /**
+     * Half-steps above C for each letter A through G.
+     */
+    private static final int[] LETTER_OFFSETS = { 9, 11, 0, 2, 4, 5, 7 };
+
+    /**
+     * Spellings in the order they are listed. Some out of order to allow
+     * exceptions like E# to work normally.
+     */
+    private static final String[] SPELLINGS = { "C", "C#", "Db", "D", "D#",
+            "Eb", "E", "Fb", "E#", "F", "F#", "Gb", "G", "G#", "Ab", "A", "A#",
+            "Bb", "B", "Cb", "B#" };
+
+    /**
+     * Half-steps above C of the same octave for each of {@code SPELLINGS}.
+     * Fb and Cb are E and B of the same octave; B# is C of the next.
+     */
+    private static final int[] OFFSETS = { 0, 1, 1, 2, 3, 3, 4, 4, 5, 5, 6, 6,
+            7, 8, 8, 9, 10, 10, 11, 11, 12 };
+
+    /**
+     * Canonical spelling of each pitch class (flats preferred).
+     */
+    private static final String[] CANONICAL = { "C", "Db", "D", "Eb", "E",
+            "F", "Gb", "G", "Ab", "A", "Bb", "B" };
+
+    /**
+     * Alternate spelling of each pitch class (sharps, Fb and Cb), or
+     * {@code null} when the pitch class has only one spelling.
+     */
+    private static final String[] ALTERNATE = { "B#", "C#", null, "D#", "Fb",
+            "E#", "F#", null, "G#", null, "A#", "Cb" };
+
+    /**
+     * Canonical note names organized by pitch.
+     */
+    private static final String[] NAME_OF_PITCH = new String[MAX_PITCH + 1];
+
+    /**
+     * Every accepted note name: the names without an octave number first, then
+     * each octave from the lowest up.
+     */
+    private static final String[] NOTE_LIST;
+
+    /**
+     * Pitch of each name in {@code NOTE_LIST}.
+     */
+    private static final int[] NOTE_PITCH;
+
+    static {
+        final int numOctaves = MAX_PITCH / NOTES_IN_OCTAVE + 1;
+        String[] list = new String[SPELLINGS.length * (numOctaves + 1)];
+        int[] pitches = new int[list.length];
+        int count = 0;
+
+        for (int i = 0; i < SPELLINGS.length; i++) {
+            list[count] = SPELLINGS[i];
+            pitches[count] = OFFSETS[i];
+            count++;
+        }
+        //Octave-specific adding
+        for (int o = 0; o < numOctaves; o++) {
+            for (int i = 0; i < SPELLINGS.length; i++) {
+                int pitch = o * NOTES_IN_OCTAVE + OFFSETS[i];
+                if (pitch <= MAX_PITCH) {
+                    list[count] = SPELLINGS[i] + o;
+                    pitches[count] = pitch;
+                    count++;
+                }
+            }
+        }
+
+        NOTE_LIST = new String[count];
+        NOTE_PITCH = new int[count];
+        System.arraycopy(list, 0, NOTE_LIST, 0, count);
+        System.arraycopy(pitches, 0, NOTE_PITCH, 0, count);
+
+        for (int p = 0; p <= MAX_PITCH; p++) {
+            NAME_OF_PITCH[p] = CANONICAL[p % NOTES_IN_OCTAVE]
+                    + (p / NOTES_IN_OCTAVE);
+        }
+    }
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private PitchTable() {
+    }
+
+    /**
+     * Returns the number of half-steps the accidentals starting at
+     * {@code start} alter a note by, or {@code NOT_ACCIDENTALS} if they are
+     * not accidentals. Accepts "", "#", "b", "##", "x" and "bb".
+     *
+     * @param note
+     *            the note name
+     * @param start
+     *            index of the first character after the letter
+     * @param end
+     *            index just past the accidentals
+     * @return the alteration, from -2 to 2, or {@code NOT_ACCIDENTALS}
+     */
+    private static int alteration(CharSequence note, int start, int end) {
+        int result = NOT_ACCIDENTALS;
+        int length = end - start;
+        if (length == 0) {
+            result = 0;
+        } else if (length == 1) {
+            char c = note.charAt(start);
+            if (c == '#') {
+                result = 1;
+            } else if (c == 'b') {
+                result = -1;
+            } else if (c == 'x') {
+                result = 2;
+            }
+        } else if (length == 2 && note.charAt(start) == note.charAt(end - 1)) {
+            char c = note.charAt(start);
+            if (c == '#') {
+                result = 2;
+            } else if (c == 'b') {
+                result = -2;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index just past the accidentals of {@code note}, which is
+     * where its octave number (if any) starts.
+     *
+     * @param note
+     *            the note name
+     * @return index of the first digit of {@code note}, or its length
+     */
+    private static int octaveStart(CharSequence note) {
+        int i = 1;
+        while (i < note.length()
+                && (note.charAt(i) < '0' || note.charAt(i) > '9')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Parses {@code note}: a letter A through G, up to two accidentals ("#",
+     * "b", "##", "x" or "bb") and an optional octave number 0 through 10
+     * (octave 0 if omitted). B# and its double sharp count toward the next
+     * octave, while Cb and Cbb keep the octave of the B they sound as, so Cb0
+     * is B0.
+     *
+     * @param note
+     *            the note name
+     * @return the pitch index of {@code note}, or {@code NOT_A_NOTE} if it is
+     *         not a note between C0 and G10
+     */
+    static int parse(CharSequence note) {
+        int result = NOT_A_NOTE;
+        int length = note.length();
+        if (length > 0 && note.charAt(0) >= 'A' && note.charAt(0) <= 'G') {
+            int letter = LETTER_OFFSETS[note.charAt(0) - 'A'];
+            int digits = octaveStart(note);
+            int alteration = alteration(note, 1, digits);
+            int octave = 0;
+            if (length - digits > 2 || (length - digits == 2
+                    && note.charAt(digits) == '0')) {
+                octave = NOT_A_NOTE;
+            }
+            for (int i = digits; i < length && octave >= 0; i++) {
+                char c = note.charAt(i);
+                if (c < '0' || c > '9') {
+                    octave = NOT_A_NOTE;
+                } else {
+                    octave = octave * 10 + (c - '0');
+                }
+            }
+            if (alteration != NOT_ACCIDENTALS && octave >= 0
+                    && octave <= MAX_OCTAVE) {
+                int offset = letter + alteration;
+                if (offset < 0) {
+                    offset += NOTES_IN_OCTAVE;
+                }
+                int pitch = octave * NOTES_IN_OCTAVE + offset;
+                if (pitch <= MAX_PITCH) {
+                    result = pitch;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether {@code note} is a recognized note name.
+     *
+     * @param note
+     *            the note name
+     * @return true if {@code note} names a pitch between C0 and G10
+     */
+    static boolean isNote(CharSequence note) {
+        return parse(note) != NOT_A_NOTE;
+    }
+
+    /**
+     * Returns the pitch index of {@code note}.
+     *
+     * @param note
+     *            the note name
+     * @requires {@code note} is a recognized note name
+     * @return the pitch index of {@code note}
+     */
+    static int pitch(CharSequence note) {
+        ChordMetrics.tableLookup();
+        int p = parse(note);
+        assert p != NOT_A_NOTE : "Violation of: note is within noteList";
+        return p;
+    }
+
+    /**
+     * Returns the number of half-steps the accidentals of {@code note} raise
+     * it by: 2 for a double sharp, 1 for a sharp, 0 for a natural, -1 for a
+     * flat and -2 for a double flat.
+     *
+     * @param note
+     *            the note name
+     * @requires {@code note} is a recognized note name
+     * @return the alteration of {@code note}
+     */
+    static int alteration(CharSequence note) {
+        return alteration(note, 1, octaveStart(note));
+    }
+
+    /**
+     * Returns the canonical name of {@code pitch}.
+     *
+     * @param pitch
+     *            the pitch index
+     * @requires 0 <= pitch <= MAX_PITCH
+     * @return the canonical name (flats preferred) with octave number
+     */
+    static String name(int pitch) {
+        assert 0 <= pitch
+                && pitch <= MAX_PITCH : "Violation of: pitch is in range";
+        return NAME_OF_PITCH[pitch];
+    }
+
+    /**
+     * Reports whether {@code note} is spelled with the alternate spelling of its
+     * pitch (a sharp, Fb or Cb) rather than the canonical one.
+     *
+     * @param note
+     *            the note name
+     * @requires {@code note} is a recognized note name
+     * @return true if {@code note} is an alternate spelling
+     */
+    static boolean isAlternate(CharSequence note) {
+        int alteration = alteration(note);
+        char letter = note.charAt(0);
+        return alteration == 1
+                || (alteration == -1 && (letter == 'F' || letter == 'C'));
+    }
+
+    /**
+     * Returns the name of {@code pitch}, using its alternate spelling if
+     * {@code alternate} is set and the pitch has one.
+     *
+     * @param pitch
+     *            the pitch index
+     * @param alternate
+     *            whether to use the alternate spelling
+     * @requires 0 <= pitch <= MAX_PITCH
+     * @return the name of {@code pitch} with octave number
+     */
+    static String name(int pitch, boolean alternate) {
+        String result = name(pitch);
+        int pitchClass = pitch % NOTES_IN_OCTAVE;
+        if (alternate && ALTERNATE[pitchClass] != null && pitch > 0) {
+            int octave = pitch / NOTES_IN_OCTAVE;
+            if (pitchClass == 0) {
+                octave--;
+            }
+            result = ALTERNATE[pitchClass] + octave;
+        }
+        return result;
+    }
+
+    /**
+     * Returns every accepted note name whose pitch is between {@code min} and
+     * {@code max}.
+     *
+     * @param min
+     *            lowest pitch index
+     * @param max
+     *            highest pitch index
+     * @return a new array of the note names in range
+     */
+    static String[] noteList(int min, int max) {
+        int count = 0;
+        for (int i = 0; i < NOTE_PITCH.length; i++) {
+            if (min <= NOTE_PITCH[i] && NOTE_PITCH[i] <= max) {
+                count++;
+            }
+        }
+        String[] result = new String[count];
+        count = 0;
+        for (int i = 0; i < NOTE_PITCH.length; i++) {
+            if (min <= NOTE_PITCH[i] && NOTE_PITCH[i] <= max) {
+                result[count] = NOTE_LIST[i];
+                count++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new map of every accepted note name whose pitch is between
+     * {@code min} and {@code max}, and its pitch index.
+     *
+     * @param min
+     *            lowest pitch index
+     * @param max
+     *            highest pitch index
+     * @return a new map of note names and their int values
+     */
+    static Map<String, Integer> noteListString(int min, int max) {
+        Map<String, Integer> result = new Map2<String, Integer>();
+        for (int i = 0; i < NOTE_LIST.length; i++) {
+            if (min <= NOTE_PITCH[i] && NOTE_PITCH[i] <= max) {
+                result.add(NOTE_LIST[i], NOTE_PITCH[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new map of every pitch index between {@code min} and
+     * {@code max} and its canonical name.
+     *
+     * @param min
+     *            lowest pitch index
+     * @param max
+     *            highest pitch index
+     * @return a new map of int values and their canonical note names
+     */
+    static Map<Integer, String> noteListInt(int min, int max) {
+        Map<Integer, String> result = new Map2<Integer, String>();
+        for (int p = min; p <= max; p++) {
+            result.add(p, NAME_OF_PITCH[p]);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,210 @@
+package components.chord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growing sequence of chords stored as pitch masks, two {@code long}s per
+ * chord in one array, with the notes added and removed at each step and
+ * analyzers that are told about every chord as it is appended.
+ *
+ * <p>
+ * The step into chord {@code i} is the difference between its mask and the
+ * mask of chord {@code i - 1} (the empty chord before the first), so
+ * {@code added} and {@code removed} cost a couple of bit operations.
+ * Analyzers attached with {@code attach} see each new chord once, in order,
+ * and can use those deltas to update their results without rescanning the
+ * progression, which keeps live input cheap to follow.
+ * </p>
+ *
+ * <p>
+ * A {@code Progression} is not safe for use by several threads at once.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class Progression {
+
+    /**
+     * Number of chords room is first made for.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Pitch masks: chord {@code i} is at {@code 2i} (pitches 0 through 63) and
+     * {@code 2i + 1} (pitches 64 through 127).
+     */
+    private long[] masks;
+
+    /**
+     * Number of chords.
+     */
+    private int size;
+
+    /**
+     * Analyzers told about each appended chord.
+     */
+    private final List<ProgressionAnalyzer> analyzers;
+
+    /**
+     * No-argument constructor for an empty progression.
+     */
+    public Progression() {
+        this.masks = new long[INITIAL_CAPACITY * PitchMasks.WORDS];
+        this.size = 0;
+        this.analyzers = new ArrayList<>();
+    }
+
+    /**
+     * Appends the chord whose pitches are {@code low}/{@code high} and tells
+     * every attached analyzer.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @updates this
+     * @ensures this = #this * &lt;low/high&gt;
+     */
+    public void append(long low, long high) {
+        if (this.size * PitchMasks.WORDS == this.masks.length) {
+            this.masks = Arrays.copyOf(this.masks, 2 * this.masks.length);
+        }
+        this.masks[this.size * PitchMasks.WORDS] = low;
+        this.masks[this.size * PitchMasks.WORDS + 1] = high;
+        this.size++;
+        for (ProgressionAnalyzer analyzer : this.analyzers) {
+            analyzer.step(this, this.size - 1);
+        }
+    }
+
+    /**
+     * Appends the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @updates this
+     * @ensures this = #this * &lt;notes of chord&gt;
+     */
+    public void append(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        this.append(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Appends the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @updates this
+     * @ensures this = #this * &lt;notes of chord&gt;
+     */
+    public void append(ChordValue chord) {
+        assert chord != null : "Violation of: chord is not null";
+        this.append(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Attaches {@code analyzer}, first giving it every chord already in this
+     * so it catches up, then each chord as it is appended.
+     *
+     * @param analyzer
+     *            the analyzer
+     */
+    public void attach(ProgressionAnalyzer analyzer) {
+        assert analyzer != null : "Violation of: analyzer is not null";
+        for (int i = 0; i < this.size; i++) {
+            analyzer.step(this, i);
+        }
+        this.analyzers.add(analyzer);
+    }
+
+    /**
+     * Reports the number of chords.
+     *
+     * @return the number of chords
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns word {@code word} of the pitch mask of chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the pitch mask word
+     * @requires 0 <= index < |this| and 0 <= word <= 1
+     */
+    public long pitchMask(int index, int word) {
+        assert 0 <= index && index < this.size : "Violation of: index in range";
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.masks[index * PitchMasks.WORDS + word];
+    }
+
+    /**
+     * Returns word {@code word} of the pitches in chord {@code index} that
+     * were not in the chord before it.
+     *
+     * @param index
+     *            the position of the chord
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the added pitches
+     * @requires 0 <= index < |this| and 0 <= word <= 1
+     */
+    public long added(int index, int word) {
+        return this.pitchMask(index, word) & ~this.previous(index, word);
+    }
+
+    /**
+     * Returns word {@code word} of the pitches in the chord before chord
+     * {@code index} that are not in chord {@code index}.
+     *
+     * @param index
+     *            the position of the chord
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the removed pitches
+     * @requires 0 <= index < |this| and 0 <= word <= 1
+     */
+    public long removed(int index, int word) {
+        return this.previous(index, word) & ~this.pitchMask(index, word);
+    }
+
+    /**
+     * Returns chord {@code index} as an immutable value.
+     *
+     * @param index
+     *            the position of the chord
+     * @return the chord
+     * @requires 0 <= index < |this|
+     */
+    public ChordValue chord(int index) {
+        return ChordValue.of(this.pitchMask(index, 0),
+                this.pitchMask(index, 1));
+    }
+
+    /**
+     * Returns word {@code word} of the chord before chord {@code index}, or 0
+     * for the first chord.
+     *
+     * @param index
+     *            the position of the chord
+     * @param word
+     *            0 or 1
+     * @return the pitch mask word
+     */
+    private long previous(int index, int word) {
+        long result = 0L;
+        if (index > 0) {
+            result = this.masks[(index - 1) * PitchMasks.WORDS + word];
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,26 @@
+package components.chord;
+
+/**
+ * An analysis that follows a {@code Progression} one chord at a time,
+ * updating its results from what changed at each step instead of
+ * recomputing them.
+ *
+ * @author Jake Meyer
+ */
+@FunctionalInterface
+public interface ProgressionAnalyzer {
+
+    /**
+     * Takes chord {@code index} of {@code progression} into account. Called
+     * once for each chord, in order, right after it is appended.
+     *
+     * @param progression
+     *            the progression
+     * @param index
+     *            the position of the new chord
+     * @requires this has already seen chords 0 through index - 1 of
+     *           progression
+     */
+    void step(Progression progression, int index);
+
+}
@@ -0,0 +1,112 @@
+package components.chord;
+
+/**
+ * Follows the register of a {@code Progression}: the lowest and highest
+ * pitches of the latest chord and of all chords so far, and the widest
+ * chord. Each step reads only the ends of the new chord's mask.
+ *
+ * @author Jake Meyer
+ */
+public final class RangeTracker implements ProgressionAnalyzer {
+
+    /**
+     * Lowest pitch of any chord so far, or -1.
+     */
+    private int lowest;
+
+    /**
+     * Highest pitch of any chord so far, or -1.
+     */
+    private int highest;
+
+    /**
+     * Lowest pitch of the latest chord, or -1 if it is empty.
+     */
+    private int currentLowest;
+
+    /**
+     * Highest pitch of the latest chord, or -1 if it is empty.
+     */
+    private int currentHighest;
+
+    /**
+     * Largest distance from lowest to highest note in any one chord.
+     */
+    private int widest;
+
+    /**
+     * No-argument constructor.
+     */
+    public RangeTracker() {
+        this.lowest = -1;
+        this.highest = -1;
+        this.currentLowest = -1;
+        this.currentHighest = -1;
+        this.widest = 0;
+    }
+
+    @Override
+    public void step(Progression progression, int index) {
+        long low = progression.pitchMask(index, 0);
+        long high = progression.pitchMask(index, 1);
+        if ((low | high) == 0) {
+            this.currentLowest = -1;
+            this.currentHighest = -1;
+        } else {
+            this.currentLowest = PitchMasks.lowest(low, high);
+            this.currentHighest = PitchMasks.highest(low, high);
+            if (this.lowest < 0 || this.currentLowest < this.lowest) {
+                this.lowest = this.currentLowest;
+            }
+            this.highest = Math.max(this.highest, this.currentHighest);
+            this.widest = Math.max(this.widest,
+                    this.currentHighest - this.currentLowest);
+        }
+    }
+
+    /**
+     * Reports the lowest pitch of any chord so far.
+     *
+     * @return the pitch, or -1 if every chord has been empty
+     */
+    public int lowest() {
+        return this.lowest;
+    }
+
+    /**
+     * Reports the highest pitch of any chord so far.
+     *
+     * @return the pitch, or -1 if every chord has been empty
+     */
+    public int highest() {
+        return this.highest;
+    }
+
+    /**
+     * Reports the lowest pitch of the latest chord.
+     *
+     * @return the pitch, or -1 if the latest chord is empty
+     */
+    public int currentLowest() {
+        return this.currentLowest;
+    }
+
+    /**
+     * Reports the highest pitch of the latest chord.
+     *
+     * @return the pitch, or -1 if the latest chord is empty
+     */
+    public int currentHighest() {
+        return this.currentHighest;
+    }
+
+    /**
+     * Reports the largest span of any one chord so far.
+     *
+     * @return the span in half-steps
+     */
+    public int widest() {
+        return this.widest;
+    }
+
+}
@@ -0,0 +1,325 @@
+package components.chord;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed reverse index from pitch-class sets to the scales that contain
+ * them. Each scale is one of the types in {@code TYPES} on one of the twelve
+ * tonics, numbered {@code type * 12 + tonic}. When the class is loaded, every
+ * scale marks every subset of its pitch classes in a bitmap per pitch-class
+ * set, so finding the scales that contain a chord afterwards is one
+ * pitch-class fold (see {@code PitchClassSet}) and one array read.
+ *
+ * <p>
+ * Pitch classes are those of the pitch indices {@code noteListInt} uses:
+ * pitch {@code p} has pitch class {@code p mod 12}, with C as 0. Modes of the
+ * same collection, such as C ionian and D dorian, are separate scales that
+ * contain the same chords.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class Scales {
+
+    /**
+     * Scale type names.
+     */
+    private static final String[] TYPES = { "ionian", "dorian", "phrygian",
+            "lydian", "mixolydian", "aeolian", "locrian", "harmonic minor",
+            "melodic minor", "major pentatonic", "minor pentatonic", "blues",
+            "whole tone", "octatonic" };
+
+    /**
+     * Intervals above the tonic of each type in {@code TYPES}, in half-steps.
+     */
+    private static final int[][] INTERVALS = { { 0, 2, 4, 5, 7, 9, 11 },
+            { 0, 2, 3, 5, 7, 9, 10 }, { 0, 1, 3, 5, 7, 8, 10 },
+            { 0, 2, 4, 6, 7, 9, 11 }, { 0, 2, 4, 5, 7, 9, 10 },
+            { 0, 2, 3, 5, 7, 8, 10 }, { 0, 1, 3, 5, 6, 8, 10 },
+            { 0, 2, 3, 5, 7, 8, 11 }, { 0, 2, 3, 5, 7, 9, 11 },
+            { 0, 2, 4, 7, 9 }, { 0, 3, 5, 7, 10 }, { 0, 3, 5, 6, 7, 10 },
+            { 0, 2, 4, 6, 8, 10 }, { 0, 2, 3, 5, 6, 8, 9, 11 } };
+
+    /**
+     * Canonical (flat) name of each pitch class.
+     */
+    private static final String[] TONICS = { "C", "Db", "D", "Eb", "E", "F",
+            "Gb", "G", "Ab", "A", "Bb", "B" };
+
+    /**
+     * Number of scales.
+     */
+    public static final int COUNT = TYPES.length * PitchClassSet.SIZE;
+
+    /**
+     * Number of {@code long} words in the bitmap of one pitch-class set.
+     */
+    public static final int WORDS = (COUNT + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * Pitch-class set of each scale.
+     */
+    private static final short[] PITCH_CLASSES = new short[COUNT];
+
+    /**
+     * Bitmap of the scales containing each pitch-class set: scale {@code s}
+     * is bit {@code s mod 64} of word {@code pcs * WORDS + s / 64}.
+     */
+    private static final long[] CONTAINING = new long[PitchClassSet.COUNT
+            * WORDS];
+
+    static {
+        for (int t = 0; t < TYPES.length; t++) {
+            int shape = 0;
+            for (int interval : INTERVALS[t]) {
+                shape |= 1 << interval;
+            }
+            for (int tonic = 0; tonic < PitchClassSet.SIZE; tonic++) {
+                int scale = t * PitchClassSet.SIZE + tonic;
+                int pcs = PitchClassSet.transpose(shape, tonic);
+                PITCH_CLASSES[scale] = (short) pcs;
+                /*
+                 * Visit every subset of pcs, the empty set included.
+                 */
+                int subset = pcs;
+                boolean more = true;
+                while (more) {
+                    CONTAINING[subset * WORDS + scale / Long.SIZE] |= 1L << scale;
+                    more = subset != 0;
+                    subset = (subset - 1) & pcs;
+                }
+            }
+        }
+    }
+
+    /**
+     * No-argument constructor--private to prevent instantiation.
+     */
+    private Scales() {
+    }
+
+    /*
+     * Scales -----------------------------------------------------------------
+     */
+
+    /**
+     * Returns the number of the scale of type {@code type} on {@code tonic}.
+     *
+     * @param type
+     *            the type name, such as "dorian" or "harmonic minor"
+     * @param tonic
+     *            the pitch class of the tonic
+     * @return the scale number
+     * @requires type is in TYPES and 0 <= tonic < 12
+     */
+    public static int scale(String type, int tonic) {
+        assert type != null : "Violation of: type is not null";
+        assert 0 <= tonic
+                && tonic < PitchClassSet.SIZE : "Violation of: 0 <= tonic < 12";
+        int t = 0;
+        while (t < TYPES.length && !TYPES[t].equals(type)) {
+            t++;
+        }
+        assert t < TYPES.length : "Violation of: type is in TYPES";
+        return t * PitchClassSet.SIZE + tonic;
+    }
+
+    /**
+     * Returns the name of {@code scale}, such as "D dorian".
+     *
+     * @param scale
+     *            the scale number
+     * @return the name
+     * @requires 0 <= scale < COUNT
+     */
+    public static String name(int scale) {
+        assert 0 <= scale && scale < COUNT : "Violation of: 0 <= scale < COUNT";
+        return TONICS[tonic(scale)] + " " + TYPES[scale / PitchClassSet.SIZE];
+    }
+
+    /**
+     * Returns the tonic of {@code scale}.
+     *
+     * @param scale
+     *            the scale number
+     * @return the pitch class of the tonic
+     * @requires 0 <= scale < COUNT
+     */
+    public static int tonic(int scale) {
+        assert 0 <= scale && scale < COUNT : "Violation of: 0 <= scale < COUNT";
+        return scale % PitchClassSet.SIZE;
+    }
+
+    /**
+     * Returns the pitch classes of {@code scale}.
+     *
+     * @param scale
+     *            the scale number
+     * @return the pitch-class set
+     * @requires 0 <= scale < COUNT
+     */
+    public static int pitchClassSet(int scale) {
+        assert 0 <= scale && scale < COUNT : "Violation of: 0 <= scale < COUNT";
+        return PITCH_CLASSES[scale];
+    }
+
+    /*
+     * Queries ----------------------------------------------------------------
+     */
+
+    /**
+     * Reports whether every pitch class of {@code pcs} is in {@code scale}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @param scale
+     *            the scale number
+     * @return true if {@code pcs} is diatonic to {@code scale}
+     * @requires 0 <= scale < COUNT
+     */
+    public static boolean isDiatonic(int pcs, int scale) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        assert 0 <= scale && scale < COUNT : "Violation of: 0 <= scale < COUNT";
+        return (CONTAINING[pcs * WORDS + scale / Long.SIZE] >>> scale & 1) != 0;
+    }
+
+    /**
+     * Reports whether every note of {@code chord} is in {@code scale}, in any
+     * octave.
+     *
+     * @param chord
+     *            the chord
+     * @param scale
+     *            the scale number
+     * @return true if {@code chord} is diatonic to {@code scale}
+     * @requires 0 <= scale < COUNT
+     */
+    public static boolean isDiatonic(Chord chord, int scale) {
+        return isDiatonic(PitchClassSet.of(chord), scale);
+    }
+
+    /**
+     * Returns word {@code word} of the bitmap of scales containing
+     * {@code pcs}: scale {@code s} is bit {@code s mod 64} of word
+     * {@code s / 64}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @param word
+     *            the word
+     * @return the bitmap word
+     * @requires 0 <= word < WORDS
+     */
+    public static long containing(int pcs, int word) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        assert 0 <= word && word < WORDS : "Violation of: 0 <= word < WORDS";
+        return CONTAINING[pcs * WORDS + word];
+    }
+
+    /**
+     * Returns the scales containing {@code pcs}, in increasing order.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the scale numbers
+     */
+    public static int[] scalesContaining(int pcs) {
+        assert (pcs
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pcs is a pitch-class set";
+        int base = pcs * WORDS;
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            n += Long.bitCount(CONTAINING[base + w]);
+        }
+        int[] result = new int[n];
+        int i = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long remaining = CONTAINING[base + w];
+            while (remaining != 0) {
+                result[i] = w * Long.SIZE + Long.numberOfTrailingZeros(remaining);
+                i++;
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the scales containing every note of {@code chord}, in any
+     * octave, in increasing order.
+     *
+     * @param chord
+     *            the chord
+     * @return the scale numbers
+     */
+    public static int[] scalesContaining(Chord chord) {
+        return scalesContaining(PitchClassSet.of(chord));
+    }
+
+    /**
+     * Returns every non-empty pitch-class set diatonic to {@code scale}, in
+     * increasing order.
+     *
+     * @param scale
+     *            the scale number
+     * @return the pitch-class sets
+     * @requires 0 <= scale < COUNT
+     */
+    public static int[] chordsDiatonicTo(int scale) {
+        int pcs = pitchClassSet(scale);
+        int[] result = new int[(1 << Integer.bitCount(pcs)) - 1];
+        int i = result.length;
+        for (int subset = pcs; subset != 0; subset = (subset - 1) & pcs) {
+            i--;
+            result[i] = subset;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positions of the chords of {@code batch} diatonic to
+     * {@code scale}, in increasing order.
+     *
+     * @param batch
+     *            the chords
+     * @param scale
+     *            the scale number
+     * @return the positions
+     * @requires 0 <= scale < COUNT
+     */
+    public static int[] chordsDiatonicTo(ChordBatch batch, int scale) {
+        assert batch != null : "Violation of: batch is not null";
+        int[] found = new int[batch.size()];
+        int n = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (isDiatonic(batch.pitchClassSet(i), scale)) {
+                found[n] = i;
+                n++;
+            }
+        }
+        return Arrays.copyOf(found, n);
+    }
+
+    /**
+     * Returns an analysis giving 1 for each chord diatonic to {@code scale}
+     * and 0 for every other, for tagging a corpus with {@code BatchAnalyzer}.
+     *
+     * @param scale
+     *            the scale number
+     * @return the analysis
+     * @requires 0 <= scale < COUNT
+     */
+    public static ChordBatchAnalysis diatonicTo(int scale) {
+        assert 0 <= scale && scale < COUNT : "Violation of: 0 <= scale < COUNT";
+        return (batch, index) -> {
+            int result = 0;
+            if (isDiatonic(batch.pitchClassSet(index), scale)) {
+                result = 1;
+            }
+            return result;
+        };
+    }
+
+}
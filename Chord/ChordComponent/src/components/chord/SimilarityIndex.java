@@ -0,0 +1,671 @@
+package components.chord;
+
+import java.util.Arrays;
+
+/**
+ * A growing corpus of chords, stored as pitch masks, that finds the chords
+ * nearest to a query under a metric {@code ChordDistance}.
+ *
+ * <p>
+ * The chords also form a BK-tree on the metric: a child hangs under its
+ * parent on an edge labeled with its distance from the parent, and no two
+ * children of a node share a label. By the triangle inequality, a chord within
+ * {@code r} of the query can only lie under a child whose label is within
+ * {@code r} of the query's distance to the parent, so {@code nearest} skips
+ * every other subtree. It visits nodes best-first, by the least distance their
+ * subtree allows, and stops once that passes the {@code k}-th best distance
+ * found. A chord at distance 0 from a node (a repeat, or under a
+ * pseudometric such as {@code INTERVAL_VECTOR} any chord with the same
+ * interval-class vector) is at the same distance as the node from every query,
+ * so it joins the node's list of twins instead of lengthening the tree.
+ * Adding a chord walks one path down from the root, so the tree grows with the
+ * corpus and is never rebuilt.
+ * </p>
+ *
+ * <p>
+ * {@code scan} instead compares the query with every chord. It is exact for
+ * any distance, including ones that are not metrics such as voice leading, and
+ * for {@code ChordDistances.HAMMING} it is a popcount over the mask array.
+ * </p>
+ *
+ * <p>
+ * Chords are numbered from 0 in the order they are added. Results list chord
+ * numbers nearest first, with ties broken toward the smaller number, so the
+ * tree and the scan give the same answer. Queries only read the index, so any
+ * number may run at once, but not while a chord is being added.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class SimilarityIndex {
+
+    /**
+     * Number of chords room is first made for.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Marks a missing child or sibling.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * The metric the tree is built on.
+     */
+    private final ChordDistance metric;
+
+    /**
+     * Pitch masks: chord {@code i} is at {@code 2i} (pitches 0 through 63) and
+     * {@code 2i + 1} (pitches 64 through 127).
+     */
+    private long[] masks;
+
+    /**
+     * First child of each chord in the tree, or {@code NONE}.
+     */
+    private int[] firstChild;
+
+    /**
+     * Next child of the same parent after each chord, or {@code NONE}.
+     */
+    private int[] nextSibling;
+
+    /**
+     * Distance of each chord from its parent (0 for the root and twins).
+     */
+    private int[] edge;
+
+    /**
+     * Next twin of the same node after each chord, or {@code NONE}; a node's
+     * twins follow it in the order they were added.
+     */
+    private int[] nextTwin;
+
+    /**
+     * Last twin of each node (the node itself if it has none).
+     */
+    private int[] lastTwin;
+
+    /**
+     * Number of chords.
+     */
+    private int size;
+
+    /**
+     * Constructor for an empty index on {@code metric}.
+     *
+     * @param metric
+     *            the distance to index by
+     * @requires metric is symmetric and obeys the triangle inequality
+     */
+    public SimilarityIndex(ChordDistance metric) {
+        assert metric != null : "Violation of: metric is not null";
+        this.metric = metric;
+        this.masks = new long[INITIAL_CAPACITY * PitchMasks.WORDS];
+        this.firstChild = new int[INITIAL_CAPACITY];
+        this.nextSibling = new int[INITIAL_CAPACITY];
+        this.edge = new int[INITIAL_CAPACITY];
+        this.nextTwin = new int[INITIAL_CAPACITY];
+        this.lastTwin = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * No-argument constructor for an empty index on
+     * {@code ChordDistances.HAMMING}.
+     */
+    public SimilarityIndex() {
+        this(ChordDistances.HAMMING);
+    }
+
+    /**
+     * Returns the distance under {@code distance} from chord {@code id} to the
+     * chord {@code low}/{@code high}.
+     *
+     * @param distance
+     *            the distance
+     * @param id
+     *            the chord number
+     * @param low
+     *            pitches 0 through 63 of the other chord
+     * @param high
+     *            pitches 64 through 127 of the other chord
+     * @return the distance
+     */
+    private int distance(ChordDistance distance, int id, long low, long high) {
+        return distance.distance(this.masks[id * PitchMasks.WORDS],
+                this.masks[id * PitchMasks.WORDS + 1], low, high);
+    }
+
+    /**
+     * Makes room for one more chord.
+     */
+    private void grow() {
+        int capacity = 2 * this.firstChild.length;
+        this.masks = Arrays.copyOf(this.masks, capacity * PitchMasks.WORDS);
+        this.firstChild = Arrays.copyOf(this.firstChild, capacity);
+        this.nextSibling = Arrays.copyOf(this.nextSibling, capacity);
+        this.edge = Arrays.copyOf(this.edge, capacity);
+        this.nextTwin = Arrays.copyOf(this.nextTwin, capacity);
+        this.lastTwin = Arrays.copyOf(this.lastTwin, capacity);
+    }
+
+    /**
+     * Returns the key ordering chord {@code id} at {@code distance}: by
+     * distance, then by number.
+     *
+     * @param distance
+     *            a distance, at least 0
+     * @param id
+     *            the chord number
+     * @return the key
+     */
+    private static long key(int distance, int id) {
+        return ((long) distance << Integer.SIZE) | id;
+    }
+
+    /**
+     * Adds the chord whose pitches are {@code low}/{@code high}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @return the number of the new chord
+     * @updates this
+     * @ensures add = |#this| and this = #this * &lt;low/high&gt;
+     */
+    public int add(long low, long high) {
+        if (this.size == this.firstChild.length) {
+            this.grow();
+        }
+        int id = this.size;
+        this.masks[id * PitchMasks.WORDS] = low;
+        this.masks[id * PitchMasks.WORDS + 1] = high;
+        this.firstChild[id] = NONE;
+        this.nextSibling[id] = NONE;
+        this.edge[id] = 0;
+        this.nextTwin[id] = NONE;
+        this.lastTwin[id] = id;
+        /*
+         * Walk down from the root (chord 0) until the new chord is a twin of
+         * a node or the node has no child at the new chord's distance; either
+         * way the new chord is linked in there, which ends the walk.
+         */
+        int node = 0;
+        while (node < id) {
+            int d = this.distance(this.metric, node, low, high);
+            int child = this.firstChild[node];
+            if (d == 0) {
+                this.nextTwin[this.lastTwin[node]] = id;
+                this.lastTwin[node] = id;
+                child = id;
+            } else {
+                while (child != NONE && this.edge[child] != d) {
+                    child = this.nextSibling[child];
+                }
+                if (child == NONE) {
+                    this.edge[id] = d;
+                    this.nextSibling[id] = this.firstChild[node];
+                    this.firstChild[node] = id;
+                    child = id;
+                }
+            }
+            node = child;
+        }
+        this.size++;
+        return id;
+    }
+
+    /**
+     * Adds the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @return the number of the new chord
+     * @updates this
+     * @ensures add = |#this| and this = #this * &lt;notes of chord&gt;
+     */
+    public int add(Chord chord) {
+        assert chord != null : "Violation of: chord is not null";
+        return this.add(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Adds the notes of {@code chord}.
+     *
+     * @param chord
+     *            the chord
+     * @return the number of the new chord
+     * @updates this
+     * @ensures add = |#this| and this = #this * &lt;notes of chord&gt;
+     */
+    public int add(ChordValue chord) {
+        assert chord != null : "Violation of: chord is not null";
+        return this.add(chord.pitchMask(0), chord.pitchMask(1));
+    }
+
+    /**
+     * Adds every chord of {@code batch}, in order.
+     *
+     * @param batch
+     *            the chords to add
+     * @updates this
+     * @ensures this = #this * batch
+     */
+    public void addAll(ChordBatch batch) {
+        assert batch != null : "Violation of: batch is not null";
+        for (int i = 0; i < batch.size(); i++) {
+            this.add(batch.pitchMask(i, 0), batch.pitchMask(i, 1));
+        }
+    }
+
+    /**
+     * Reports the number of chords.
+     *
+     * @return the number of chords
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns word {@code word} of the pitch mask of chord {@code id}.
+     *
+     * @param id
+     *            the chord number
+     * @param word
+     *            0 for pitches 0 through 63, 1 for pitches 64 through 127
+     * @return the pitch mask word
+     * @requires 0 <= id < |this| and 0 <= word <= 1
+     */
+    public long pitchMask(int id, int word) {
+        assert 0 <= id && id < this.size : "Violation of: 0 <= id < |this|";
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.masks[id * PitchMasks.WORDS + word];
+    }
+
+    /**
+     * Returns chord {@code id} as a value.
+     *
+     * @param id
+     *            the chord number
+     * @return the chord
+     * @requires 0 <= id < |this|
+     */
+    public ChordValue chord(int id) {
+        return ChordValue.of(this.pitchMask(id, 0), this.pitchMask(id, 1));
+    }
+
+    /**
+     * Returns the numbers of the {@code k} chords nearest to the chord
+     * {@code low}/{@code high} under the metric, found with the tree.
+     *
+     * @param low
+     *            pitches 0 through 63 of the query
+     * @param high
+     *            pitches 64 through 127 of the query
+     * @param k
+     *            the number of chords wanted
+     * @return the numbers of the min(k, |this|) nearest chords, nearest first
+     * @requires k >= 0
+     */
+    public int[] nearest(long low, long high, int k) {
+        assert k >= 0 : "Violation of: k >= 0";
+        Nearest best = new Nearest(Math.min(k, this.size));
+        if (k > 0 && this.size > 0) {
+            /*
+             * Each pending node is kept with the least distance any chord
+             * under it can have from the query. Chords are numbered in the
+             * order they are added, so no chord under a node has a smaller
+             * number than the node, and (least, node) keyed like the best
+             * chords is below every key from its subtree. The search ends
+             * when the smallest pending key cannot beat the worst best one.
+             */
+            Frontier pending = new Frontier();
+            pending.push(0, 0);
+            while (!pending.isEmpty() && pending.peek() < best.worst()) {
+                int least = (int) (pending.peek() >>> Integer.SIZE);
+                int node = pending.pop();
+                int d = this.distance(this.metric, node, low, high);
+                /*
+                 * Twins come in increasing order, so once one cannot be kept
+                 * none of the rest can.
+                 */
+                int twin = node;
+                while (twin != NONE && key(d, twin) < best.worst()) {
+                    best.offer(d, twin);
+                    twin = this.nextTwin[twin];
+                }
+                for (int child = this.firstChild[node]; child != NONE;
+                        child = this.nextSibling[child]) {
+                    int bound = Math.max(least,
+                            Math.abs(this.edge[child] - d));
+                    if (key(bound, child) < best.worst()) {
+                        pending.push(bound, child);
+                    }
+                }
+            }
+        }
+        return best.ids();
+    }
+
+    /**
+     * Returns the numbers of the {@code k} chords nearest to {@code query}
+     * under the metric, found with the tree.
+     *
+     * @param query
+     *            the chord to search around
+     * @param k
+     *            the number of chords wanted
+     * @return the numbers of the min(k, |this|) nearest chords, nearest first
+     * @requires k >= 0
+     */
+    public int[] nearest(Chord query, int k) {
+        assert query != null : "Violation of: query is not null";
+        return this.nearest(query.pitchMask(0), query.pitchMask(1), k);
+    }
+
+    /**
+     * Returns, for every chord of {@code queries}, the numbers of the
+     * {@code k} chords nearest to it under the metric, running the queries on
+     * the threads of {@code analyzer}.
+     *
+     * @param queries
+     *            the chords to search around
+     * @param k
+     *            the number of chords wanted for each
+     * @param analyzer
+     *            the threads to run on
+     * @return array whose entry {@code i} is {@code nearest} of chord
+     *         {@code i} of {@code queries}
+     * @requires k >= 0
+     */
+    public int[][] nearest(ChordBatch queries, int k,
+            BatchAnalyzer analyzer) {
+        assert queries != null : "Violation of: queries is not null";
+        assert k >= 0 : "Violation of: k >= 0";
+        assert analyzer != null : "Violation of: analyzer is not null";
+        int[][] result = new int[queries.size()][];
+        /*
+         * Each call writes only its own entry of result, and the analyzer
+         * returns only after every call has finished.
+         */
+        analyzer.analyze(queries, (batch, index) -> {
+            result[index] = this.nearest(batch.pitchMask(index, 0),
+                    batch.pitchMask(index, 1), k);
+            return result[index].length;
+        });
+        return result;
+    }
+
+    /**
+     * Returns the numbers of the {@code k} chords nearest to the chord
+     * {@code low}/{@code high} under the metric, comparing the query with
+     * every chord.
+     *
+     * @param low
+     *            pitches 0 through 63 of the query
+     * @param high
+     *            pitches 64 through 127 of the query
+     * @param k
+     *            the number of chords wanted
+     * @return the numbers of the min(k, |this|) nearest chords, nearest first
+     * @requires k >= 0
+     */
+    public int[] scan(long low, long high, int k) {
+        assert k >= 0 : "Violation of: k >= 0";
+        int[] result;
+        if (this.metric == ChordDistances.HAMMING) {
+            Nearest best = new Nearest(Math.min(k, this.size));
+            if (k > 0) {
+                long worst = best.worst();
+                for (int i = 0; i < this.size; i++) {
+                    int w = i * PitchMasks.WORDS;
+                    int d = Long.bitCount(this.masks[w] ^ low)
+                            + Long.bitCount(this.masks[w + 1] ^ high);
+                    if (key(d, i) < worst) {
+                        best.offer(d, i);
+                        worst = best.worst();
+                    }
+                }
+            }
+            result = best.ids();
+        } else {
+            result = this.scan(this.metric, low, high, k);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the numbers of the {@code k} chords nearest to the chord
+     * {@code low}/{@code high} under {@code distance}, comparing the query
+     * with every chord. {@code distance} need not be a metric.
+     *
+     * @param distance
+     *            the distance to rank by
+     * @param low
+     *            pitches 0 through 63 of the query
+     * @param high
+     *            pitches 64 through 127 of the query
+     * @param k
+     *            the number of chords wanted
+     * @return the numbers of the min(k, |this|) nearest chords, nearest first
+     * @requires k >= 0
+     */
+    public int[] scan(ChordDistance distance, long low, long high, int k) {
+        assert distance != null : "Violation of: distance is not null";
+        assert k >= 0 : "Violation of: k >= 0";
+        Nearest best = new Nearest(Math.min(k, this.size));
+        if (k > 0) {
+            long worst = best.worst();
+            for (int i = 0; i < this.size; i++) {
+                int d = this.distance(distance, i, low, high);
+                if (key(d, i) < worst) {
+                    best.offer(d, i);
+                    worst = best.worst();
+                }
+            }
+        }
+        return best.ids();
+    }
+
+    /**
+     * The nodes waiting to be visited by a query: a min-heap of keys, each a
+     * least possible distance in the high half and a chord number in the low
+     * half.
+     */
+    private static final class Frontier {
+
+        /**
+         * The keys, smallest at 0.
+         */
+        private long[] heap;
+
+        /**
+         * Number of keys held.
+         */
+        private int count;
+
+        /**
+         * No-argument constructor for an empty frontier.
+         */
+        Frontier() {
+            this.heap = new long[INITIAL_CAPACITY];
+            this.count = 0;
+        }
+
+        /**
+         * Reports whether no nodes are waiting.
+         *
+         * @return true if the frontier is empty
+         */
+        boolean isEmpty() {
+            return this.count == 0;
+        }
+
+        /**
+         * Reports the smallest key waiting.
+         *
+         * @return the smallest key
+         * @requires the frontier is not empty
+         */
+        long peek() {
+            return this.heap[0];
+        }
+
+        /**
+         * Adds node {@code id}, under which no chord is nearer the query than
+         * {@code least}.
+         *
+         * @param least
+         *            the least distance under the node
+         * @param id
+         *            the node
+         */
+        void push(int least, int id) {
+            if (this.count == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, 2 * this.count);
+            }
+            long key = key(least, id);
+            int i = this.count;
+            this.count++;
+            while (i > 0 && this.heap[(i - 1) / 2] > key) {
+                this.heap[i] = this.heap[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            this.heap[i] = key;
+        }
+
+        /**
+         * Removes the node with the smallest least distance.
+         *
+         * @return the node
+         * @requires the frontier is not empty
+         */
+        int pop() {
+            int result = (int) this.heap[0];
+            this.count--;
+            long key = this.heap[this.count];
+            int i = 0;
+            int child = 1;
+            while (child < this.count) {
+                if (child + 1 < this.count
+                        && this.heap[child + 1] < this.heap[child]) {
+                    child++;
+                }
+                if (this.heap[child] < key) {
+                    this.heap[i] = this.heap[child];
+                    i = child;
+                    child = 2 * i + 1;
+                } else {
+                    child = this.count;
+                }
+            }
+            this.heap[i] = key;
+            return result;
+        }
+
+    }
+
+    /**
+     * The best chords found so far by a query: a max-heap of at most a fixed
+     * number of keys, each a distance in the high half and a chord number in
+     * the low half, so comparing keys compares distances and then numbers.
+     */
+    private static final class Nearest {
+
+        /**
+         * The keys, largest at 0.
+         */
+        private final long[] heap;
+
+        /**
+         * Number of keys held.
+         */
+        private int count;
+
+        /**
+         * Constructor for room for {@code capacity} chords.
+         *
+         * @param capacity
+         *            the number of chords wanted
+         */
+        Nearest(int capacity) {
+            this.heap = new long[capacity];
+            this.count = 0;
+        }
+
+        /**
+         * Reports the key a chord must be below to be offered usefully: the
+         * key of the worst chord held once full, and {@code Long.MAX_VALUE}
+         * before.
+         *
+         * @return the bound
+         */
+        long worst() {
+            long result = Long.MAX_VALUE;
+            if (this.count == this.heap.length && this.count > 0) {
+                result = this.heap[0];
+            }
+            return result;
+        }
+
+        /**
+         * Keeps chord {@code id} at {@code distance} if it beats the worst
+         * chord held, or if there is still room.
+         *
+         * @param distance
+         *            its distance from the query
+         * @param id
+         *            the chord number
+         */
+        void offer(int distance, int id) {
+            long key = key(distance, id);
+            if (this.count < this.heap.length) {
+                int i = this.count;
+                this.count++;
+                while (i > 0 && this.heap[(i - 1) / 2] < key) {
+                    this.heap[i] = this.heap[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                this.heap[i] = key;
+            } else if (this.count > 0 && key < this.heap[0]) {
+                int i = 0;
+                int child = 1;
+                while (child < this.count) {
+                    if (child + 1 < this.count
+                            && this.heap[child + 1] > this.heap[child]) {
+                        child++;
+                    }
+                    if (this.heap[child] > key) {
+                        this.heap[i] = this.heap[child];
+                        i = child;
+                        child = 2 * i + 1;
+                    } else {
+                        child = this.count;
+                    }
+                }
+                this.heap[i] = key;
+            }
+        }
+
+        /**
+         * Returns the chord numbers held, nearest first.
+         *
+         * @return the chord numbers
+         */
+        int[] ids() {
+            long[] sorted = Arrays.copyOf(this.heap, this.count);
+            Arrays.sort(sorted);
+            int[] result = new int[this.count];
+            for (int i = 0; i < this.count; i++) {
+                result[i] = (int) sorted[i];
+            }
+            return result;
+        }
+
+    }
+
+}
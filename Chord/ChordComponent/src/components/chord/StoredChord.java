@@ -0,0 +1,233 @@
+package components.chord;
+
+import components.map.Map;
+import components.map.Map2;
+
+/**
+ * {@code Chord} that is a view of one slot of a {@code ChordStore}. Every
+ * method reads or writes the store's mapped columns directly, so a single view
+ * moved with {@code moveTo} can scan, filter and change a whole store without
+ * allocating. The range of the view is the range of the store, and spellings
+ * are kept only if the store is spelled.
+ *
+ * <p>
+ * Because a view cannot create slots, {@code newInstance} returns a
+ * {@code Chord2} with the same range, and {@code transferFrom} accepts any
+ * {@code Chord}.
+ * </p>
+ *
+ * @author Jake Meyer
+ *
+ */
+public final class StoredChord extends ChordSecondary {
+
+    /**
+     * The store viewed.
+     */
+    private final ChordStore store;
+
+    /**
+     * The slot viewed.
+     */
+    private int slot;
+
+    /**
+     * Constructor from a store and a slot in use.
+     *
+     * @param store
+     *            the store to view
+     * @param slot
+     *            the slot to view
+     */
+    StoredChord(ChordStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
+    /**
+     * Moves this view to {@code slot}.
+     *
+     * @param slot
+     *            the slot to view
+     * @requires 0 <= slot < size of the store
+     */
+    public void moveTo(int slot) {
+        assert this.store.inUse(slot) : "Violation of: slot is in use";
+        this.slot = slot;
+    }
+
+    /**
+     * Reports the slot this view is on.
+     *
+     * @return the slot
+     */
+    public int slot() {
+        return this.slot;
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final Chord newInstance() {
+        return new Chord2(this.min(), this.max());
+    }
+
+    @Override
+    public final void clear() {
+        this.store.setMasks(this.slot, 0L, 0L, 0L, 0L);
+    }
+
+    @Override
+    public final void transferFrom(Chord source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+
+        this.store.setMasks(this.slot, source.pitchMask(0),
+                source.pitchMask(1), source.spellingMask(0),
+                source.spellingMask(1));
+        source.clear();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String note) {
+        int pitch = PitchTable.pitch(note);
+        this.addPitch(pitch);
+        if (PitchTable.isAlternate(note)) {
+            int column = ChordStore.ALT_LOW + pitch / Long.SIZE;
+            this.store.setWord(column, this.slot,
+                    this.store.word(column, this.slot) | (1L << pitch));
+        }
+    }
+
+    @Override
+    public final String remove(String note) {
+        this.removePitch(PitchTable.pitch(note));
+        return note;
+    }
+
+    @Override
+    public final boolean contains(String note) {
+        return this.containsPitch(PitchTable.pitch(note));
+    }
+
+    @Override
+    public final void addPitch(int pitch) {
+        assert this.store.minPitch() <= pitch && pitch <= this.store
+                .maxPitch() : "Violation of: pitch is in range";
+        assert !this.containsPitch(
+                pitch) : "Violation of: pitch is not already in this";
+        int column = ChordStore.LOW + pitch / Long.SIZE;
+        this.store.setWord(column, this.slot,
+                this.store.word(column, this.slot) | (1L << pitch));
+    }
+
+    @Override
+    public final void removePitch(int pitch) {
+        assert this.containsPitch(pitch) : "Violation of: pitch is in this";
+        long keep = ~(1L << pitch);
+        int column = ChordStore.LOW + pitch / Long.SIZE;
+        int altColumn = ChordStore.ALT_LOW + pitch / Long.SIZE;
+        this.store.setWord(column, this.slot,
+                this.store.word(column, this.slot) & keep);
+        this.store.setWord(altColumn, this.slot,
+                this.store.word(altColumn, this.slot) & keep);
+    }
+
+    @Override
+    public final boolean containsPitch(int pitch) {
+        long word = this.store.word(ChordStore.LOW + pitch / Long.SIZE,
+                this.slot);
+        return (word & (1L << pitch)) != 0;
+    }
+
+    @Override
+    public final long pitchMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.store.word(ChordStore.LOW + word, this.slot);
+    }
+
+    @Override
+    public final String[] noteList() {
+        return PitchTable.noteList(this.store.minPitch(),
+                this.store.maxPitch());
+    }
+
+    @Override
+    public final Map<String, Integer> noteListString() {
+        return PitchTable.noteListString(this.store.minPitch(),
+                this.store.maxPitch());
+    }
+
+    @Override
+    public final Map<Integer, String> noteListInt() {
+        return PitchTable.noteListInt(this.store.minPitch(),
+                this.store.maxPitch());
+    }
+
+    @Override
+    public final Map<Integer, String> currentNotes() {
+        Map<Integer, String> result = new Map2<Integer, String>();
+        for (int w = 0; w < PitchMasks.WORDS; w++) {
+            long remaining = this.pitchMask(w);
+            long alternates = this.spellingMask(w);
+            while (remaining != 0) {
+                int b = Long.numberOfTrailingZeros(remaining);
+                int p = w * Long.SIZE + b;
+                result.add(p, PitchTable.name(p, (alternates >>> b & 1) != 0));
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final String max() {
+        return PitchTable.name(this.store.maxPitch());
+    }
+
+    @Override
+    public final String min() {
+        return PitchTable.name(this.store.minPitch());
+    }
+
+    @Override
+    public final int size() {
+        return Long.bitCount(this.pitchMask(0))
+                + Long.bitCount(this.pitchMask(1));
+    }
+
+    /*
+     * Secondary methods overridden for efficiency ----------------------------
+     */
+
+    @Override
+    public final long spellingMask(int word) {
+        assert 0 <= word
+                && word < PitchMasks.WORDS : "Violation of: 0 <= word <= 1";
+        return this.store.word(ChordStore.ALT_LOW + word, this.slot);
+    }
+
+    @Override
+    public final void transpose(int semitones) {
+        long low = this.pitchMask(0);
+        long high = this.pitchMask(1);
+        assert this.inRangeAfter(low, high,
+                semitones) : "Violation of: transposed notes are within range";
+        this.store.setMasks(this.slot,
+                PitchMasks.shiftLow(low, high, semitones),
+                PitchMasks.shiftHigh(low, high, semitones), 0L, 0L);
+    }
+
+    @Override
+    final void load(long low, long high, long altLow, long altHigh) {
+        this.store.setMasks(this.slot, low, high, altLow, altHigh);
+    }
+
+}
@@ -0,0 +1,430 @@
+package components.chord;
+
+import java.util.Arrays;
+
+/**
+ * Voice-leading distances between chords: the least total number of
+ * half-steps the voices must move to get from one chord to the next.
+ *
+ * <p>
+ * With notes sorted low to high, every note of the first chord is paired with
+ * one or more notes of the second and every note of the second with one or
+ * more of the first, without voices crossing; a note may split into several
+ * or several may merge into one, so chords of different sizes are handled.
+ * The distance is the smallest possible sum of {@code |from - to|} over the
+ * pairs, found by dynamic programming in time proportional to the product of
+ * the chord sizes.
+ * </p>
+ *
+ * <p>
+ * Results of {@code distance} are kept in a fixed-size, direct-mapped cache
+ * keyed by the two pitch masks, so repeated pairs cost one table probe. An
+ * instance keeps scratch space and its cache between calls and is meant for
+ * one thread at a time.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class VoiceLeading {
+
+    /**
+     * Number of entries in the cache by default.
+     */
+    private static final int DEFAULT_CACHE_SIZE = 1 << 12;
+
+    /**
+     * Words in a cache key: the two pitch-mask words of each chord.
+     */
+    private static final int KEY_WORDS = 2 * PitchMasks.WORDS;
+
+    /**
+     * Marks an empty cache entry.
+     */
+    private static final int EMPTY_ENTRY = -1;
+
+    /**
+     * Largest number of notes in a chord.
+     */
+    private static final int MAX_NOTES = PitchTable.MAX_PITCH + 1;
+
+    /**
+     * Cache keys, {@code KEY_WORDS} per entry.
+     */
+    private final long[] cacheKeys;
+
+    /**
+     * Cached distances, or {@code EMPTY_ENTRY}.
+     */
+    private final int[] cacheValues;
+
+    /**
+     * Pitches of the first chord, low to high.
+     */
+    private final int[] from = new int[MAX_NOTES];
+
+    /**
+     * Pitches of the second chord, low to high.
+     */
+    private final int[] to = new int[MAX_NOTES];
+
+    /**
+     * Previous row of the dynamic program.
+     */
+    private final int[] previousRow = new int[MAX_NOTES];
+
+    /**
+     * Current row of the dynamic program.
+     */
+    private final int[] currentRow = new int[MAX_NOTES];
+
+    /**
+     * Full table of the dynamic program, made when {@code assign} is first
+     * called.
+     */
+    private int[] table;
+
+    /**
+     * No-argument constructor; the cache has 4096 entries.
+     */
+    public VoiceLeading() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor with a cache of {@code cacheSize} entries.
+     *
+     * @param cacheSize
+     *            number of cache entries
+     * @requires cacheSize is a power of 2
+     */
+    public VoiceLeading(int cacheSize) {
+        assert cacheSize > 0 && Integer.bitCount(
+                cacheSize) == 1 : "Violation of: cacheSize is a power of 2";
+        this.cacheKeys = new long[cacheSize * KEY_WORDS];
+        this.cacheValues = new int[cacheSize];
+        Arrays.fill(this.cacheValues, EMPTY_ENTRY);
+    }
+
+    /*
+     * Helper methods ---------------------------------------------------------
+     */
+
+    /**
+     * Writes the pitches in {@code low}/{@code high}, low to high, into
+     * {@code pitches}.
+     *
+     * @param low
+     *            pitches 0 through 63
+     * @param high
+     *            pitches 64 through 127
+     * @param pitches
+     *            array to fill
+     * @return the number of pitches written
+     */
+    private static int unpack(long low, long high, int[] pitches) {
+        int n = 0;
+        long remaining = low;
+        while (remaining != 0) {
+            pitches[n] = Long.numberOfTrailingZeros(remaining);
+            n++;
+            remaining &= remaining - 1;
+        }
+        remaining = high;
+        while (remaining != 0) {
+            pitches[n] = Long.SIZE + Long.numberOfTrailingZeros(remaining);
+            n++;
+            remaining &= remaining - 1;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the distance between the first {@code m} entries of
+     * {@code from} and the first {@code n} entries of {@code to}, keeping only
+     * two rows of the dynamic program.
+     *
+     * @param m
+     *            number of pitches in {@code from}
+     * @param n
+     *            number of pitches in {@code to}
+     * @return the distance
+     */
+    private int solve(int m, int n) {
+        int[] prev = this.previousRow;
+        int[] cur = this.currentRow;
+        int a = this.from[0];
+        prev[0] = Math.abs(a - this.to[0]);
+        for (int j = 1; j < n; j++) {
+            prev[j] = prev[j - 1] + Math.abs(a - this.to[j]);
+        }
+        for (int i = 1; i < m; i++) {
+            a = this.from[i];
+            cur[0] = prev[0] + Math.abs(a - this.to[0]);
+            for (int j = 1; j < n; j++) {
+                int best = Math.min(prev[j - 1], Math.min(prev[j], cur[j - 1]));
+                cur[j] = best + Math.abs(a - this.to[j]);
+            }
+            int[] swap = prev;
+            prev = cur;
+            cur = swap;
+        }
+        return prev[n - 1];
+    }
+
+    /**
+     * Returns the cache entry for the pair of pitch masks.
+     *
+     * @param fromLow
+     *            pitches 0 through 63 of the first chord
+     * @param fromHigh
+     *            pitches 64 through 127 of the first chord
+     * @param toLow
+     *            pitches 0 through 63 of the second chord
+     * @param toHigh
+     *            pitches 64 through 127 of the second chord
+     * @return the index of the entry
+     */
+    private int slot(long fromLow, long fromHigh, long toLow, long toHigh) {
+        final long mix = 0x9E3779B97F4A7C15L;
+        long h = fromLow * mix;
+        h = (h ^ fromHigh) * mix;
+        h = (h ^ toLow) * mix;
+        h = (h ^ toHigh) * mix;
+        return (int) (h >>> (Long.SIZE - Integer.SIZE))
+                & (this.cacheValues.length - 1);
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns the voice-leading distance between two chords given as pitch
+     * masks.
+     *
+     * @param fromLow
+     *            pitches 0 through 63 of the first chord
+     * @param fromHigh
+     *            pitches 64 through 127 of the first chord
+     * @param toLow
+     *            pitches 0 through 63 of the second chord
+     * @param toHigh
+     *            pitches 64 through 127 of the second chord
+     * @return the least total movement in half-steps
+     * @requires neither chord is empty
+     */
+    public int distance(long fromLow, long fromHigh, long toLow, long toHigh) {
+        assert (fromLow | fromHigh) != 0 : "Violation of: from is not empty";
+        assert (toLow | toHigh) != 0 : "Violation of: to is not empty";
+        int slot = this.slot(fromLow, fromHigh, toLow, toHigh);
+        int k = slot * KEY_WORDS;
+        int result = this.cacheValues[slot];
+        if (result == EMPTY_ENTRY || this.cacheKeys[k] != fromLow
+                || this.cacheKeys[k + 1] != fromHigh
+                || this.cacheKeys[k + 2] != toLow
+                || this.cacheKeys[k + 3] != toHigh) {
+            int m = unpack(fromLow, fromHigh, this.from);
+            int n = unpack(toLow, toHigh, this.to);
+            result = this.solve(m, n);
+            this.cacheKeys[k] = fromLow;
+            this.cacheKeys[k + 1] = fromHigh;
+            this.cacheKeys[k + 2] = toLow;
+            this.cacheKeys[k + 3] = toHigh;
+            this.cacheValues[slot] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the voice-leading distance from {@code from} to {@code to}.
+     *
+     * @param from
+     *            the first chord
+     * @param to
+     *            the second chord
+     * @return the least total movement in half-steps
+     * @requires |from| > 0 and |to| > 0
+     */
+    public int distance(Chord from, Chord to) {
+        assert from != null : "Violation of: from is not null";
+        assert to != null : "Violation of: to is not null";
+        return this.distance(from.pitchMask(0), from.pitchMask(1),
+                to.pitchMask(0), to.pitchMask(1));
+    }
+
+    /**
+     * Finds the voice leading from {@code from} to {@code to} with the least
+     * total movement. Voice {@code v} moves from pitch {@code fromPitches[v]}
+     * to pitch {@code toPitches[v]}, with voices ordered low to high.
+     *
+     * @param from
+     *            the first chord
+     * @param to
+     *            the second chord
+     * @param fromPitches
+     *            receives the starting pitch of each voice
+     * @param toPitches
+     *            receives the ending pitch of each voice
+     * @return the number of voices
+     * @requires |from| > 0 and |to| > 0 and fromPitches and toPitches each
+     *           have room for |from| + |to| - 1 entries
+     * @ensures the total of |toPitches[v] - fromPitches[v]| over the voices
+     *          is distance(from, to)
+     */
+    public int assign(Chord from, Chord to, int[] fromPitches,
+            int[] toPitches) {
+        assert from != null : "Violation of: from is not null";
+        assert to != null : "Violation of: to is not null";
+        assert from.size() > 0 : "Violation of: |from| > 0";
+        assert to.size() > 0 : "Violation of: |to| > 0";
+        int m = unpack(from.pitchMask(0), from.pitchMask(1), this.from);
+        int n = unpack(to.pitchMask(0), to.pitchMask(1), this.to);
+        boolean roomy = fromPitches.length >= m + n - 1
+                && toPitches.length >= m + n - 1;
+        assert roomy : "Violation of: pitch arrays are large enough";
+        if (this.table == null) {
+            this.table = new int[MAX_NOTES * MAX_NOTES];
+        }
+        int[] t = this.table;
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                int step = Math.abs(this.from[i] - this.to[j]);
+                int best;
+                if (i == 0 && j == 0) {
+                    best = 0;
+                } else if (i == 0) {
+                    best = t[j - 1];
+                } else if (j == 0) {
+                    best = t[(i - 1) * n];
+                } else {
+                    best = Math.min(t[(i - 1) * n + j - 1],
+                            Math.min(t[(i - 1) * n + j], t[i * n + j - 1]));
+                }
+                t[i * n + j] = best + step;
+            }
+        }
+
+        /*
+         * Walk back from the last pair, then reverse so voices run low to
+         * high.
+         */
+        int voices = 0;
+        int i = m - 1;
+        int j = n - 1;
+        while (i >= 0 && j >= 0) {
+            fromPitches[voices] = this.from[i];
+            toPitches[voices] = this.to[j];
+            voices++;
+            int rest = t[i * n + j] - Math.abs(this.from[i] - this.to[j]);
+            if (i > 0 && j > 0 && t[(i - 1) * n + j - 1] == rest) {
+                i--;
+                j--;
+            } else if (i > 0 && t[(i - 1) * n + j] == rest) {
+                i--;
+            } else {
+                j--;
+            }
+        }
+        for (int lo = 0, hi = voices - 1; lo < hi; lo++, hi--) {
+            int f = fromPitches[lo];
+            fromPitches[lo] = fromPitches[hi];
+            fromPitches[hi] = f;
+            int g = toPitches[lo];
+            toPitches[lo] = toPitches[hi];
+            toPitches[hi] = g;
+        }
+        return voices;
+    }
+
+    /**
+     * Returns the voice-leading distance from {@code source} to every chord
+     * of {@code candidates}. The pitches of {@code source} are unpacked once
+     * and the cache is bypassed, so each candidate costs one dynamic program
+     * and no allocation.
+     *
+     * @param source
+     *            the chord to move from
+     * @param candidates
+     *            the chords to move to
+     * @return array whose entry {@code i} is the distance to candidate
+     *         {@code i}, or {@code Integer.MAX_VALUE} if that candidate is
+     *         empty
+     * @requires |source| > 0
+     */
+    public int[] distances(Chord source, ChordBatch candidates) {
+        assert source != null : "Violation of: source is not null";
+        assert candidates != null : "Violation of: candidates is not null";
+        assert source.size() > 0 : "Violation of: |source| > 0";
+        int m = unpack(source.pitchMask(0), source.pitchMask(1), this.from);
+        int[] result = new int[candidates.size()];
+        for (int c = 0; c < result.length; c++) {
+            if (candidates.isEmpty(c)) {
+                result[c] = Integer.MAX_VALUE;
+            } else {
+                int n = unpack(candidates.pitchMask(c, 0),
+                        candidates.pitchMask(c, 1), this.to);
+                result[c] = this.solve(m, n);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positions of {@code candidates}, smoothest voice leading
+     * from {@code source} first; ties keep candidate order.
+     *
+     * @param source
+     *            the chord to move from
+     * @param candidates
+     *            the chords to move to
+     * @return the candidate positions, by increasing distance
+     * @requires |source| > 0
+     */
+    public int[] rank(Chord source, ChordBatch candidates) {
+        int[] d = this.distances(source, candidates);
+        long[] keyed = new long[d.length];
+        for (int c = 0; c < d.length; c++) {
+            keyed[c] = ((long) d[c] << Integer.SIZE) | c;
+        }
+        Arrays.sort(keyed);
+        int[] result = new int[d.length];
+        for (int c = 0; c < d.length; c++) {
+            result[c] = (int) keyed[c];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position of the candidate with the smoothest voice leading
+     * from {@code source}, the first such if several tie.
+     *
+     * @param source
+     *            the chord to move from
+     * @param candidates
+     *            the chords to move to
+     * @return the position of the best candidate, or -1 if every candidate is
+     *         empty
+     * @requires |source| > 0
+     */
+    public int best(Chord source, ChordBatch candidates) {
+        assert source != null : "Violation of: source is not null";
+        assert candidates != null : "Violation of: candidates is not null";
+        assert source.size() > 0 : "Violation of: |source| > 0";
+        int m = unpack(source.pitchMask(0), source.pitchMask(1), this.from);
+        int result = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int c = 0; c < candidates.size(); c++) {
+            if (!candidates.isEmpty(c)) {
+                int n = unpack(candidates.pitchMask(c, 0),
+                        candidates.pitchMask(c, 1), this.to);
+                int d = this.solve(m, n);
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    result = c;
+                }
+            }
+        }
+        return result;
+    }
+
+}
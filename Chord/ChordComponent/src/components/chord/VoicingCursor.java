@@ -0,0 +1,265 @@
+package components.chord;
+
+/**
+ * Walks every voicing allowed by a {@code VoicingGenerator}, one at a time,
+ * as pitch masks. Notes are chosen low to high by depth-first search, and a
+ * branch is abandoned as soon as it cannot be completed: not enough voices
+ * left to supply the missing pitch classes, not enough room below the span
+ * limit, a pitch class used too often, or a close interval in the bass. The
+ * bass notes tried are limited to {@code bassFrom..bassTo}, which lets a
+ * search be split on its bass note.
+ *
+ * @author Jake Meyer
+ */
+final class VoicingCursor {
+
+    /**
+     * Number of pitch classes.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * The constraints.
+     */
+    private final VoicingGenerator spec;
+
+    /**
+     * Pitch of each placed voice, low to high.
+     */
+    private final int[] pitch;
+
+    /**
+     * Number of voices placed on each pitch class.
+     */
+    private final int[] copies = new int[NOTES_IN_OCTAVE];
+
+    /**
+     * Number of required pitch classes with no voice yet.
+     */
+    private int missing;
+
+    /**
+     * Index of the voice being chosen.
+     */
+    private int depth;
+
+    /**
+     * Whether {@code advance} has been called.
+     */
+    private boolean started;
+
+    /**
+     * Lowest bass pitch to try.
+     */
+    private int bassFrom;
+
+    /**
+     * Highest bass pitch to try.
+     */
+    private int bassTo;
+
+    /**
+     * Pitches 0 through 63 of the current voicing.
+     */
+    private long low;
+
+    /**
+     * Pitches 64 through 127 of the current voicing.
+     */
+    private long high;
+
+    /**
+     * Constructor for a search over bass pitches {@code bassFrom} through
+     * {@code bassTo}.
+     *
+     * @param spec
+     *            the constraints
+     * @param bassFrom
+     *            lowest bass pitch to try
+     * @param bassTo
+     *            highest bass pitch to try
+     */
+    VoicingCursor(VoicingGenerator spec, int bassFrom, int bassTo) {
+        this.spec = spec;
+        this.pitch = new int[spec.voiceCount()];
+        this.missing = Integer.bitCount(spec.pitchClasses());
+        this.bassFrom = bassFrom;
+        this.bassTo = bassTo;
+        this.started = false;
+    }
+
+    /**
+     * Adds a voice on {@code p}.
+     *
+     * @param p
+     *            the pitch
+     */
+    private void place(int p) {
+        int pc = p % NOTES_IN_OCTAVE;
+        if (this.copies[pc] == 0) {
+            this.missing--;
+        }
+        this.copies[pc]++;
+        if (p < Long.SIZE) {
+            this.low |= 1L << p;
+        } else {
+            this.high |= 1L << p;
+        }
+    }
+
+    /**
+     * Removes the voice on {@code p}.
+     *
+     * @param p
+     *            the pitch
+     */
+    private void unplace(int p) {
+        int pc = p % NOTES_IN_OCTAVE;
+        this.copies[pc]--;
+        if (this.copies[pc] == 0) {
+            this.missing++;
+        }
+        if (p < Long.SIZE) {
+            this.low &= ~(1L << p);
+        } else {
+            this.high &= ~(1L << p);
+        }
+    }
+
+    /**
+     * Returns the lowest pitch of at least {@code from} that voice
+     * {@code d} can take and still lead to a complete voicing, or -1.
+     *
+     * @param d
+     *            index of the voice
+     * @param from
+     *            lowest pitch to consider
+     * @return the pitch, or -1 if there is none
+     */
+    private int candidate(int d, int from) {
+        VoicingGenerator s = this.spec;
+        int remaining = s.voiceCount() - d - 1;
+        int limit;
+        int top;
+        if (d == 0) {
+            limit = this.bassTo;
+            top = s.maxPitch();
+        } else {
+            limit = Math.min(s.maxPitch(), this.pitch[0] + s.maxSpan());
+            top = limit;
+        }
+        int result = -1;
+        for (int q = from; q <= limit && result < 0; q++) {
+            /*
+             * The voices still to come need distinct pitches above q, within
+             * the span of the bass.
+             */
+            int room = top;
+            if (d == 0) {
+                room = Math.min(top, q + s.maxSpan());
+            }
+            if (q + remaining > room) {
+                break;
+            }
+            int pc = q % NOTES_IN_OCTAVE;
+            boolean ok = (s.pitchClasses() >>> pc & 1) != 0
+                    && this.copies[pc] < s.allowedCopies(pc);
+            if (ok && d == 0 && s.bassClass() >= 0) {
+                ok = pc == s.bassClass();
+            }
+            if (ok && d > 0) {
+                int below = this.pitch[d - 1];
+                ok = below >= s.lowRegisterTop()
+                        || q - below >= s.lowInterval();
+            }
+            if (ok) {
+                int missingAfter = this.missing;
+                if (this.copies[pc] == 0) {
+                    missingAfter--;
+                }
+                ok = missingAfter <= remaining;
+            }
+            if (ok) {
+                result = q;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves to the next voicing.
+     *
+     * @return true if there is one, false if the search is finished
+     */
+    boolean advance() {
+        final int last = this.spec.voiceCount() - 1;
+        int from = 0;
+        if (!this.started) {
+            this.started = true;
+            this.depth = 0;
+            from = this.bassFrom;
+        } else if (this.depth >= 0) {
+            this.depth = last;
+            this.unplace(this.pitch[last]);
+            from = this.pitch[last] + 1;
+        }
+        boolean found = false;
+        while (!found && this.depth >= 0) {
+            int q = this.candidate(this.depth, from);
+            if (q < 0) {
+                this.depth--;
+                if (this.depth >= 0) {
+                    this.unplace(this.pitch[this.depth]);
+                    from = this.pitch[this.depth] + 1;
+                }
+            } else {
+                this.pitch[this.depth] = q;
+                this.place(q);
+                if (this.depth == last) {
+                    found = true;
+                } else {
+                    this.depth++;
+                    from = q + 1;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns pitches 0 through 63 of the current voicing.
+     *
+     * @return the low word
+     */
+    long low() {
+        return this.low;
+    }
+
+    /**
+     * Returns pitches 64 through 127 of the current voicing.
+     *
+     * @return the high word
+     */
+    long high() {
+        return this.high;
+    }
+
+    /**
+     * Gives the lower half of the bass pitches to a new cursor, keeping the
+     * upper half, so the new cursor's voicings all come before this one's.
+     * Only a cursor that has not started can be split.
+     *
+     * @return a cursor over the split-off bass pitches, or {@code null} if
+     *         this has started or has too few bass pitches to split
+     */
+    VoicingCursor split() {
+        VoicingCursor result = null;
+        if (!this.started && this.bassTo - this.bassFrom >= 1) {
+            int mid = (this.bassFrom + this.bassTo) >>> 1;
+            result = new VoicingCursor(this.spec, this.bassFrom, mid);
+            this.bassFrom = mid + 1;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,423 @@
+package components.chord;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the voicings of a set of pitch classes within the range of a
+ * template chord: every chord with a given number of voices whose notes are
+ * all in the pitch classes and together use each of them.
+ *
+ * <p>
+ * Voicings are built directly as pitch sets, low to high, and the search
+ * drops a partial voicing as soon as a constraint rules out every completion
+ * (see {@code VoicingCursor}), so the space is never materialized. They can be
+ * counted without allocating, walked lazily with {@code iterator}, or
+ * streamed; the stream splits on the bass note, so a parallel stream spreads
+ * the search over the fork/join pool. Each chord produced is a new instance
+ * from the template's {@code newInstance}.
+ * </p>
+ *
+ * <p>
+ * The constraints are set with the chainable methods below and must not be
+ * changed while a voicing search is running.
+ * </p>
+ *
+ * @author Jake Meyer
+ */
+public final class VoicingGenerator {
+
+    /**
+     * Number of pitch classes.
+     */
+    private static final int NOTES_IN_OCTAVE = 12;
+
+    /**
+     * Chord whose range and implementation the voicings use.
+     */
+    private final Chord template;
+
+    /**
+     * Pitch classes every voicing uses, and only these.
+     */
+    private final int pitchClasses;
+
+    /**
+     * Lowest pitch allowed.
+     */
+    private final int minPitch;
+
+    /**
+     * Highest pitch allowed.
+     */
+    private final int maxPitch;
+
+    /**
+     * Number of voices.
+     */
+    private int voices;
+
+    /**
+     * Largest distance from bass to top voice.
+     */
+    private int maxSpan;
+
+    /**
+     * Pitch below which neighbouring voices must be {@code lowInterval}
+     * apart.
+     */
+    private int lowRegisterTop;
+
+    /**
+     * Smallest interval allowed above a voice below {@code lowRegisterTop}.
+     */
+    private int lowInterval;
+
+    /**
+     * Most voices on any one pitch class.
+     */
+    private int maxCopies;
+
+    /**
+     * Pitch classes that may not be doubled.
+     */
+    private int noDoubling;
+
+    /**
+     * Pitch class of the bass, or -1 for any.
+     */
+    private int bassClass;
+
+    /**
+     * Constructor for voicings of {@code pitchClasses} within the range of
+     * {@code template}. By default a voicing has one voice per pitch class,
+     * any span, no low-interval limit, any bass and up to two voices on a
+     * pitch class.
+     *
+     * @param template
+     *            chord giving the range and implementation
+     * @param pitchClasses
+     *            pitch-class set to voice, as in {@code PitchClassSet}
+     * @requires pitchClasses is a non-empty pitch-class set
+     */
+    public VoicingGenerator(Chord template, int pitchClasses) {
+        assert template != null : "Violation of: template is not null";
+        assert pitchClasses != 0 && (pitchClasses
+                & ~PitchClassSet.ALL) == 0 : "Violation of: pitchClasses is a non-empty pitch-class set";
+        this.template = template;
+        this.pitchClasses = pitchClasses;
+        this.minPitch = PitchTable.pitch(template.min());
+        this.maxPitch = PitchTable.pitch(template.max());
+        this.voices = Integer.bitCount(pitchClasses);
+        this.maxSpan = PitchTable.MAX_PITCH;
+        this.lowRegisterTop = 0;
+        this.lowInterval = 0;
+        this.maxCopies = 2;
+        this.noDoubling = 0;
+        this.bassClass = -1;
+    }
+
+    /*
+     * Constraints ------------------------------------------------------------
+     */
+
+    /**
+     * Sets the number of voices.
+     *
+     * @param n
+     *            the number of voices
+     * @return this
+     * @requires n >= |pitch classes|
+     */
+    public VoicingGenerator voices(int n) {
+        assert n >= Integer.bitCount(
+                this.pitchClasses) : "Violation of: n >= |pitch classes|";
+        this.voices = n;
+        return this;
+    }
+
+    /**
+     * Limits the distance from the bass to the top voice.
+     *
+     * @param semitones
+     *            the largest span in half-steps
+     * @return this
+     * @requires semitones >= 0
+     */
+    public VoicingGenerator maxSpan(int semitones) {
+        assert semitones >= 0 : "Violation of: semitones >= 0";
+        this.maxSpan = semitones;
+        return this;
+    }
+
+    /**
+     * Requires voices below {@code below} to be at least {@code semitones}
+     * from the voice above them, so the bass is not muddied by close
+     * intervals.
+     *
+     * @param below
+     *            the top of the low register (exclusive)
+     * @param semitones
+     *            the smallest interval allowed there
+     * @return this
+     * @requires {@code below} is a note name
+     */
+    public VoicingGenerator lowIntervalLimit(String below, int semitones) {
+        this.lowRegisterTop = PitchTable.pitch(below);
+        this.lowInterval = semitones;
+        return this;
+    }
+
+    /**
+     * Limits how many voices may share a pitch class.
+     *
+     * @param n
+     *            the most voices on one pitch class
+     * @return this
+     * @requires n >= 1
+     */
+    public VoicingGenerator maxCopies(int n) {
+        assert n >= 1 : "Violation of: n >= 1";
+        this.maxCopies = n;
+        return this;
+    }
+
+    /**
+     * Forbids doubling the pitch classes in {@code classes}, such as the
+     * leading tone.
+     *
+     * @param classes
+     *            pitch-class set of classes to keep to one voice
+     * @return this
+     */
+    public VoicingGenerator noDoubling(int classes) {
+        this.noDoubling = classes & PitchClassSet.ALL;
+        return this;
+    }
+
+    /**
+     * Requires the bass to be on pitch class {@code pc}, choosing the
+     * inversion.
+     *
+     * @param pc
+     *            the pitch class of the bass, or -1 for any
+     * @return this
+     * @requires -1 <= pc < 12
+     */
+    public VoicingGenerator bass(int pc) {
+        assert -1 <= pc && pc < NOTES_IN_OCTAVE : "Violation of: -1 <= pc < 12";
+        this.bassClass = pc;
+        return this;
+    }
+
+    /*
+     * Enumeration ------------------------------------------------------------
+     */
+
+    /**
+     * Counts the voicings without creating any chords.
+     *
+     * @return the number of voicings
+     */
+    public long count() {
+        VoicingCursor cursor = new VoicingCursor(this, this.minPitch,
+                this.maxPitch);
+        long result = 0;
+        while (cursor.advance()) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the voicings, lowest bass first, each as a new
+     * chord.
+     *
+     * @return the iterator
+     */
+    public Iterator<Chord> iterator() {
+        final VoicingCursor cursor = new VoicingCursor(this, this.minPitch,
+                this.maxPitch);
+        return new Iterator<Chord>() {
+            private boolean ready = cursor.advance();
+
+            @Override
+            public boolean hasNext() {
+                return this.ready;
+            }
+
+            @Override
+            public Chord next() {
+                if (!this.ready) {
+                    throw new NoSuchElementException();
+                }
+                Chord result = VoicingGenerator.this.chord(cursor);
+                this.ready = cursor.advance();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns a lazy stream of the voicings, each as a new chord. The stream
+     * may be made parallel.
+     *
+     * @return the stream
+     */
+    public Stream<Chord> stream() {
+        return StreamSupport.stream(new Voicings(
+                new VoicingCursor(this, this.minPitch, this.maxPitch)), false);
+    }
+
+    /**
+     * Returns a new chord holding the current voicing of {@code cursor}.
+     *
+     * @param cursor
+     *            the cursor
+     * @return the chord
+     */
+    private Chord chord(VoicingCursor cursor) {
+        Chord result = this.template.newInstance();
+        ChordCodec.replace(result, cursor.low(), cursor.high(), 0L, 0L);
+        return result;
+    }
+
+    /**
+     * Splits the voicings on bass pitch for {@code stream}.
+     */
+    private final class Voicings implements Spliterator<Chord> {
+
+        /**
+         * The cursor over this part of the search.
+         */
+        private final VoicingCursor cursor;
+
+        /**
+         * Constructor from a cursor.
+         *
+         * @param cursor
+         *            the cursor over this part of the search
+         */
+        Voicings(VoicingCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Chord> action) {
+            boolean result = this.cursor.advance();
+            if (result) {
+                action.accept(VoicingGenerator.this.chord(this.cursor));
+            }
+            return result;
+        }
+
+        @Override
+        public Spliterator<Chord> trySplit() {
+            VoicingCursor rest = this.cursor.split();
+            Spliterator<Chord> result = null;
+            if (rest != null) {
+                result = new Voicings(rest);
+            }
+            return result;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.DISTINCT
+                    | Spliterator.NONNULL;
+        }
+
+    }
+
+    /*
+     * Access for VoicingCursor -----------------------------------------------
+     */
+
+    /**
+     * Reports the pitch classes to voice.
+     *
+     * @return the pitch-class set
+     */
+    int pitchClasses() {
+        return this.pitchClasses;
+    }
+
+    /**
+     * Reports the highest pitch allowed.
+     *
+     * @return the highest pitch
+     */
+    int maxPitch() {
+        return this.maxPitch;
+    }
+
+    /**
+     * Reports the number of voices.
+     *
+     * @return the number of voices
+     */
+    int voiceCount() {
+        return this.voices;
+    }
+
+    /**
+     * Reports the largest span.
+     *
+     * @return the span in half-steps
+     */
+    int maxSpan() {
+        return this.maxSpan;
+    }
+
+    /**
+     * Reports the top of the low register.
+     *
+     * @return the pitch
+     */
+    int lowRegisterTop() {
+        return this.lowRegisterTop;
+    }
+
+    /**
+     * Reports the smallest interval allowed in the low register.
+     *
+     * @return the interval in half-steps
+     */
+    int lowInterval() {
+        return this.lowInterval;
+    }
+
+    /**
+     * Reports how many voices pitch class {@code pc} may have.
+     *
+     * @param pc
+     *            the pitch class
+     * @return the most voices allowed on {@code pc}
+     */
+    int allowedCopies(int pc) {
+        int result = this.maxCopies;
+        if ((this.noDoubling >>> pc & 1) != 0) {
+            result = 1;
+        }
+        return result;
+    }
+
+    /**
+     * Reports the pitch class of the bass.
+     *
+     * @return the pitch class, or -1 for any
+     */
+    int bassClass() {
+        return this.bassClass;
+    }
+
+}
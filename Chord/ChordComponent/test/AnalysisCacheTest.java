@@ -0,0 +1,153 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import components.chord.AnalysisCache;
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.ChordTypes;
+import components.chord.ChordValue;
+import components.chord.PitchClassSet;
+
+/**
+ * Test suite for AnalysisCache.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class AnalysisCacheTest {
+
+    /**
+     * Returns a cache of the root pitch class that counts how often the
+     * analysis runs.
+     *
+     * @param capacity
+     *            the capacity
+     * @param runs
+     *            incremented each time the analysis runs
+     * @return the cache
+     */
+    private static AnalysisCache<Integer> rootCache(int capacity,
+            AtomicInteger runs) {
+        return new AnalysisCache<>(capacity, v -> {
+            runs.incrementAndGet();
+            return ChordTypes.root(v.pitchClassSet());
+        });
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        AtomicInteger runs = new AtomicInteger();
+        AnalysisCache<Integer> cache = rootCache(100, runs);
+        ChordValue e = ChordValue.of("E1", "G1", "C2");
+        assertEquals(Integer.valueOf(0), cache.get(e));
+        assertEquals(Integer.valueOf(0), cache.get(e));
+        assertEquals(Integer.valueOf(0), cache.get(e));
+        assertEquals(1, runs.get());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(2.0 / 3, cache.hitRate(), 1e-9);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testKeyIsPitchSet() {
+        AtomicInteger runs = new AtomicInteger();
+        AnalysisCache<Integer> cache = rootCache(100, runs);
+        Chord sharp = new Chord1();
+        sharp.add("C#1");
+        sharp.add("F1");
+        sharp.add("G#1");
+        Chord flat = new Chord2();
+        flat.add("Db1");
+        flat.add("F1");
+        flat.add("Ab1");
+        assertEquals(cache.get(sharp), cache.get(flat));
+        assertEquals(cache.get(sharp),
+                cache.get(flat.pitchMask(0), flat.pitchMask(1)));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        AtomicInteger runs = new AtomicInteger();
+        AnalysisCache<Integer> cache = rootCache(2, runs);
+        ChordValue a = ChordValue.of("C1", "E1", "G1");
+        ChordValue b = ChordValue.of("D1", "F1", "A1");
+        ChordValue c = ChordValue.of("E1", "G1", "B1");
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        cache.get(a);
+        assertEquals(3, runs.get());
+        cache.get(b);
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    public void testBounded() {
+        AtomicInteger runs = new AtomicInteger();
+        final int capacity = 1000;
+        AnalysisCache<Integer> cache = rootCache(capacity, runs);
+        for (int low = 0; low < 4096; low++) {
+            cache.get((long) low << 12, 0L);
+        }
+        assertTrue(cache.size() <= 2 * capacity);
+        assertTrue(cache.size() >= capacity / 2);
+        assertEquals(4096 - cache.size(), cache.evictions());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        final AnalysisCache<Integer> cache = new AnalysisCache<>(10000, v -> {
+            runs.incrementAndGet();
+            return PitchClassSet.intervalVector(v.pitchClassSet());
+        });
+        final int threads = 8;
+        final int lookups = 20000;
+        final int distinct = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int seed = t;
+                futures.add(pool.submit(() -> {
+                    boolean ok = true;
+                    for (int i = 0; i < lookups; i++) {
+                        long low = (i * 31L + seed) % distinct + 1;
+                        int expected = PitchClassSet
+                                .intervalVector(PitchClassSet.of(low));
+                        ok &= cache.get(low, 0L) == expected;
+                    }
+                    return ok;
+                }));
+            }
+            for (Future<Boolean> f : futures) {
+                assertTrue(f.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(threads * lookups, cache.hits() + cache.misses());
+        assertEquals(distinct, cache.size());
+        assertTrue(runs.get() >= distinct);
+        assertEquals(runs.get(), cache.misses());
+    }
+
+}
@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.chord.BatchAnalyzer;
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.ChordAnalyses;
+import components.chord.ChordBatch;
+import components.chord.ChordBatchAnalysis;
+
+/**
+ * Test suite for BatchAnalyzer, ChordBatch and ChordAnalyses.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class BatchAnalyzerTest {
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to C3 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord2();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Runs {@code analysis} over {@code batch} one chord at a time.
+     *
+     * @param batch
+     *            the chords to analyze
+     * @param analysis
+     *            the analysis to run
+     * @return the results
+     */
+    private static int[] sequential(ChordBatch batch,
+            ChordBatchAnalysis analysis) {
+        int[] result = new int[batch.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = analysis.analyze(batch, i);
+        }
+        return result;
+    }
+
+    @Test
+    public void testBatchSnapshot() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+        ChordBatch batch = ChordBatch.of(c, createFromArgs());
+
+        c.add("B0");
+
+        assertEquals(2, batch.size());
+        assertEquals((1L << 0) | (1L << 4) | (1L << 7), batch.pitchMask(0, 0));
+        assertEquals(true, batch.isEmpty(1));
+        assertEquals(0, batch.lowest(0));
+        assertEquals(7, batch.highest(0));
+    }
+
+    @Test
+    public void testStandardAnalyses() {
+        ChordBatch batch = ChordBatch.of(createFromArgs("C1", "E1", "G1"),
+                createFromArgs("E1", "G1", "C2"),
+                createFromArgs("G0", "C1", "E1"),
+                createFromArgs("C0", "Db0", "D0"),
+                createFromArgs("G0", "B0", "D1", "F1"));
+
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(2)) {
+            assertArrayEquals(new int[] { 0, 0, 0, -1, 7 },
+                    analyzer.analyze(batch, ChordAnalyses.ROOT));
+            assertArrayEquals(new int[] { 0, 1, 2, -1, 0 },
+                    analyzer.analyze(batch, ChordAnalyses.INVERSION));
+            assertArrayEquals(new int[] { 0, 2, 1, 0, 0 }, analyzer.analyze(
+                    batch, ChordAnalyses.COMMON_TONES_WITH_PREVIOUS));
+            assertArrayEquals(new int[] { 1, 0, 1, 1, 1 }, analyzer.analyze(
+                    batch, ChordAnalyses.inRange("C0", "B1")));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        final int count = 100000;
+        Random random = new Random(1);
+        Chord[] chords = new Chord[count];
+        for (int i = 0; i < count; i++) {
+            chords[i] = new Chord2();
+            int size = 1 + random.nextInt(5);
+            while (chords[i].size() < size) {
+                int p = random.nextInt(37);
+                if (!chords[i].containsPitch(p)) {
+                    chords[i].addPitch(p);
+                }
+            }
+        }
+        ChordBatch batch = ChordBatch.of(chords);
+        ChordBatchAnalysis[] analyses = { ChordAnalyses.PITCH_CLASS_SET,
+                ChordAnalyses.ROOT, ChordAnalyses.INVERSION,
+                ChordAnalyses.COMMON_TONES_WITH_PREVIOUS };
+
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(4)) {
+            assertEquals(4, analyzer.parallelism());
+            for (ChordBatchAnalysis analysis : analyses) {
+                assertArrayEquals(sequential(batch, analysis),
+                        analyzer.analyze(batch, analysis));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(1)) {
+            assertEquals(0, analyzer.analyze(ChordBatch.of(),
+                    ChordAnalyses.ROOT).length);
+        }
+    }
+
+}
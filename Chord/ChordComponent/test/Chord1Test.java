@@ -1,19 +1,82 @@
 import static org.junit.Assert.assertEquals;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 import components.chord.Chord;
 import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.ConcurrentChord;
+import components.chord.InstrumentedChord;
+import components.chord.PitchCursor;
 import components.map.Map;
 
 /**
- * Test suite for Chord.
+ * Test suite for Chord, run against every implementation.
  *
  * @author Jake Meyer
  *
  */
+@RunWith(Parameterized.class)
 public class Chord1Test {
 
+    /**
+     * Implementations under test.
+     *
+     * @return name and constructor of each implementation
+     */
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> implementations() {
+        Supplier<Chord> chord1 = Chord1::new;
+        BiFunction<String, String, Chord> ranged1 = Chord1::new;
+        Supplier<Chord> chord2 = Chord2::new;
+        BiFunction<String, String, Chord> ranged2 = Chord2::new;
+        Supplier<Chord> instrumented = () -> new InstrumentedChord(
+                new Chord1());
+        BiFunction<String, String, Chord> rangedInstrumented = (min,
+                max) -> new InstrumentedChord(new Chord1(min, max));
+        Supplier<Chord> concurrent = ConcurrentChord::new;
+        BiFunction<String, String, Chord> rangedConcurrent = ConcurrentChord::new;
+        return Arrays.asList(new Object[][] { { "Chord1", chord1, ranged1 },
+                { "Chord2", chord2, ranged2 },
+                { "InstrumentedChord", instrumented, rangedInstrumented },
+                { "ConcurrentChord", concurrent, rangedConcurrent } });
+    }
+
+    /**
+     * Constructor of the implementation under test.
+     */
+    private final Supplier<Chord> constructor;
+
+    /**
+     * Constructor of the implementation under test taking a range.
+     */
+    private final BiFunction<String, String, Chord> rangedConstructor;
+
+    /**
+     * Creates a test instance for one implementation.
+     *
+     * @param name
+     *            name of the implementation
+     * @param constructor
+     *            constructor of the implementation
+     * @param rangedConstructor
+     *            constructor of the implementation taking a range
+     */
+    public Chord1Test(String name, Supplier<Chord> constructor,
+            BiFunction<String, String, Chord> rangedConstructor) {
+        this.constructor = constructor;
+        this.rangedConstructor = rangedConstructor;
+    }
+
     /**
      * Used to create a chord for tests.
      *
@@ -21,8 +84,28 @@ public class Chord1Test {
      *            notes to add
      * @return chord with notes {@code args}
      */
-    private static Chord createFromArgs(String... args) {
-        Chord result = new Chord1();
+    private Chord createFromArgs(String... args) {
+        Chord result = this.constructor.get();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Used to create a chord with a given range for tests.
+     *
+     * @param min
+     *            lowest note allowed
+     * @param max
+     *            highest note allowed
+     * @param args
+     *            notes to add
+     * @return chord spanning {@code min} to {@code max} with notes
+     *         {@code args}
+     */
+    private Chord createInRange(String min, String max, String... args) {
+        Chord result = this.rangedConstructor.apply(min, max);
         for (int i = 0; i < args.length; i++) {
             result.add(args[i]);
         }
@@ -130,6 +213,39 @@ public class Chord1Test {
         assertEquals(false, c.contains("D"));
     }
 
+    @Test
+    public void testAddPitch() {
+        Chord c = createFromArgs();
+        c.addPitch(0);
+        c.addPitch(16);
+
+        assertEquals(true, c.contains("C0"));
+        assertEquals(true, c.contains("E1"));
+        assertEquals(true, c.contains("Fb1"));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testRemovePitch() {
+        Chord c = createFromArgs("C#1", "G2");
+        c.removePitch(13);
+
+        assertEquals(false, c.contains("C#1"));
+        assertEquals(false, c.contains("Db1"));
+        assertEquals(true, c.contains("G2"));
+        assertEquals(1, c.size());
+    }
+
+    @Test
+    public void testContainsPitch() {
+        Chord c = createFromArgs("C", "Cb2", "B#2");
+
+        assertEquals(true, c.containsPitch(0));
+        assertEquals(true, c.containsPitch(35));
+        assertEquals(true, c.containsPitch(36));
+        assertEquals(false, c.containsPitch(12));
+    }
+
     //Hard to test noteListString and noteListInt with JUnit, did by hand.
 
     @Test
@@ -144,6 +260,31 @@ public class Chord1Test {
         assertEquals(false, curr.hasValue("D"));
     }
 
+    @Test
+    public void testCurrentNotesSpelling() {
+        Chord c = createFromArgs("C#1", "Db2", "B#1");
+        Map<Integer, String> curr = c.currentNotes();
+
+        assertEquals(true, curr.hasValue("C#1"));
+        assertEquals(true, curr.hasValue("Db2"));
+        assertEquals(true, curr.hasValue("B#1"));
+        assertEquals(false, curr.hasValue("C2"));
+    }
+
+    @Test
+    public void testCurrentNotesIsCopy() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+        Map<Integer, String> curr = c.currentNotes();
+        curr.remove(16); // E1
+        curr.add(23, "B1");
+
+        assertEquals(3, c.size());
+        assertEquals(true, c.contains("E1"));
+        assertEquals(false, c.contains("B1"));
+        assertEquals(3, c.currentNotes().size());
+        assertEquals(true, c.currentNotes().hasValue("E1"));
+    }
+
     @Test
     public void testMax() {
         Chord c = createFromArgs("C0");
@@ -186,6 +327,121 @@ public class Chord1Test {
         assertEquals(0, c.size());
     }
 
+    @Test
+    public void testNoteListDefault() {
+        Chord c = createFromArgs();
+        String[] notes = c.noteList();
+
+        assertEquals(85, notes.length);
+        assertEquals("C", notes[0]);
+        assertEquals("C0", notes[21]);
+        assertEquals("C3", notes[84]);
+        assertEquals(85, c.noteListString().size());
+        assertEquals(37, c.noteListInt().size());
+    }
+
+    @Test
+    public void testFullRange() {
+        Chord c = createInRange("C0", "G10", "C0", "C5", "G10");
+
+        assertEquals("C0", c.min());
+        assertEquals("G10", c.max());
+        assertEquals(true, c.contains("C5"));
+        assertEquals(true, c.containsPitch(60));
+        assertEquals(true, c.containsPitch(127));
+        assertEquals(false, c.containsPitch(64));
+        assertEquals(3, c.size());
+        assertEquals(128, c.noteListInt().size());
+        assertEquals((1L << 0) | (1L << 60), c.pitchMask(0));
+        assertEquals(1L << 63, c.pitchMask(1));
+    }
+
+    @Test
+    public void testPartialRange() {
+        Chord c = createInRange("C2", "C4", "E3");
+
+        assertEquals("C2", c.min());
+        assertEquals("C4", c.max());
+        assertEquals(25, c.noteListInt().size());
+        assertEquals("B#1", c.noteList()[0]);
+        assertEquals(true, c.contains("E3"));
+    }
+
+    @Test
+    public void testRangeKeptByNewInstance() {
+        Chord c = createInRange("C0", "G10", "A8");
+        Chord d = c.newInstance();
+
+        d.add("B9");
+        c.transferFrom(d);
+
+        assertEquals("G10", c.max());
+        assertEquals(true, c.contains("B9"));
+        assertEquals(false, c.contains("A8"));
+    }
+
+    @Test
+    public void testFullRangeSecondary() {
+        Chord c = createInRange("C0", "G10", "E5", "B4", "G10");
+
+        c.flat("E5");
+        c.sharp("B4");
+        c.octaveDown("G10");
+
+        assertEquals("<C5,Eb5,G9>", c.toString());
+        assertEquals("C5", c.lowest());
+        assertEquals("G9", c.removeHighest());
+        assertEquals("C5", c.removeLowest());
+        assertEquals("<Eb5>", c.toString());
+    }
+
+    @Test
+    public void testTransposeAcrossWords() {
+        Chord c = createInRange("C0", "G10", "C5", "E5", "G5");
+
+        c.transpose(7);
+
+        assertEquals("<G5,B5,D6>", c.toString());
+        assertEquals(true, c.containsPitch(67));
+        assertEquals(false, c.containsPitch(60));
+
+        c.transpose(-60);
+
+        assertEquals("<G0,B0,D1>", c.toString());
+        assertEquals(0L, c.pitchMask(1));
+
+        c.transposeOctaves(9);
+
+        assertEquals("<G9,B9,D10>", c.toString());
+        assertEquals(0L, c.pitchMask(0));
+    }
+
+    @Test
+    public void testSetAlgebraFullRange() {
+        Chord c = createInRange("C0", "G10", "C1", "C6", "E6");
+        Chord d = createInRange("C0", "G10", "C6", "G9");
+
+        assertEquals(1, c.commonToneCount(d));
+        c.union(d);
+        assertEquals("<C1,C6,E6,G9>", c.toString());
+        c.difference(d);
+        assertEquals("<C1,E6>", c.toString());
+        assertEquals(false, c.equals(d));
+    }
+
+    @Test
+    public void testPitchCursorFullRange() {
+        Chord c = createInRange("C0", "G10", "D0", "C5", "G10");
+        PitchCursor cursor = new PitchCursor();
+
+        cursor.reset(c);
+
+        assertEquals(2, cursor.next());
+        assertEquals(60, cursor.next());
+        assertEquals(127, cursor.next());
+        assertEquals(false, cursor.hasNext());
+    }
+
     /*
      * Testing secondary methods ----------------------------------------------
      */
@@ -466,6 +722,139 @@ public class Chord1Test {
 
     }
 
+    @Test
+    public void testTransposePitch() {
+        Chord c = createFromArgs("D1", "F#1");
+
+        c.transposePitch(14, -3);
+
+        assertEquals(true, c.contains("B0"));
+        assertEquals(false, c.contains("D1"));
+        assertEquals(true, c.contains("F#1"));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testTranspose() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+
+        c.transpose(2);
+
+        assertEquals(true, c.contains("D0"));
+        assertEquals(true, c.contains("Gb0"));
+        assertEquals(true, c.contains("A0"));
+        assertEquals(false, c.contains("C0"));
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testTransposeOverlapping() {
+        Chord c = createFromArgs("C1", "C#1", "D1");
+
+        c.transpose(-1);
+
+        assertEquals(true, c.contains("B0"));
+        assertEquals(true, c.contains("C1"));
+        assertEquals(true, c.contains("Db1"));
+        assertEquals(false, c.contains("D1"));
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testTransposeToEdges() {
+        Chord c = createFromArgs("D0", "D1");
+
+        c.transpose(-2);
+        assertEquals(true, c.contains("C0"));
+
+        c.transpose(24);
+        assertEquals(true, c.contains("C3"));
+        assertEquals(true, c.contains("C2"));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testTransposeOctaves() {
+        Chord c = createFromArgs("A0", "C#1");
+
+        c.transposeOctaves(1);
+
+        assertEquals(true, c.contains("A1"));
+        assertEquals(true, c.contains("Db2"));
+        assertEquals(false, c.contains("A0"));
+
+        c.transposeOctaves(-1);
+
+        assertEquals(true, c.contains("A0"));
+        assertEquals(true, c.contains("Db1"));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testUnion() {
+        Chord c = createFromArgs("C0", "E0");
+        Chord d = createFromArgs("E0", "G0");
+
+        c.union(d);
+
+        assertEquals("<C0,E0,G0>", c.toString());
+        assertEquals("<E0,G0>", d.toString());
+    }
+
+    @Test
+    public void testUnionKeepsSpelling() {
+        Chord c = createFromArgs("C#1");
+        Chord d = createFromArgs("Db1", "F1");
+
+        c.union(d);
+
+        assertEquals(true, c.currentNotes().hasValue("C#1"));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testIntersect() {
+        Chord c = createFromArgs("C0", "E0", "G0", "Bb0");
+        Chord d = createFromArgs("E0", "G0", "B0");
+
+        c.intersect(d);
+
+        assertEquals("<E0,G0>", c.toString());
+        assertEquals(3, d.size());
+    }
+
+    @Test
+    public void testDifference() {
+        Chord c = createFromArgs("C0", "E0", "G0", "Bb0");
+        Chord d = createFromArgs("E0", "G0", "B0");
+
+        c.difference(d);
+
+        assertEquals("<C0,Bb0>", c.toString());
+        assertEquals(3, d.size());
+    }
+
+    @Test
+    public void testCommonToneCount() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+        Chord d = createFromArgs("E0", "G0", "B0");
+        Chord e = createFromArgs("D1");
+
+        assertEquals(2, c.commonToneCount(d));
+        assertEquals(0, c.commonToneCount(e));
+        assertEquals(3, c.commonToneCount(c));
+    }
+
+    @Test
+    public void testIsSubsetOf() {
+        Chord c = createFromArgs("E0", "G0");
+        Chord d = createFromArgs("C0", "E0", "G0");
+
+        assertEquals(true, c.isSubsetOf(d));
+        assertEquals(false, d.isSubsetOf(c));
+        assertEquals(true, createFromArgs().isSubsetOf(c));
+    }
+
     @Test
     public void testRemoveLowest() {
         Chord c = createFromArgs("C0", "C2", "C1", "C3");
@@ -479,4 +868,298 @@ public class Chord1Test {
         assertEquals(true, c.contains("C3"));
 
     }
+
+    @Test
+    public void testRemoveLowestNoC0() {
+        Chord c = createFromArgs("G1", "D0", "F#2");
+
+        String removed = c.removeLowest();
+
+        assertEquals("D0", removed);
+        assertEquals(false, c.contains("D0"));
+        assertEquals(2, c.size());
+        assertEquals("G1", c.removeLowest());
+        assertEquals("Gb2", c.removeLowest());
+        assertEquals(0, c.size());
+    }
+
+    @Test
+    public void testRemoveHighest() {
+        Chord c = createFromArgs("C0", "E1", "B#2");
+
+        String removed = c.removeHighest();
+
+        assertEquals("C3", removed);
+        assertEquals(false, c.contains("C3"));
+        assertEquals("E1", c.removeHighest());
+        assertEquals(1, c.size());
+    }
+
+    @Test
+    public void testLowestHighest() {
+        Chord c = createFromArgs("A1", "Db0", "G2");
+
+        assertEquals("Db0", c.lowest());
+        assertEquals("G2", c.highest());
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testEqualsSameNotes() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+        Chord d = createFromArgs("G0", "Fb0", "C");
+
+        assertEquals(true, c.equals(d));
+        assertEquals(c.hashCode(), d.hashCode());
+        assertEquals(3, c.size());
+        assertEquals(3, d.size());
+    }
+
+    @Test
+    public void testEqualsDifferentNotes() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+        Chord d = createFromArgs("C0", "Eb0", "G0");
+
+        assertEquals(false, c.equals(d));
+        assertEquals(true, c.contains("E0"));
+        assertEquals(true, d.contains("Eb0"));
+    }
+
+    @Test
+    public void testEqualsAcrossImplementations() {
+        Chord c = createFromArgs("D1", "A2");
+        Chord d = new Chord1();
+        d.add("D1");
+        d.add("A2");
+        Chord e = new Chord2();
+        e.add("D1");
+        e.add("A2");
+
+        assertEquals(true, c.equals(d));
+        assertEquals(true, c.equals(e));
+        assertEquals(d.hashCode(), e.hashCode());
+    }
+
+    @Test
+    public void testToString() {
+        Chord c = createFromArgs("G0", "C0", "E0");
+
+        assertEquals("<C0,E0,G0>", c.toString());
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testToStringEmpty() {
+        Chord c = createFromArgs();
+
+        assertEquals("<>", c.toString());
+    }
+
+    @Test
+    public void testForEachPitch() {
+        Chord c = createFromArgs("A2", "C0", "Eb1");
+        StringBuilder visited = new StringBuilder();
+
+        c.forEachPitch(p -> visited.append(p).append(' '));
+
+        assertEquals("0 15 33 ", visited.toString());
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testPitchCursor() {
+        Chord c = createFromArgs("G1", "D0");
+        Chord d = createFromArgs("C3");
+        PitchCursor cursor = new PitchCursor();
+
+        cursor.reset(c);
+        assertEquals(true, cursor.hasNext());
+        assertEquals(2, cursor.next());
+        assertEquals(19, cursor.next());
+        assertEquals(false, cursor.hasNext());
+
+        cursor.reset(d);
+        assertEquals(36, cursor.next());
+        assertEquals(false, cursor.hasNext());
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    public void testPitchMask() {
+        Chord c = createFromArgs("C0", "E0", "C3");
+
+        assertEquals((1L << 0) | (1L << 4) | (1L << 36), c.pitchMask(0));
+        assertEquals(0L, c.pitchMask(1));
+    }
+
+    @Test
+    public void testSpellingMask() {
+        Chord c = createFromArgs("C#1", "Eb1", "Fb0", "G0");
+
+        assertEquals((1L << 13) | (1L << 4), c.spellingMask(0));
+        assertEquals(0L, c.spellingMask(1));
+    }
+
+    @Test
+    public void testSpellingMaskFollowsEdits() {
+        Chord c = createFromArgs("C#1", "E1", "G#1");
+
+        c.remove("C#1");
+        c.add("Db1");
+        assertEquals(1L << 20, c.spellingMask(0));
+        c.removePitch(20);
+        c.addPitch(20);
+        assertEquals(0L, c.spellingMask(0));
+        c.add("F#1");
+        assertEquals(1L << 18, c.spellingMask(0));
+        assertEquals(1L << 18, c.copy().spellingMask(0));
+        c.clear();
+        assertEquals(0L, c.spellingMask(0));
+    }
+
+    @Test
+    public void testSpellingMaskHighWord() {
+        Chord c = createInRange("C0", "G10", "C#1", "F#7", "Gb8");
+
+        assertEquals(1L << 13, c.spellingMask(0));
+        assertEquals(1L << (90 - 64), c.spellingMask(1));
+    }
+
+    @Test
+    public void testWriteToPlain() {
+        Chord c = createFromArgs("C0", "E0", "G0");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        c.writeTo(buffer);
+
+        assertEquals(9, buffer.position());
+        assertEquals(3, c.size());
+    }
+
+    @Test
+    public void testWriteToReadFromRoundTrip() {
+        Chord c = createFromArgs("C0", "Eb1", "Bb2");
+        Chord d = createFromArgs("D0");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        c.writeTo(buffer);
+        buffer.flip();
+        d.readFrom(buffer);
+
+        assertEquals(c, d);
+        assertEquals("<C0,Eb1,Bb2>", d.toString());
+        assertEquals(false, buffer.hasRemaining());
+    }
+
+    @Test
+    public void testWriteToReadFromSpelled() {
+        Chord c = createFromArgs("C#1", "E1", "G#1");
+        Chord d = createFromArgs();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        c.writeTo(buffer);
+        assertEquals(17, buffer.position());
+        buffer.flip();
+        d.readFrom(buffer);
+
+        assertEquals(c, d);
+        assertEquals("C#1", d.currentNotes().value(13));
+        assertEquals("G#1", d.currentNotes().value(20));
+        assertEquals(c.spellingMask(0), d.spellingMask(0));
+    }
+
+    @Test
+    public void testWriteToReadFromWide() {
+        Chord c = createInRange("C0", "G10", "C0", "F#7", "G10");
+        Chord d = createInRange("C0", "G10");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        c.writeTo(buffer);
+        assertEquals(33, buffer.position());
+        buffer.flip();
+        d.readFrom(buffer);
+
+        assertEquals(c, d);
+        assertEquals("F#7", d.currentNotes().value(90));
+    }
+
+    @Test
+    public void testCopy() {
+        Chord c = createFromArgs("C#1", "F1", "Ab1");
+
+        Chord d = c.copy();
+        d.remove("F1");
+
+        assertEquals(c.getClass(), d.getClass());
+        assertEquals(3, c.size());
+        assertEquals(2, d.size());
+        assertEquals("C#1", d.currentNotes().value(13));
+        assertEquals("C3", d.max());
+    }
+
+    @Test
+    public void testCopyKeepsRange() {
+        Chord c = createInRange("C4", "G10", "E9");
+
+        Chord d = c.copy();
+
+        assertEquals(c, d);
+        assertEquals("C4", d.min());
+        assertEquals("G10", d.max());
+    }
+
+    @Test
+    public void testCopyFrom() {
+        Chord c = createFromArgs("D0", "F#0", "A0");
+        Chord d = createFromArgs("B2");
+
+        d.copyFrom(c);
+        c.add("C1");
+
+        assertEquals("<D0,Gb0,A0>", d.toString());
+        assertEquals("F#0", d.currentNotes().value(6));
+        assertEquals(4, c.size());
+    }
+
+    @Test
+    public void testCopyFromOtherImplementation() {
+        Chord c = new Chord2();
+        c.add("G#1");
+        c.add("C2");
+        Chord d = createFromArgs("E0");
+        Chord e = new Chord1();
+        e.add("D#0");
+
+        d.copyFrom(c);
+        assertEquals(c, d);
+        assertEquals("G#1", d.currentNotes().value(20));
+        d.copyFrom(e);
+        assertEquals("<Eb0>", d.toString());
+        assertEquals("D#0", d.currentNotes().value(3));
+    }
+
+    @Test
+    public void testCopyFromSelf() {
+        Chord c = createFromArgs("C0", "G0");
+
+        c.copyFrom(c);
+
+        assertEquals("<C0,G0>", c.toString());
+    }
+
+    @Test
+    public void testReadFromSequence() {
+        Chord c = createFromArgs("A2");
+        Chord d = createFromArgs("D#0", "C3");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        c.writeTo(buffer);
+        d.writeTo(buffer);
+        buffer.flip();
+        Chord e = createFromArgs();
+        e.readFrom(buffer);
+        assertEquals(c, e);
+        e.readFrom(buffer);
+        assertEquals(d, e);
+    }
 }
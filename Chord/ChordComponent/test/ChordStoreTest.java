@@ -0,0 +1,291 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.ChordStore;
+import components.chord.StoredChord;
+
+/**
+ * Test suite for ChordStore and StoredChord.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ChordStoreTest {
+
+    /**
+     * Folder for store files, removed after each test.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to C3 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord1();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the path of a new file in the temporary folder.
+     *
+     * @return the path
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    private Path newFile() throws IOException {
+        return this.folder.newFile().toPath();
+    }
+
+    @Test
+    public void testCreateEmpty() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 10, "C0",
+                "C3", false, false)) {
+            assertEquals(0, store.size());
+            assertEquals(10, store.capacity());
+            assertEquals("C0", store.min());
+            assertEquals("C3", store.max());
+            assertEquals(false, store.isSpelled());
+            assertEquals(false, store.isTimed());
+        }
+    }
+
+    @Test
+    public void testAppendAndView() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 4, "C0",
+                "C3", false, false)) {
+            Chord a = createFromArgs("C0", "E0", "G0");
+            Chord b = createFromArgs("D1", "F1", "A1");
+
+            assertEquals(0, store.append(a));
+            assertEquals(1, store.append(b));
+            StoredChord view = store.view(0);
+
+            assertEquals(2, store.size());
+            assertEquals(a, view);
+            assertEquals("<C0,E0,G0>", view.toString());
+            view.moveTo(1);
+            assertEquals(1, view.slot());
+            assertEquals(b, view);
+            assertEquals(3, view.size());
+            assertEquals(b.pitchMask(0), store.pitchMask(1, 0));
+        }
+    }
+
+    @Test
+    public void testViewWritesThrough() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 2, "C0",
+                "C3", false, false)) {
+            store.append(createFromArgs("C0", "E0", "G0"));
+            StoredChord view = store.view(0);
+
+            view.add("B0");
+            view.remove("C0");
+            view.flat("E0");
+            view.transpose(12);
+
+            assertEquals("<Eb1,G1,B1>", store.view(0).toString());
+            assertEquals(createFromArgs("Eb1", "G1", "B1").pitchMask(0),
+                    store.pitchMask(0, 0));
+        }
+    }
+
+    @Test
+    public void testSecondaryMethodsOnView() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 2, "C0",
+                "C3", false, false)) {
+            store.append(createFromArgs("C1", "E1", "G1"));
+            StoredChord view = store.view(0);
+            Chord other = createFromArgs("E1", "G1", "B1");
+
+            assertEquals(2, view.commonToneCount(other));
+            assertEquals("C1", view.lowest());
+            assertEquals("G1", view.removeHighest());
+            view.union(other);
+            assertEquals("<C1,E1,G1,B1>", view.toString());
+        }
+    }
+
+    @Test
+    public void testSpelledWide() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 2, "C0",
+                "G10", true, false)) {
+            Chord a = new Chord2("C0", "G10");
+            a.add("C#6");
+            a.add("G#9");
+            a.add("E2");
+            store.append(a);
+            StoredChord view = store.view(0);
+
+            assertEquals(a, view);
+            assertEquals("C#6", view.currentNotes().value(73));
+            assertEquals("G#9", view.currentNotes().value(116));
+            assertEquals("E2", view.currentNotes().value(28));
+            view.add("F#10");
+            assertEquals(a.spellingMask(1) | (1L << (126 - 64)),
+                    view.spellingMask(1));
+        }
+    }
+
+    @Test
+    public void testSpellingDroppedWhenNotSpelled() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 2, "C0",
+                "C3", false, false)) {
+            store.append(createFromArgs("C#1"));
+
+            assertEquals("Db1", store.view(0).currentNotes().value(13));
+            assertEquals(0L, store.view(0).spellingMask(0));
+        }
+    }
+
+    @Test
+    public void testTimes() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 3, "C0",
+                "C3", false, true)) {
+            store.append(createFromArgs("C0"), 100L);
+            store.append(createFromArgs("D0"), 250L);
+            store.setTime(0, 50L);
+
+            assertEquals(true, store.isTimed());
+            assertEquals(50L, store.time(0));
+            assertEquals(250L, store.time(1));
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        Path file = this.newFile();
+        try (ChordStore store = ChordStore.create(file, 100, "C0", "G10",
+                true, true)) {
+            for (int i = 0; i < 100; i++) {
+                Chord c = new Chord2("C0", "G10");
+                c.addPitch(i);
+                c.addPitch(i + 20);
+                store.append(c, i * 10L);
+            }
+        }
+        try (ChordStore store = ChordStore.open(file)) {
+            assertEquals(100, store.size());
+            assertEquals("G10", store.max());
+            assertEquals(true, store.isSpelled());
+            StoredChord view = store.view(0);
+            for (int i = 0; i < 100; i++) {
+                view.moveTo(i);
+                assertEquals(true, view.containsPitch(i));
+                assertEquals(true, view.containsPitch(i + 20));
+                assertEquals(2, view.size());
+                assertEquals(i * 10L, store.time(i));
+            }
+        }
+    }
+
+    @Test
+    public void testTransferFromAndNewInstance() throws IOException {
+        try (ChordStore store = ChordStore.create(this.newFile(), 2, "C0",
+                "C3", false, false)) {
+            store.append(createFromArgs("C0"));
+            StoredChord view = store.view(0);
+            Chord source = createFromArgs("F1", "A1");
+
+            view.transferFrom(source);
+            Chord fresh = view.newInstance();
+
+            assertEquals("<F1,A1>", view.toString());
+            assertEquals(0, source.size());
+            assertEquals(0, fresh.size());
+            assertEquals("C3", fresh.max());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenNotAStore() throws IOException {
+        File file = this.folder.newFile();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(new byte[128]);
+        }
+        ChordStore.open(file.toPath());
+    }
+
+    /**
+     * Creates an empty store of 10 plain chords, then overwrites
+     * {@code bytes} at {@code offset} of its file.
+     *
+     * @param offset
+     *            where to write
+     * @param bytes
+     *            what to write
+     * @return the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private Path corrupted(int offset, byte... bytes) throws IOException {
+        Path file = this.newFile();
+        ChordStore.create(file, 10, "C0", "C3", false, false).close();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(),
+                "rw")) {
+            raf.seek(offset);
+            raf.write(bytes);
+        }
+        return file;
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenSizeAboveCapacity() throws IOException {
+        ChordStore.open(this.corrupted(12, (byte) 0, (byte) 0, (byte) 0,
+                (byte) 11));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenMinAboveMax() throws IOException {
+        ChordStore.open(this.corrupted(6, (byte) 40, (byte) 30));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenMaxAbovePitchRange() throws IOException {
+        ChordStore.open(this.corrupted(7, (byte) 128));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenUnknownFlags() throws IOException {
+        ChordStore.open(this.corrupted(5, (byte) 4));
+    }
+
+    @Test
+    public void testOpenTruncatedIsNotExtended() throws IOException {
+        Path file = this.newFile();
+        ChordStore.create(file, 10, "C0", "C3", true, true).close();
+        long truncated;
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(),
+                "rw")) {
+            truncated = raf.length() - Long.BYTES;
+            raf.setLength(truncated);
+        }
+        boolean rejected = false;
+        try {
+            ChordStore.open(file).close();
+        } catch (IOException e) {
+            rejected = true;
+        }
+        assertEquals(true, rejected);
+        assertEquals(truncated, file.toFile().length());
+    }
+
+}
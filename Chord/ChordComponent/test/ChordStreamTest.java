@@ -0,0 +1,181 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.ChordReader;
+import components.chord.ChordWriter;
+
+/**
+ * Test suite for ChordWriter and ChordReader.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ChordStreamTest {
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to G10 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord2("C0", "G10");
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Writes {@code chords} to a new chord stream.
+     *
+     * @param wide
+     *            whether the stream holds pitches 64 through 127
+     * @param spelled
+     *            whether the stream keeps spellings
+     * @param chords
+     *            chords to write
+     * @return the bytes of the stream
+     * @throws IOException
+     *             never
+     */
+    private static byte[] write(boolean wide, boolean spelled,
+            Chord... chords) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ChordWriter writer = new ChordWriter(Channels.newChannel(bytes),
+                wide, spelled)) {
+            for (Chord c : chords) {
+                writer.write(c);
+            }
+            assertEquals(chords.length, writer.count());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Opens a reader on {@code bytes}.
+     *
+     * @param bytes
+     *            the bytes of a chord stream
+     * @return a reader positioned at the first chord
+     * @throws IOException
+     *             if {@code bytes} is not a chord stream
+     */
+    private static ChordReader read(byte[] bytes) throws IOException {
+        return new ChordReader(
+                Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        byte[] bytes = write(false, false);
+
+        assertEquals(8, bytes.length);
+        try (ChordReader reader = read(bytes)) {
+            assertEquals(false, reader.isWide());
+            assertEquals(false, reader.isSpelled());
+            assertEquals(false, reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testPlainRecords() throws IOException {
+        Chord a = createFromArgs("C0", "E0", "G0");
+        Chord b = createFromArgs("D1", "F#1", "A1");
+        byte[] bytes = write(false, false, a, b);
+
+        assertEquals(8 + 2 * 8, bytes.length);
+        try (ChordReader reader = read(bytes)) {
+            Chord c = new Chord1();
+            assertEquals(true, reader.hasNext());
+            reader.next(c);
+            assertEquals(a, c);
+            reader.next(c);
+            assertEquals(b, c);
+            assertEquals("Gb1", c.currentNotes().value(18));
+            assertEquals(false, reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testWideSpelledRecords() throws IOException {
+        Chord a = createFromArgs("C#5", "A#9");
+        byte[] bytes = write(true, true, a);
+
+        assertEquals(8 + 32, bytes.length);
+        try (ChordReader reader = read(bytes)) {
+            assertEquals(true, reader.isWide());
+            assertEquals(true, reader.isSpelled());
+            Chord c = createFromArgs();
+            reader.next(c);
+            assertEquals(a, c);
+            assertEquals("C#5", c.currentNotes().value(61));
+            assertEquals("A#9", c.currentNotes().value(118));
+        }
+    }
+
+    @Test
+    public void testManyRecords() throws IOException {
+        final int count = 20000;
+        Chord[] chords = new Chord[count];
+        for (int i = 0; i < count; i++) {
+            chords[i] = createFromArgs();
+            chords[i].addPitch(i % 128);
+            chords[i].addPitch((i * 7 + 1) % 128 == i % 128 ? (i + 1) % 128
+                    : (i * 7 + 1) % 128);
+        }
+        byte[] bytes = write(true, false, chords);
+
+        try (ChordReader reader = read(bytes)) {
+            Chord c = createFromArgs();
+            int i = 0;
+            while (reader.hasNext()) {
+                reader.next(c);
+                assertEquals(chords[i], c);
+                i++;
+            }
+            assertEquals(count, i);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testBadMagic() throws IOException {
+        read(new byte[] { 'N', 'O', 'P', 'E', 1, 0, 0, 0 });
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedRecord() throws IOException {
+        byte[] bytes = write(false, false, createFromArgs("C0"));
+        byte[] cut = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, cut, 0, cut.length);
+
+        try (ChordReader reader = read(cut)) {
+            reader.hasNext();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNonBlockingChannelWithNoData() throws IOException {
+        Pipe pipe = Pipe.open();
+        try (Pipe.SinkChannel sink = pipe.sink()) {
+            sink.write(ByteBuffer.wrap(write(false, false)));
+            pipe.source().configureBlocking(false);
+            try (ChordReader reader = new ChordReader(pipe.source())) {
+                reader.hasNext();
+            }
+        }
+    }
+
+}
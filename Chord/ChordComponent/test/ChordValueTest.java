@@ -0,0 +1,144 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.ChordValue;
+
+/**
+ * Test suite for ChordValue.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ChordValueTest {
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, ChordValue.EMPTY.size());
+        assertSame(ChordValue.EMPTY, ChordValue.of());
+        assertEquals("<>", ChordValue.EMPTY.toString());
+    }
+
+    @Test
+    public void testOfNotes() {
+        ChordValue v = ChordValue.of("C0", "E0", "G0");
+
+        assertEquals(3, v.size());
+        assertEquals(true, v.contains("E0"));
+        assertEquals(false, v.contains("D0"));
+        assertEquals("<C0,E0,G0>", v.toString());
+        assertEquals("C0", v.lowest());
+        assertEquals("G0", v.highest());
+    }
+
+    @Test
+    public void testDerivationsLeaveOriginal() {
+        ChordValue v = ChordValue.of("C1", "E1", "G1");
+
+        ChordValue w = v.with("Bb1");
+        ChordValue x = v.without("E1");
+        ChordValue y = v.sharp("G1");
+        ChordValue z = v.flat("E1");
+
+        assertEquals("<C1,E1,G1>", v.toString());
+        assertEquals("<C1,E1,G1,Bb1>", w.toString());
+        assertEquals("<C1,G1>", x.toString());
+        assertEquals("<C1,E1,Ab1>", y.toString());
+        assertEquals("<C1,Eb1,G1>", z.toString());
+    }
+
+    @Test
+    public void testTranspose() {
+        ChordValue v = ChordValue.of("C5", "E5", "G5");
+
+        assertEquals("<G5,B5,D6>", v.transpose(7).toString());
+        assertEquals("<C0,E0,G0>", v.transpose(-60).toString());
+        assertEquals(ChordValue.of("C10", "E10", "G10"), v.transpose(60));
+    }
+
+    @Test
+    public void testSetAlgebra() {
+        ChordValue v = ChordValue.of("C1", "E1", "G1");
+        ChordValue w = ChordValue.of("E1", "G1", "B1");
+
+        assertEquals("<C1,E1,G1,B1>", v.union(w).toString());
+        assertEquals("<E1,G1>", v.intersect(w).toString());
+    }
+
+    @Test
+    public void testCanonicalWithinOctave() {
+        ChordValue v = ChordValue.of("C1", "E1", "G1");
+
+        assertSame(v, ChordValue.of("G1", "C1", "E1"));
+        assertSame(v, ChordValue.of("C0", "E0", "G0").transpose(12));
+        assertSame(v, v.with("B1").without("B1"));
+    }
+
+    @Test
+    public void testWideChordsStillEqual() {
+        ChordValue v = ChordValue.of("C0", "C5");
+        ChordValue w = ChordValue.of("C5", "C0");
+
+        assertNotSame(v, w);
+        assertEquals(v, w);
+        assertEquals(v.hashCode(), w.hashCode());
+    }
+
+    @Test
+    public void testConversions() {
+        Chord c = new Chord1();
+        c.add("D0");
+        c.add("F#0");
+        c.add("A0");
+
+        ChordValue v = ChordValue.of(c);
+        c.add("C1");
+        Chord d = v.toChord();
+        Chord e = new Chord1();
+        e.add("B2");
+        v.copyTo(e);
+
+        assertEquals("<D0,Gb0,A0>", v.toString());
+        assertEquals(3, d.size());
+        assertEquals(true, d.contains("F#0"));
+        assertEquals(d, e);
+        assertEquals(v.pitchClassSet(), 0b1001000100);
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws Exception {
+        final int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ChordValue>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    ChordValue v = ChordValue.EMPTY;
+                    for (int i = 0; i < 1000; i++) {
+                        v = ChordValue.of("C3", "E3", "G3").transpose(i % 5);
+                    }
+                    return v.transpose(-(999 % 5));
+                }));
+            }
+            ChordValue first = results.get(0).get();
+            for (Future<ChordValue> f : results) {
+                assertSame(first, f.get());
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+}
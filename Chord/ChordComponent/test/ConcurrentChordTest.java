@@ -0,0 +1,338 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.ChordValue;
+import components.chord.ConcurrentChord;
+
+/**
+ * Test suite for the atomic operations of ConcurrentChord, including stress
+ * tests with many threads. Its behaviour as a {@code Chord} is covered by
+ * Chord1Test.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ConcurrentChordTest {
+
+    /**
+     * Number of writer threads in the stress tests.
+     */
+    private static final int WRITERS = 6;
+
+    /**
+     * Changes each writer makes in the stress tests.
+     */
+    private static final int ROUNDS = 20000;
+
+    /**
+     * Threads for the stress tests.
+     */
+    private ExecutorService pool;
+
+    /**
+     * Creates the thread pool.
+     */
+    @Before
+    public void setUp() {
+        this.pool = Executors.newFixedThreadPool(WRITERS + 1);
+    }
+
+    /**
+     * Stops the thread pool.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @After
+    public void tearDown() throws InterruptedException {
+        this.pool.shutdownNow();
+        this.pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs {@code tasks} at once and waits for all of them.
+     *
+     * @param tasks
+     *            the tasks
+     * @return their results, in order
+     * @throws Exception
+     *             if a task fails
+     */
+    private List<Long> runAll(List<Callable<Long>> tasks) throws Exception {
+        List<Future<Long>> futures = new ArrayList<>();
+        for (Callable<Long> task : tasks) {
+            futures.add(this.pool.submit(task));
+        }
+        List<Long> result = new ArrayList<>();
+        for (Future<Long> f : futures) {
+            result.add(f.get(60, TimeUnit.SECONDS));
+        }
+        return result;
+    }
+
+    @Test
+    public void testAddIfAbsentRemoveIfPresent() {
+        ConcurrentChord c = new ConcurrentChord();
+        assertTrue(c.addIfAbsent(12));
+        assertFalse(c.addIfAbsent(12));
+        assertTrue(c.removeIfPresent(12));
+        assertFalse(c.removeIfPresent(12));
+        assertEquals(0, c.size());
+    }
+
+    @Test
+    public void testSnapshotIsValue() {
+        ConcurrentChord c = new ConcurrentChord();
+        c.add("C1");
+        ChordValue before = c.snapshot();
+        c.add("E1");
+        assertEquals(ChordValue.of("C1"), before);
+        assertEquals(ChordValue.of("C1", "E1"), c.snapshot());
+    }
+
+    @Test
+    public void testCompareAndSet() {
+        ConcurrentChord c = new ConcurrentChord();
+        c.add("C1");
+        assertFalse(c.compareAndSet(ChordValue.of("D1"), ChordValue.of("G1")));
+        assertTrue(c.compareAndSet(ChordValue.of("C1"),
+                ChordValue.of("G1", "B1")));
+        assertEquals(ChordValue.of("G1", "B1"), c.snapshot());
+        assertEquals(ChordValue.of("G1", "B1"),
+                c.getAndSet(ChordValue.EMPTY));
+        assertEquals(0, c.size());
+    }
+
+    @Test
+    public void testUpdateAndGetKeepsSpelling() {
+        ConcurrentChord c = new ConcurrentChord();
+        c.add("C#1");
+        c.add("F1");
+        ChordValue v = c.updateAndGet(x -> x.with("Ab1"));
+        assertEquals(ChordValue.of("C#1", "F1", "Ab1"), v);
+        assertEquals("C#1", c.currentNotes().value(13));
+    }
+
+    @Test
+    public void testStressDisjointPitches() throws Exception {
+        final ConcurrentChord c = new ConcurrentChord("C0", "G10");
+        final CyclicBarrier start = new CyclicBarrier(WRITERS);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            final int pitch = 10 * t + 5;
+            tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < ROUNDS; i++) {
+                    c.addPitch(pitch);
+                    assertTrue(c.containsPitch(pitch));
+                    c.removePitch(pitch);
+                }
+                c.addPitch(pitch);
+                return 0L;
+            });
+        }
+        this.runAll(tasks);
+        assertEquals(WRITERS, c.size());
+        for (int t = 0; t < WRITERS; t++) {
+            assertTrue(c.containsPitch(10 * t + 5));
+        }
+    }
+
+    @Test
+    public void testStressSharedPitches() throws Exception {
+        final ConcurrentChord c = new ConcurrentChord("C0", "G10");
+        final int pitches = 4;
+        final CyclicBarrier start = new CyclicBarrier(WRITERS);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            final int seed = t;
+            tasks.add(() -> {
+                start.await();
+                long net = 0;
+                for (int i = 0; i < ROUNDS; i++) {
+                    int pitch = 60 + (i * 7 + seed) % pitches;
+                    if ((i + seed) % 2 == 0) {
+                        if (c.addIfAbsent(pitch)) {
+                            net += 1L << (16 * (pitch - 60));
+                        }
+                    } else if (c.removeIfPresent(pitch)) {
+                        net -= 1L << (16 * (pitch - 60));
+                    }
+                }
+                return net;
+            });
+        }
+        long net = 0;
+        for (long n : this.runAll(tasks)) {
+            net += n;
+        }
+        for (int p = 0; p < pitches; p++) {
+            long count = (net >> (16 * p)) & 0xFFFF;
+            long present = 0;
+            if (c.containsPitch(60 + p)) {
+                present = 1;
+            }
+            assertEquals(present, count);
+        }
+    }
+
+    @Test
+    public void testStressBulkUpdatesAreAtomic() throws Exception {
+        final ConcurrentChord c = new ConcurrentChord("C0", "G10");
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final CyclicBarrier start = new CyclicBarrier(WRITERS + 1);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        /*
+         * Writer t adds and removes the three pitches 8t, 8t+1 and 8t+70
+         * together, across both mask words, so a reader must see all or none
+         * of them.
+         */
+        for (int t = 0; t < WRITERS; t++) {
+            final Chord group = new Chord2("C0", "G10");
+            group.addPitch(8 * t);
+            group.addPitch(8 * t + 1);
+            group.addPitch(8 * t + 70);
+            tasks.add(() -> {
+                start.await();
+                for (int i = 0; i < ROUNDS; i++) {
+                    c.union(group);
+                    c.difference(group);
+                }
+                return 0L;
+            });
+        }
+        tasks.add(() -> {
+            start.await();
+            long reads = 0;
+            while (!done.get()) {
+                ChordValue v = c.snapshot();
+                for (int t = 0; t < WRITERS; t++) {
+                    boolean a = v.containsPitch(8 * t);
+                    boolean b = v.containsPitch(8 * t + 1);
+                    boolean h = v.containsPitch(8 * t + 70);
+                    assertTrue(a == b && b == h);
+                }
+                assertEquals(0, v.size() % 3);
+                reads++;
+            }
+            return reads;
+        });
+        List<Future<Long>> futures = new ArrayList<>();
+        for (Callable<Long> task : tasks) {
+            futures.add(this.pool.submit(task));
+        }
+        for (int t = 0; t < WRITERS; t++) {
+            futures.get(t).get(60, TimeUnit.SECONDS);
+        }
+        done.set(true);
+        assertTrue(futures.get(WRITERS).get(60, TimeUnit.SECONDS) > 0);
+        assertEquals(0, c.size());
+    }
+
+    @Test
+    public void testStressEqualsAndHashCodeAreAtomic() throws Exception {
+        final ConcurrentChord c = new ConcurrentChord("C0", "G10");
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final CyclicBarrier start = new CyclicBarrier(2);
+        /*
+         * The writer toggles pitches 10 and 80, one in each mask word, so the
+         * only states are the two snapshots below; a chord holding just one of
+         * the pitches never existed.
+         */
+        final Chord group = new Chord2("C0", "G10");
+        group.addPitch(10);
+        group.addPitch(80);
+        final ChordValue empty = ChordValue.EMPTY;
+        final ChordValue full = ChordValue.of(group);
+        final Chord onlyLow = new Chord2("C0", "G10");
+        onlyLow.addPitch(10);
+        final Chord onlyHigh = new Chord2("C0", "G10");
+        onlyHigh.addPitch(80);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            start.await();
+            for (int i = 0; i < ROUNDS; i++) {
+                c.union(group);
+                c.difference(group);
+            }
+            return 0L;
+        });
+        tasks.add(() -> {
+            start.await();
+            long reads = 0;
+            while (!done.get()) {
+                int h = c.hashCode();
+                assertTrue(h == empty.hashCode() || h == full.hashCode());
+                assertFalse(c.equals(onlyLow));
+                assertFalse(onlyHigh.equals(c));
+                reads++;
+            }
+            return reads;
+        });
+        List<Future<Long>> futures = new ArrayList<>();
+        for (Callable<Long> task : tasks) {
+            futures.add(this.pool.submit(task));
+        }
+        futures.get(0).get(60, TimeUnit.SECONDS);
+        done.set(true);
+        assertTrue(futures.get(1).get(60, TimeUnit.SECONDS) > 0);
+        assertEquals(empty.hashCode(), c.hashCode());
+        assertTrue(c.equals(new Chord2("C0", "G10")));
+    }
+
+    @Test
+    public void testStressTransposeAndCompareAndSet() throws Exception {
+        final ConcurrentChord c = new ConcurrentChord("C0", "G10");
+        c.add("C4");
+        c.add("E4");
+        c.add("G4");
+        final CyclicBarrier start = new CyclicBarrier(WRITERS);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        /*
+         * Each writer moves the chord one half-step towards C4 from wherever
+         * it saw it, so the chord stays near C4 however the writers race.
+         */
+        for (int t = 0; t < WRITERS; t++) {
+            tasks.add(() -> {
+                start.await();
+                long moves = 0;
+                for (int i = 0; i < ROUNDS; i++) {
+                    ChordValue v = c.snapshot();
+                    int step = 1;
+                    if (Long.numberOfTrailingZeros(v.pitchMask(0)) >= 48) {
+                        step = -1;
+                    }
+                    if (c.compareAndSet(v, v.transpose(step))) {
+                        moves += step;
+                    }
+                }
+                return moves;
+            });
+        }
+        long moves = 0;
+        for (long m : this.runAll(tasks)) {
+            moves += m;
+        }
+        ChordValue expected = ChordValue.of("C4", "E4", "G4")
+                .transpose((int) moves);
+        assertEquals(expected, c.snapshot());
+    }
+
+}
@@ -0,0 +1,178 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.ChordMetrics;
+import components.chord.ChordOperation;
+import components.chord.InstrumentedChord;
+import components.chord.LatencyHistogram;
+
+/**
+ * Test suite for InstrumentedChord, ChordMetrics and LatencyHistogram. The
+ * behaviour of the decorator as a {@code Chord} is covered by Chord1Test.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class InstrumentedChordTest {
+
+    /**
+     * Starts each test with metrics on and empty.
+     */
+    @Before
+    public void setUp() {
+        ChordMetrics.reset();
+        ChordMetrics.setEnabled(true);
+    }
+
+    /**
+     * Leaves metrics off for the other suites.
+     */
+    @After
+    public void tearDown() {
+        ChordMetrics.setEnabled(false);
+        ChordMetrics.reset();
+    }
+
+    @Test
+    public void testCountsCalls() {
+        Chord c = new InstrumentedChord(new Chord2());
+        c.add("C1");
+        c.add("E1");
+        c.contains("E1");
+        c.size();
+        ChordMetrics.Snapshot s = ChordMetrics.snapshot();
+        assertEquals(2, s.calls(ChordOperation.ADD));
+        assertEquals(1, s.calls(ChordOperation.CONTAINS));
+        assertEquals(1, s.calls(ChordOperation.SIZE));
+        assertEquals(0, s.calls(ChordOperation.REMOVE));
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        ChordMetrics.setEnabled(false);
+        Chord c = new InstrumentedChord(new Chord1());
+        c.add("C1");
+        c.removeLowest();
+        ChordMetrics.Snapshot s = ChordMetrics.snapshot();
+        assertEquals(0, s.calls(ChordOperation.ADD));
+        assertEquals(0, s.removeLowestProbes());
+        assertEquals(0, s.repCreations());
+        assertEquals(0, s.tableLookups());
+    }
+
+    @Test
+    public void testRemoveLowestProbes() {
+        Chord c = new InstrumentedChord(new Chord2("C0", "G10"));
+        c.add("C1");
+        c.add("C9");
+        c.removeLowest();
+        c.removeLowest();
+        ChordMetrics.Snapshot s = ChordMetrics.snapshot();
+        assertEquals(2, s.calls(ChordOperation.REMOVE_LOWEST));
+        assertEquals(1 + 2, s.removeLowestProbes());
+    }
+
+    @Test
+    public void testRepCreations() {
+        Chord c = new Chord1();
+        c.clear();
+        c.newInstance();
+        assertEquals(3, ChordMetrics.snapshot().repCreations());
+    }
+
+    @Test
+    public void testTableLookups() {
+        Chord c = new Chord2();
+        c.add("C1");
+        c.contains("D1");
+        assertEquals(2, ChordMetrics.snapshot().tableLookups());
+    }
+
+    @Test
+    public void testSnapshotIsCopy() {
+        Chord c = new InstrumentedChord(new Chord2());
+        c.add("C1");
+        ChordMetrics.Snapshot s = ChordMetrics.snapshot();
+        c.add("D1");
+        assertEquals(1, s.calls(ChordOperation.ADD));
+        assertEquals(2, ChordMetrics.snapshot().calls(ChordOperation.ADD));
+    }
+
+    @Test
+    public void testUnwrapsArguments() {
+        Chord a = new InstrumentedChord(new Chord1());
+        Chord b = new InstrumentedChord(new Chord1());
+        b.add("C1");
+        a.transferFrom(b);
+        assertTrue(a.contains("C1"));
+        assertEquals(0, b.size());
+        Chord copy = a.copy();
+        assertTrue(copy instanceof InstrumentedChord);
+        assertEquals(a, copy);
+    }
+
+    @Test
+    public void testHistogramExactBelowSixteen() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 1; v <= 10; v++) {
+            h.record(v);
+        }
+        assertEquals(10, h.count());
+        assertEquals(5, h.valueAtPercentile(50));
+        assertEquals(10, h.valueAtPercentile(100));
+        assertEquals(10, h.max());
+    }
+
+    @Test
+    public void testHistogramPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100000; v++) {
+            h.record(v);
+        }
+        long p50 = h.valueAtPercentile(50);
+        long p99 = h.valueAtPercentile(99);
+        assertTrue(50000 <= p50 && p50 <= 50000 * 9 / 8);
+        assertTrue(99000 <= p99 && p99 <= 100000);
+        assertEquals(100000, h.valueAtPercentile(100));
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.max());
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.valueAtPercentile(99));
+    }
+
+    @Test
+    public void testMBean() throws JMException {
+        ChordMetrics.registerMBean();
+        ChordMetrics.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ChordMetrics.OBJECT_NAME);
+        Chord c = new InstrumentedChord(new Chord2());
+        c.add("C1");
+        TabularData calls = (TabularData) server.getAttribute(name,
+                "CallCounts");
+        assertEquals(1, calls.size());
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertEquals(0L, server.getAttribute(name, "RepCreations"));
+        server.setAttribute(name, new Attribute("Enabled", false));
+        assertFalse(ChordMetrics.isEnabled());
+    }
+
+}
@@ -0,0 +1,156 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.ChordTypes;
+import components.chord.PitchClassSet;
+
+/**
+ * Test suite for PitchClassSet and ChordTypes.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class PitchClassSetTest {
+
+    /**
+     * Used to create a pitch-class set for tests.
+     *
+     * @param classes
+     *            pitch classes to include
+     * @return pitch-class set of {@code classes}
+     */
+    private static int pcs(int... classes) {
+        int result = 0;
+        for (int c : classes) {
+            result |= 1 << c;
+        }
+        return result;
+    }
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord2();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /*
+     * Testing PitchClassSet ---------------------------------------------------
+     */
+
+    @Test
+    public void testOfFoldsOctaves() {
+        Chord c = createFromArgs("C0", "E1", "G2", "C3");
+
+        assertEquals(pcs(0, 4, 7), PitchClassSet.of(c));
+    }
+
+    @Test
+    public void testOfHighWord() {
+        Chord c = new Chord2("C0", "G10");
+        c.add("E5");
+        c.add("C10");
+        c.add("G10");
+
+        assertEquals(pcs(0, 4, 7), PitchClassSet.of(c));
+    }
+
+    @Test
+    public void testOfEmpty() {
+        assertEquals(0, PitchClassSet.of(createFromArgs()));
+    }
+
+    @Test
+    public void testTranspose() {
+        assertEquals(pcs(2, 6, 9), PitchClassSet.transpose(pcs(0, 4, 7), 2));
+        assertEquals(pcs(11, 3, 6),
+                PitchClassSet.transpose(pcs(0, 4, 7), -1));
+    }
+
+    @Test
+    public void testInvert() {
+        assertEquals(pcs(0, 8, 5), PitchClassSet.invert(pcs(0, 4, 7)));
+    }
+
+    @Test
+    public void testNormalForm() {
+        // E G C is the first inversion of C major; normal form is C E G
+        assertEquals(0, PitchClassSet.normalFormStart(pcs(4, 7, 0)));
+        assertEquals(pcs(0, 4, 7), PitchClassSet.normalForm(pcs(4, 7, 0)));
+        // B D F A: normal form is A B D F, span 8
+        assertEquals(9, PitchClassSet.normalFormStart(pcs(11, 2, 5, 9)));
+        assertEquals(pcs(0, 2, 5, 8),
+                PitchClassSet.normalForm(pcs(11, 2, 5, 9)));
+    }
+
+    @Test
+    public void testPrimeForm() {
+        assertEquals(pcs(0, 3, 7), PitchClassSet.primeForm(pcs(0, 4, 7)));
+        assertEquals(pcs(0, 3, 7), PitchClassSet.primeForm(pcs(9, 0, 4)));
+        assertEquals(pcs(0, 4, 8), PitchClassSet.primeForm(pcs(1, 5, 9)));
+        assertEquals(0, PitchClassSet.primeForm(0));
+    }
+
+    @Test
+    public void testIntervalVector() {
+        // major triad: <001110>
+        assertEquals(0x011100, PitchClassSet.intervalVector(pcs(0, 4, 7)));
+        // diminished seventh: <004002>
+        assertEquals(0x200400,
+                PitchClassSet.intervalVector(pcs(0, 3, 6, 9)));
+    }
+
+    /*
+     * Testing ChordTypes ------------------------------------------------------
+     */
+
+    @Test
+    public void testTypeTriads() {
+        assertEquals("maj", ChordTypes.type(pcs(0, 4, 7)));
+        assertEquals(0, ChordTypes.root(pcs(0, 4, 7)));
+        assertEquals("m", ChordTypes.type(pcs(9, 0, 4)));
+        assertEquals(9, ChordTypes.root(pcs(9, 0, 4)));
+        assertEquals("dim", ChordTypes.type(pcs(11, 2, 5)));
+    }
+
+    @Test
+    public void testTypeOfChordIgnoresVoicing() {
+        Chord c = createFromArgs("E0", "C1", "B1", "G2");
+
+        assertEquals("maj7", ChordTypes.type(c));
+        assertEquals(0, ChordTypes.root(PitchClassSet.of(c)));
+    }
+
+    @Test
+    public void testTypeSeventhChords() {
+        assertEquals("7", ChordTypes.type(pcs(7, 11, 2, 5)));
+        assertEquals("m7b5", ChordTypes.type(pcs(11, 2, 5, 9)));
+        assertEquals(11, ChordTypes.root(pcs(11, 2, 5, 9)));
+        assertEquals("dim7", ChordTypes.type(pcs(0, 3, 6, 9)));
+    }
+
+    @Test
+    public void testRootCandidates() {
+        // C E G A is both C6 and Am7
+        assertEquals(pcs(0, 9), ChordTypes.rootCandidates(pcs(0, 4, 7, 9)));
+        assertEquals(pcs(0, 4, 8), ChordTypes.rootCandidates(pcs(0, 4, 8)));
+    }
+
+    @Test
+    public void testUnknownType() {
+        assertEquals(null, ChordTypes.type(pcs(0, 1, 2)));
+        assertEquals(-1, ChordTypes.root(pcs(0, 1, 2)));
+        assertEquals(0, ChordTypes.rootCandidates(pcs(0, 1, 2)));
+    }
+}
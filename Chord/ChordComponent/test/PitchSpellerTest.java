@@ -0,0 +1,122 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.Chord2;
+import components.chord.PitchSpeller;
+
+/**
+ * Test suite for PitchSpeller.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class PitchSpellerTest {
+
+    @Test
+    public void testParseNaturals() {
+        assertEquals(0, PitchSpeller.parse("C0"));
+        assertEquals(2, PitchSpeller.parse("D0"));
+        assertEquals(4, PitchSpeller.parse("E0"));
+        assertEquals(5, PitchSpeller.parse("F0"));
+        assertEquals(7, PitchSpeller.parse("G0"));
+        assertEquals(9, PitchSpeller.parse("A0"));
+        assertEquals(11, PitchSpeller.parse("B0"));
+        assertEquals(36, PitchSpeller.parse("C3"));
+        assertEquals(127, PitchSpeller.parse("G10"));
+    }
+
+    @Test
+    public void testParseWithoutOctave() {
+        assertEquals(0, PitchSpeller.parse("C"));
+        assertEquals(10, PitchSpeller.parse("Bb"));
+        assertEquals(12, PitchSpeller.parse("B#"));
+    }
+
+    @Test
+    public void testParseAccidentals() {
+        assertEquals(13, PitchSpeller.parse("C#1"));
+        assertEquals(13, PitchSpeller.parse("Db1"));
+        assertEquals(4, PitchSpeller.parse("Fb0"));
+        assertEquals(5, PitchSpeller.parse("E#0"));
+        assertEquals(11, PitchSpeller.parse("Cb0"));
+        assertEquals(24, PitchSpeller.parse("B#1"));
+    }
+
+    @Test
+    public void testParseDoubleAccidentals() {
+        assertEquals(4, PitchSpeller.parse("D##0"));
+        assertEquals(4, PitchSpeller.parse("Dx0"));
+        assertEquals(0, PitchSpeller.parse("Dbb0"));
+        assertEquals(10, PitchSpeller.parse("Cbb0"));
+        assertEquals(25, PitchSpeller.parse("Bx1"));
+    }
+
+    @Test
+    public void testParseCharSequence() {
+        StringBuilder note = new StringBuilder("Ab");
+        assertEquals(8, PitchSpeller.parse(note));
+        note.append(4);
+        assertEquals(56, PitchSpeller.parse(note));
+    }
+
+    @Test
+    public void testIsNote() {
+        assertEquals(true, PitchSpeller.isNote("A4"));
+        assertEquals(true, PitchSpeller.isNote("F#10"));
+        assertEquals(false, PitchSpeller.isNote(""));
+        assertEquals(false, PitchSpeller.isNote("H2"));
+        assertEquals(false, PitchSpeller.isNote("c2"));
+        assertEquals(false, PitchSpeller.isNote("C#b2"));
+        assertEquals(false, PitchSpeller.isNote("C###2"));
+        assertEquals(false, PitchSpeller.isNote("C11"));
+        assertEquals(false, PitchSpeller.isNote("Ab10"));
+        assertEquals(false, PitchSpeller.isNote("B#10"));
+        assertEquals(false, PitchSpeller.isNote("C02"));
+        assertEquals(false, PitchSpeller.isNote("C2x"));
+    }
+
+    @Test
+    public void testAccidental() {
+        assertEquals(0, PitchSpeller.accidental("E2"));
+        assertEquals(1, PitchSpeller.accidental("F#2"));
+        assertEquals(-1, PitchSpeller.accidental("Bb"));
+        assertEquals(2, PitchSpeller.accidental("Gx1"));
+        assertEquals(2, PitchSpeller.accidental("G##1"));
+        assertEquals(-2, PitchSpeller.accidental("Ebb3"));
+    }
+
+    @Test
+    public void testName() {
+        assertEquals("Db1", PitchSpeller.name(13));
+        assertEquals("C#1", PitchSpeller.name(13, true));
+        assertEquals("D0", PitchSpeller.name(2, true));
+        assertEquals("G10", PitchSpeller.name(127));
+    }
+
+    @Test
+    public void testChordAcceptsDoubleAccidentals() {
+        Chord c1 = new Chord1();
+        Chord c2 = new Chord2();
+        c1.add("Fx1");
+        c2.add("Fx1");
+
+        assertEquals(true, c1.contains("G1"));
+        assertEquals(true, c2.contains("G1"));
+        assertEquals("Fx1", c1.currentNotes().value(19));
+        assertEquals("G1", c2.currentNotes().value(19));
+    }
+
+    @Test
+    public void testNaturalDoubleAccidentals() {
+        Chord c = new Chord1();
+        c.add("Ebb1");
+
+        c.natural("Ebb1");
+
+        assertEquals("<E1>", c.toString());
+    }
+
+}
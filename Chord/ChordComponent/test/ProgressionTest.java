@@ -0,0 +1,235 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.ChordBatch;
+import components.chord.ChordValue;
+import components.chord.CommonToneRuns;
+import components.chord.KeyEstimator;
+import components.chord.PitchClassSet;
+import components.chord.Progression;
+import components.chord.RangeTracker;
+
+/**
+ * Test suite for Progression and its incremental analyzers.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ProgressionTest {
+
+    /**
+     * Krumhansl-Kessler major profile times 100.
+     */
+    private static final int[] MAJOR = { 635, 223, 348, 233, 438, 409, 252,
+            519, 239, 366, 229, 288 };
+
+    /**
+     * Krumhansl-Kessler minor profile times 100.
+     */
+    private static final int[] MINOR = { 633, 268, 352, 538, 260, 353, 254,
+            475, 398, 269, 334, 317 };
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to C3 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord2();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a progression of {@code n} random chords over C2 to C5 in which
+     * each chord keeps some notes of the one before.
+     *
+     * @param n
+     *            number of chords
+     * @param seed
+     *            random seed
+     * @return the progression
+     */
+    private static Progression randomProgression(int n, long seed) {
+        Random random = new Random(seed);
+        Progression result = new Progression();
+        long mask = 0L;
+        for (int i = 0; i < n; i++) {
+            for (int change = random.nextInt(4); change > 0; change--) {
+                mask ^= 1L << (24 + random.nextInt(37));
+            }
+            result.append(mask, 0L);
+        }
+        return result;
+    }
+
+    @Test
+    public void testAppendAndDeltas() {
+        Progression p = new Progression();
+        p.append(createFromArgs("C1", "E1", "G1"));
+        p.append(createFromArgs("B0", "D1", "G1"));
+        assertEquals(2, p.size());
+        assertEquals(createFromArgs("C1", "E1", "G1").pitchMask(0),
+                p.added(0, 0));
+        assertEquals(0L, p.removed(0, 0));
+        assertEquals(createFromArgs("B0", "D1").pitchMask(0), p.added(1, 0));
+        assertEquals(createFromArgs("C1", "E1").pitchMask(0),
+                p.removed(1, 0));
+        assertEquals(ChordValue.of("B0", "D1", "G1"), p.chord(1));
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        Progression p = randomProgression(1000, 1L);
+        Progression q = randomProgression(1000, 1L);
+        assertEquals(1000, p.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(q.pitchMask(i, 0), p.pitchMask(i, 0));
+        }
+    }
+
+    @Test
+    public void testHighWord() {
+        Progression p = new Progression();
+        p.append(0L, 1L);
+        p.append(1L, 1L);
+        assertEquals(1L, p.added(1, 0));
+        assertEquals(0L, p.added(1, 1));
+        assertEquals(1L, p.pitchMask(0, 1));
+    }
+
+    @Test
+    public void testBatch() {
+        Progression p = randomProgression(50, 2L);
+        ChordBatch batch = ChordBatch.of(p);
+        assertEquals(50, batch.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(p.pitchMask(i, 0), batch.pitchMask(i, 0));
+        }
+    }
+
+    @Test
+    public void testKeyEstimatorCMajor() {
+        Progression p = new Progression();
+        KeyEstimator key = new KeyEstimator(4);
+        p.attach(key);
+        p.append(createFromArgs("C1", "E1", "G1"));
+        p.append(createFromArgs("C1", "F1", "A1"));
+        p.append(createFromArgs("B0", "D1", "G1"));
+        p.append(createFromArgs("C1", "E1", "G1"));
+        assertEquals(0, key.tonic());
+        assertEquals(false, key.isMinor());
+    }
+
+    @Test
+    public void testKeyEstimatorSlides() {
+        Progression p = new Progression();
+        KeyEstimator key = new KeyEstimator(3);
+        p.attach(key);
+        p.append(createFromArgs("C1", "E1", "G1"));
+        p.append(createFromArgs("C1", "F1", "A1"));
+        p.append(createFromArgs("C1", "E1", "G1"));
+        p.append(createFromArgs("A0", "C1", "E1"));
+        p.append(createFromArgs("D1", "F1", "A1"));
+        p.append(createFromArgs("G#0", "B0", "E1"));
+        p.append(createFromArgs("A0", "C1", "E1"));
+        assertEquals(9, key.tonic());
+        assertEquals(true, key.isMinor());
+    }
+
+    @Test
+    public void testKeyEstimatorMatchesRecompute() {
+        final int window = 8;
+        Progression p = randomProgression(200, 3L);
+        KeyEstimator key = new KeyEstimator(window);
+        p.attach(key);
+        int from = p.size() - window;
+        for (int tonic = 0; tonic < 12; tonic++) {
+            long major = 0;
+            long minor = 0;
+            for (int pc = 0; pc < 12; pc++) {
+                int weight = 0;
+                for (int i = from; i < p.size(); i++) {
+                    weight += PitchClassSet.of(p.pitchMask(i, 0),
+                            p.pitchMask(i, 1)) >>> pc & 1;
+                }
+                assertEquals(weight, key.weight(pc));
+                major += weight * MAJOR[(pc - tonic + 12) % 12];
+                minor += weight * MINOR[(pc - tonic + 12) % 12];
+            }
+            assertEquals(major, key.score(tonic, false));
+            assertEquals(minor, key.score(tonic, true));
+        }
+    }
+
+    @Test
+    public void testCommonToneRuns() {
+        Progression p = new Progression();
+        CommonToneRuns runs = new CommonToneRuns();
+        p.attach(runs);
+        p.append(createFromArgs("C1", "E1", "G1"));
+        assertEquals(0, runs.commonTones());
+        p.append(createFromArgs("C1", "F1", "A1"));
+        assertEquals(1, runs.commonTones());
+        p.append(createFromArgs("B0", "D1", "G1"));
+        assertEquals(0, runs.commonTones());
+        assertEquals(2, runs.longestRun());
+        p.append(createFromArgs("B0", "D1", "F1"));
+        assertEquals(2, runs.commonTones());
+        assertEquals(2, runs.runLength(11));
+        assertEquals(1, runs.runLength(17));
+        assertEquals(0, runs.runLength(12));
+    }
+
+    @Test
+    public void testCommonToneRunsMatchesRecompute() {
+        Progression p = randomProgression(300, 4L);
+        CommonToneRuns runs = new CommonToneRuns();
+        p.attach(runs);
+        int last = p.size() - 1;
+        int longest = 0;
+        for (int pitch = 24; pitch <= 60; pitch++) {
+            int run = 0;
+            for (int i = 0; i <= last; i++) {
+                if ((p.pitchMask(i, 0) >>> pitch & 1) != 0) {
+                    run++;
+                } else {
+                    run = 0;
+                }
+                longest = Math.max(longest, run);
+            }
+            assertEquals(run, runs.runLength(pitch));
+        }
+        assertEquals(longest, runs.longestRun());
+        assertEquals(
+                Long.bitCount(p.pitchMask(last, 0) & p.pitchMask(last - 1, 0)),
+                runs.commonTones());
+    }
+
+    @Test
+    public void testRangeTracker() {
+        Progression p = new Progression();
+        RangeTracker range = new RangeTracker();
+        p.append(createFromArgs("C1", "E1", "G1"));
+        p.attach(range);
+        assertEquals(12, range.lowest());
+        p.append(createFromArgs());
+        assertEquals(-1, range.currentLowest());
+        assertEquals(12, range.lowest());
+        p.append(createFromArgs("G0", "B1"));
+        assertEquals(7, range.lowest());
+        assertEquals(23, range.highest());
+        assertEquals(7, range.currentLowest());
+        assertEquals(16, range.widest());
+    }
+
+}
@@ -0,0 +1,144 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import components.chord.BatchAnalyzer;
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.ChordBatch;
+import components.chord.PitchClassSet;
+import components.chord.Scales;
+
+/**
+ * Test suite for Scales.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class ScalesTest {
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to C3 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord1();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Slow, obviously correct list of the scales containing {@code pcs}.
+     *
+     * @param pcs
+     *            pitch-class set
+     * @return the scale numbers, in increasing order
+     */
+    private static int[] naiveContaining(int pcs) {
+        int[] found = new int[Scales.COUNT];
+        int n = 0;
+        for (int s = 0; s < Scales.COUNT; s++) {
+            if ((pcs & ~Scales.pitchClassSet(s)) == 0) {
+                found[n] = s;
+                n++;
+            }
+        }
+        return Arrays.copyOf(found, n);
+    }
+
+    @Test
+    public void testNames() {
+        assertEquals("D dorian", Scales.name(Scales.scale("dorian", 2)));
+        assertEquals("Bb harmonic minor",
+                Scales.name(Scales.scale("harmonic minor", 10)));
+        assertEquals(10, Scales.tonic(Scales.scale("harmonic minor", 10)));
+    }
+
+    @Test
+    public void testPitchClassSet() {
+        int cMajor = Scales.pitchClassSet(Scales.scale("ionian", 0));
+        assertEquals(Scales.pitchClassSet(Scales.scale("aeolian", 9)),
+                cMajor);
+        assertEquals(0xAB5, cMajor);
+    }
+
+    @Test
+    public void testIsDiatonic() {
+        Chord g7 = createFromArgs("G0", "B0", "D1", "F1");
+        assertTrue(Scales.isDiatonic(g7, Scales.scale("ionian", 0)));
+        assertTrue(Scales.isDiatonic(g7, Scales.scale("mixolydian", 7)));
+        assertFalse(Scales.isDiatonic(g7, Scales.scale("ionian", 7)));
+        assertTrue(Scales.isDiatonic(g7, Scales.scale("harmonic minor", 0)));
+    }
+
+    @Test
+    public void testScalesContainingMatchesNaive() {
+        for (int pcs = 0; pcs < PitchClassSet.COUNT; pcs++) {
+            assertArrayEquals(naiveContaining(pcs),
+                    Scales.scalesContaining(pcs));
+        }
+    }
+
+    @Test
+    public void testScalesContainingChord() {
+        Chord c = createFromArgs("C1", "E1", "G1", "C2");
+        int[] scales = Scales.scalesContaining(c);
+        assertArrayEquals(naiveContaining(0x091), scales);
+        assertTrue(Arrays.binarySearch(scales,
+                Scales.scale("major pentatonic", 0)) >= 0);
+        assertTrue(Arrays.binarySearch(scales,
+                Scales.scale("lydian", 0)) >= 0);
+        assertFalse(Arrays.binarySearch(scales,
+                Scales.scale("dorian", 0)) >= 0);
+    }
+
+    @Test
+    public void testContainingWords() {
+        int pcs = 0x091;
+        int count = 0;
+        for (int w = 0; w < Scales.WORDS; w++) {
+            count += Long.bitCount(Scales.containing(pcs, w));
+        }
+        assertEquals(Scales.scalesContaining(pcs).length, count);
+        assertEquals(Scales.COUNT, Scales.scalesContaining(0).length);
+    }
+
+    @Test
+    public void testChordsDiatonicToScale() {
+        int scale = Scales.scale("ionian", 0);
+        int[] chords = Scales.chordsDiatonicTo(scale);
+        assertEquals(127, chords.length);
+        for (int i = 0; i < chords.length; i++) {
+            assertTrue(Scales.isDiatonic(chords[i], scale));
+            assertTrue(i == 0 || chords[i - 1] < chords[i]);
+        }
+        assertEquals(31, Scales.chordsDiatonicTo(
+                Scales.scale("minor pentatonic", 4)).length);
+    }
+
+    @Test
+    public void testChordsDiatonicToBatch() throws Exception {
+        ChordBatch batch = ChordBatch.of(createFromArgs("C1", "E1", "G1"),
+                createFromArgs("C1", "Eb1", "G1"),
+                createFromArgs("D1", "F1", "A1"),
+                createFromArgs("F#1", "A1", "C2"));
+        int scale = Scales.scale("ionian", 0);
+        assertArrayEquals(new int[] { 0, 2 },
+                Scales.chordsDiatonicTo(batch, scale));
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(2)) {
+            assertArrayEquals(new int[] { 1, 0, 1, 0 },
+                    analyzer.analyze(batch, Scales.diatonicTo(scale)));
+        }
+    }
+
+}
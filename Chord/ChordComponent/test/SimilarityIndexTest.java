@@ -0,0 +1,291 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import components.chord.BatchAnalyzer;
+import components.chord.Chord;
+import components.chord.Chord1;
+import components.chord.ChordBatch;
+import components.chord.ChordDistance;
+import components.chord.ChordDistances;
+import components.chord.ChordValue;
+import components.chord.SimilarityIndex;
+import components.chord.VoiceLeading;
+
+/**
+ * Test suite for SimilarityIndex and ChordDistances.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class SimilarityIndexTest {
+
+    /**
+     * Seed for the random corpora, so failures can be reproduced.
+     */
+    private static final long SEED = 2025L;
+
+    /**
+     * Number of pitches random chords are drawn from (C0 through C3).
+     */
+    private static final int PITCH_COUNT = 37;
+
+    /**
+     * Returns a random non-empty chord of at most {@code maxSize} notes.
+     *
+     * @param random
+     *            the source of randomness
+     * @param maxSize
+     *            the most notes
+     * @return the chord as pitch masks {low, high}
+     */
+    private static long[] randomChord(Random random, int maxSize) {
+        int size = 1 + random.nextInt(maxSize);
+        long low = 0L;
+        while (Long.bitCount(low) < size) {
+            low |= 1L << random.nextInt(PITCH_COUNT);
+        }
+        return new long[] { low, 0L };
+    }
+
+    /**
+     * Returns an index on {@code metric} of {@code n} random chords.
+     *
+     * @param metric
+     *            the metric
+     * @param n
+     *            the number of chords
+     * @return the index
+     */
+    private static SimilarityIndex randomIndex(ChordDistance metric, int n) {
+        Random random = new Random(SEED);
+        SimilarityIndex index = new SimilarityIndex(metric);
+        for (int i = 0; i < n; i++) {
+            long[] c = randomChord(random, 5);
+            index.add(c[0], c[1]);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the {@code k} nearest chords of {@code index} to {@code query}
+     * by sorting every chord.
+     *
+     * @param index
+     *            the index
+     * @param distance
+     *            the distance
+     * @param query
+     *            the query masks {low, high}
+     * @param k
+     *            the number wanted
+     * @return the chord numbers, nearest first
+     */
+    private static int[] bruteForce(SimilarityIndex index,
+            ChordDistance distance, long[] query, int k) {
+        int[] d = new int[index.size()];
+        for (int i = 0; i < index.size(); i++) {
+            d[i] = distance.distance(index.pitchMask(i, 0),
+                    index.pitchMask(i, 1), query[0], query[1]);
+        }
+        return IntStream.range(0, index.size()).boxed()
+                .sorted(Comparator.<Integer> comparingInt(i -> d[i])
+                        .thenComparingInt(i -> i))
+                .limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testHammingDistance() {
+        ChordValue a = ChordValue.of("C1", "E1", "G1");
+        ChordValue b = ChordValue.of("C1", "Eb1", "G1", "Bb1");
+        assertEquals(3, ChordDistances.HAMMING.distance(a.pitchMask(0),
+                a.pitchMask(1), b.pitchMask(0), b.pitchMask(1)));
+    }
+
+    @Test
+    public void testIntervalVectorDistance() {
+        ChordValue major = ChordValue.of("C1", "E1", "G1");
+        ChordValue minor = ChordValue.of("D2", "F2", "A2");
+        ChordValue cluster = ChordValue.of("C1", "Db1", "D1");
+        assertEquals(0, ChordDistances.INTERVAL_VECTOR.distance(
+                major.pitchMask(0), major.pitchMask(1), minor.pitchMask(0),
+                minor.pitchMask(1)));
+        // <001110> against <210000>
+        assertEquals(6, ChordDistances.INTERVAL_VECTOR.distance(
+                major.pitchMask(0), major.pitchMask(1), cluster.pitchMask(0),
+                cluster.pitchMask(1)));
+    }
+
+    @Test
+    public void testVoiceLeadingDistance() {
+        ChordDistance distance = ChordDistances.voiceLeading();
+        ChordValue a = ChordValue.of("C1", "E1", "G1");
+        ChordValue b = ChordValue.of("B0", "F1", "G1");
+        assertEquals(new VoiceLeading().distance(a.pitchMask(0),
+                a.pitchMask(1), b.pitchMask(0), b.pitchMask(1)),
+                distance.distance(a.pitchMask(0), a.pitchMask(1),
+                        b.pitchMask(0), b.pitchMask(1)));
+        assertEquals(0, distance.distance(0L, 0L, 0L, 0L));
+        assertEquals(Integer.MAX_VALUE, distance.distance(0L, 0L,
+                a.pitchMask(0), a.pitchMask(1)));
+    }
+
+    @Test
+    public void testEmpty() {
+        SimilarityIndex index = new SimilarityIndex();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.nearest(1L, 0L, 5));
+        assertArrayEquals(new int[0], index.scan(1L, 0L, 5));
+    }
+
+    @Test
+    public void testAddAndRead() {
+        SimilarityIndex index = new SimilarityIndex();
+        Chord c = new Chord1();
+        c.add("C1");
+        c.add("E1");
+        assertEquals(0, index.add(c));
+        assertEquals(1, index.add(ChordValue.of("D1")));
+        assertEquals(2, index.size());
+        assertEquals(ChordValue.of(c), index.chord(0));
+        assertEquals(c.pitchMask(0), index.pitchMask(0, 0));
+        assertEquals(ChordValue.of("D1"), index.chord(1));
+    }
+
+    @Test
+    public void testExactMatchFirst() {
+        SimilarityIndex index = randomIndex(ChordDistances.HAMMING, 1000);
+        for (int id : new int[] { 0, 17, 999 }) {
+            int[] found = index.nearest(index.pitchMask(id, 0),
+                    index.pitchMask(id, 1), 1);
+            assertEquals(0,
+                    ChordDistances.HAMMING.distance(index.pitchMask(id, 0),
+                            index.pitchMask(id, 1),
+                            index.pitchMask(found[0], 0),
+                            index.pitchMask(found[0], 1)));
+            assertEquals(true, found[0] <= id);
+        }
+    }
+
+    @Test
+    public void testTiesTowardSmallerNumber() {
+        SimilarityIndex index = new SimilarityIndex();
+        ChordValue c = ChordValue.of("C1", "E1", "G1");
+        for (int i = 0; i < 5; i++) {
+            index.add(c);
+        }
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                index.nearest(c.pitchMask(0), c.pitchMask(1), 3));
+        assertArrayEquals(new int[] { 0, 1, 2 },
+                index.scan(c.pitchMask(0), c.pitchMask(1), 3));
+    }
+
+    @Test
+    public void testKLargerThanSize() {
+        SimilarityIndex index = randomIndex(ChordDistances.HAMMING, 7);
+        assertEquals(7, index.nearest(1L, 0L, 20).length);
+        assertEquals(7, index.scan(1L, 0L, 20).length);
+        assertEquals(0, index.nearest(1L, 0L, 0).length);
+    }
+
+    @Test
+    public void testHammingTreeMatchesScan() {
+        SimilarityIndex index = randomIndex(ChordDistances.HAMMING, 5000);
+        Random random = new Random(SEED + 1);
+        for (int q = 0; q < 200; q++) {
+            long[] query = randomChord(random, 6);
+            int[] expected = bruteForce(index, ChordDistances.HAMMING, query,
+                    20);
+            assertArrayEquals(expected, index.scan(query[0], query[1], 20));
+            assertArrayEquals(expected,
+                    index.nearest(query[0], query[1], 20));
+        }
+    }
+
+    @Test
+    public void testIntervalVectorTreeMatchesScan() {
+        SimilarityIndex index = randomIndex(ChordDistances.INTERVAL_VECTOR,
+                3000);
+        Random random = new Random(SEED + 2);
+        for (int q = 0; q < 100; q++) {
+            long[] query = randomChord(random, 6);
+            int[] expected = bruteForce(index,
+                    ChordDistances.INTERVAL_VECTOR, query, 20);
+            assertArrayEquals(expected, index.scan(query[0], query[1], 20));
+            assertArrayEquals(expected,
+                    index.nearest(query[0], query[1], 20));
+        }
+    }
+
+    @Test
+    public void testVoiceLeadingScan() {
+        SimilarityIndex index = randomIndex(ChordDistances.HAMMING, 2000);
+        ChordDistance distance = ChordDistances.voiceLeading();
+        Random random = new Random(SEED + 3);
+        for (int q = 0; q < 50; q++) {
+            long[] query = randomChord(random, 4);
+            assertArrayEquals(bruteForce(index, distance, query, 20),
+                    index.scan(distance, query[0], query[1], 20));
+        }
+    }
+
+    @Test
+    public void testIncrementalInserts() {
+        Random random = new Random(SEED + 4);
+        SimilarityIndex index = new SimilarityIndex();
+        long[] query = randomChord(random, 4);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 100; i++) {
+                long[] c = randomChord(random, 5);
+                index.add(c[0], c[1]);
+            }
+            assertArrayEquals(
+                    bruteForce(index, ChordDistances.HAMMING, query, 10),
+                    index.nearest(query[0], query[1], 10));
+        }
+    }
+
+    @Test
+    public void testBatchQueries() {
+        SimilarityIndex index = randomIndex(ChordDistances.HAMMING, 2000);
+        Random random = new Random(SEED + 5);
+        Chord[] queries = new Chord[300];
+        for (int q = 0; q < queries.length; q++) {
+            long[] c = randomChord(random, 5);
+            queries[q] = new Chord1();
+            for (int p = 0; p < PITCH_COUNT; p++) {
+                if ((c[0] & (1L << p)) != 0) {
+                    queries[q].addPitch(p);
+                }
+            }
+        }
+        int[][] found;
+        try (BatchAnalyzer analyzer = new BatchAnalyzer(4)) {
+            found = index.nearest(ChordBatch.of(queries), 20, analyzer);
+        }
+        assertEquals(queries.length, found.length);
+        for (int q = 0; q < queries.length; q++) {
+            assertArrayEquals(index.nearest(queries[q], 20), found[q]);
+        }
+        assertEquals(true, Arrays.stream(found).allMatch(f -> f.length == 20));
+    }
+
+    @Test
+    public void testAddAll() {
+        SimilarityIndex index = new SimilarityIndex();
+        index.addAll(ChordBatch.of(new Chord[0]));
+        assertEquals(0, index.size());
+        Chord c = new Chord1();
+        c.add("G1");
+        index.addAll(ChordBatch.of(c, c));
+        assertEquals(2, index.size());
+        assertArrayEquals(new int[] { 0, 1 }, index.nearest(c, 5));
+    }
+
+}
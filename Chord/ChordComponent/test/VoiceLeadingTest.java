@@ -0,0 +1,193 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.ChordBatch;
+import components.chord.VoiceLeading;
+
+/**
+ * Test suite for VoiceLeading.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class VoiceLeadingTest {
+
+    /**
+     * Used to create a chord for tests.
+     *
+     * @param args
+     *            notes to add
+     * @return chord spanning C0 to C3 with notes {@code args}
+     */
+    private static Chord createFromArgs(String... args) {
+        Chord result = new Chord2();
+        for (int i = 0; i < args.length; i++) {
+            result.add(args[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Slow, obviously correct distance: tries every way to pair the sorted
+     * pitches without crossing.
+     *
+     * @param a
+     *            pitches of one chord, low to high
+     * @param b
+     *            pitches of the other chord, low to high
+     * @param i
+     *            current position in {@code a}
+     * @param j
+     *            current position in {@code b}
+     * @return least total movement pairing a[i..] with b[j..], given that
+     *         a[i] and b[j] are paired
+     */
+    private static int naive(int[] a, int[] b, int i, int j) {
+        int step = Math.abs(a[i] - b[j]);
+        int rest = Integer.MAX_VALUE;
+        if (i == a.length - 1 && j == b.length - 1) {
+            rest = 0;
+        }
+        if (i + 1 < a.length && j + 1 < b.length) {
+            rest = Math.min(rest, naive(a, b, i + 1, j + 1));
+        }
+        if (i + 1 < a.length) {
+            rest = Math.min(rest, naive(a, b, i + 1, j));
+        }
+        if (j + 1 < b.length) {
+            rest = Math.min(rest, naive(a, b, i, j + 1));
+        }
+        return step + rest;
+    }
+
+    /**
+     * Returns the pitches of {@code c}, low to high.
+     *
+     * @param c
+     *            the chord
+     * @return its pitches
+     */
+    private static int[] pitches(Chord c) {
+        int[] result = new int[c.size()];
+        int[] n = { 0 };
+        c.forEachPitch(p -> {
+            result[n[0]] = p;
+            n[0]++;
+        });
+        return result;
+    }
+
+    @Test
+    public void testSameChord() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+
+        assertEquals(0, new VoiceLeading().distance(c, c));
+    }
+
+    @Test
+    public void testEqualSizes() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+        Chord f = createFromArgs("C1", "F1", "A1");
+
+        assertEquals(3, new VoiceLeading().distance(c, f));
+    }
+
+    @Test
+    public void testUnequalSizes() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+        Chord g7 = createFromArgs("B0", "D1", "F1", "G1");
+
+        assertEquals(1 + 2 + 1 + 0, new VoiceLeading().distance(c, g7));
+        assertEquals(4, new VoiceLeading().distance(g7, c));
+    }
+
+    @Test
+    public void testSingleNote() {
+        Chord c = createFromArgs("C1", "G1");
+        Chord d = createFromArgs("E1");
+
+        assertEquals(4 + 3, new VoiceLeading().distance(c, d));
+    }
+
+    @Test
+    public void testMatchesNaive() {
+        Random random = new Random(7);
+        VoiceLeading vl = new VoiceLeading(16);
+        for (int trial = 0; trial < 500; trial++) {
+            Chord a = new Chord2();
+            Chord b = new Chord2();
+            int sa = 1 + random.nextInt(5);
+            int sb = 1 + random.nextInt(5);
+            while (a.size() < sa) {
+                int p = random.nextInt(37);
+                if (!a.containsPitch(p)) {
+                    a.addPitch(p);
+                }
+            }
+            while (b.size() < sb) {
+                int p = random.nextInt(37);
+                if (!b.containsPitch(p)) {
+                    b.addPitch(p);
+                }
+            }
+            int expected = naive(pitches(a), pitches(b), 0, 0);
+            assertEquals(expected, vl.distance(a, b));
+            assertEquals(expected, vl.distance(a, b));
+
+            int[] from = new int[sa + sb];
+            int[] to = new int[sa + sb];
+            int voices = vl.assign(a, b, from, to);
+            int total = 0;
+            for (int v = 0; v < voices; v++) {
+                total += Math.abs(to[v] - from[v]);
+                if (v > 0) {
+                    assertEquals(true, from[v] >= from[v - 1]);
+                    assertEquals(true, to[v] >= to[v - 1]);
+                }
+            }
+            assertEquals(expected, total);
+        }
+    }
+
+    @Test
+    public void testAssign() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+        Chord g7 = createFromArgs("B0", "D1", "F1", "G1");
+        int[] from = new int[8];
+        int[] to = new int[8];
+
+        int voices = new VoiceLeading().assign(c, g7, from, to);
+
+        assertEquals(4, voices);
+        assertArrayEquals(new int[] { 12, 12, 16, 19 },
+                Arrays.copyOf(from, voices));
+        assertArrayEquals(new int[] { 11, 14, 17, 19 },
+                Arrays.copyOf(to, voices));
+    }
+
+    @Test
+    public void testRankAndBest() {
+        Chord c = createFromArgs("C1", "E1", "G1");
+        ChordBatch candidates = ChordBatch.of(
+                createFromArgs("D2", "F#2", "A2"),
+                createFromArgs("C1", "F1", "A1"), createFromArgs(),
+                createFromArgs("B0", "E1", "G1"),
+                createFromArgs("C1", "Eb1", "G1"));
+        VoiceLeading vl = new VoiceLeading();
+
+        int[] d = vl.distances(c, candidates);
+
+        assertEquals(Integer.MAX_VALUE, d[2]);
+        assertEquals(1, d[3]);
+        assertArrayEquals(new int[] { 3, 4, 1, 0, 2 }, vl.rank(c, candidates));
+        assertEquals(3, vl.best(c, candidates));
+    }
+
+}
@@ -0,0 +1,225 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import components.chord.Chord;
+import components.chord.Chord2;
+import components.chord.PitchClassSet;
+import components.chord.VoicingGenerator;
+
+/**
+ * Test suite for VoicingGenerator.
+ *
+ * @author Jake Meyer
+ *
+ */
+public class VoicingGeneratorTest {
+
+    /**
+     * Pitch-class set of a C major triad.
+     */
+    private static final int C_MAJOR = 1 << 0 | 1 << 4 | 1 << 7;
+
+    /**
+     * Lowest pitch of the test range, C2.
+     */
+    private static final int MIN = 24;
+
+    /**
+     * Highest pitch of the test range, C4.
+     */
+    private static final int MAX = 48;
+
+    /**
+     * Returns a generator for {@code pcs} over C2 through C4.
+     *
+     * @param pcs
+     *            the pitch classes to voice
+     * @return the generator
+     */
+    private static VoicingGenerator generator(int pcs) {
+        return new VoicingGenerator(new Chord2("C2", "C4"), pcs);
+    }
+
+    /**
+     * Slow, obviously correct count: checks every set of {@code voices}
+     * pitches in C2 through C4.
+     *
+     * @param pcs
+     *            the pitch classes to voice
+     * @param voices
+     *            the number of voices
+     * @param maxSpan
+     *            the largest span
+     * @param maxCopies
+     *            the most voices on one pitch class
+     * @param bass
+     *            pitch class of the bass, or -1
+     * @param lowTop
+     *            top of the low register
+     * @param lowInterval
+     *            smallest interval in the low register
+     * @return the number of valid voicings
+     */
+    private static long naiveCount(int pcs, int voices, int maxSpan,
+            int maxCopies, int bass, int lowTop, int lowInterval) {
+        long result = 0;
+        int width = MAX - MIN + 1;
+        for (long set = 0; set < 1L << width; set++) {
+            if (Long.bitCount(set) != voices) {
+                continue;
+            }
+            long mask = set << MIN;
+            int[] copies = new int[12];
+            boolean ok = true;
+            int previous = -1;
+            long remaining = mask;
+            while (remaining != 0) {
+                int p = Long.numberOfTrailingZeros(remaining);
+                copies[p % 12]++;
+                ok &= (pcs >>> (p % 12) & 1) != 0;
+                ok &= previous < 0 || previous >= lowTop
+                        || p - previous >= lowInterval;
+                previous = p;
+                remaining &= remaining - 1;
+            }
+            int lowest = Long.numberOfTrailingZeros(mask);
+            ok &= previous - lowest <= maxSpan;
+            ok &= bass < 0 || lowest % 12 == bass;
+            for (int pc = 0; pc < 12; pc++) {
+                ok &= copies[pc] <= maxCopies;
+                ok &= ((pcs >>> pc & 1) != 0) == (copies[pc] > 0);
+            }
+            if (ok) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testCountTriadClosed() {
+        VoicingGenerator g = generator(C_MAJOR);
+        assertEquals(naiveCount(C_MAJOR, 3, 127, 2, -1, 0, 0), g.count());
+    }
+
+    @Test
+    public void testCountFourVoices() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4);
+        assertEquals(naiveCount(C_MAJOR, 4, 127, 2, -1, 0, 0), g.count());
+    }
+
+    @Test
+    public void testCountWithSpan() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4).maxSpan(19);
+        assertEquals(naiveCount(C_MAJOR, 4, 19, 2, -1, 0, 0), g.count());
+    }
+
+    @Test
+    public void testCountWithBass() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4).bass(4);
+        assertEquals(naiveCount(C_MAJOR, 4, 127, 2, 4, 0, 0), g.count());
+    }
+
+    @Test
+    public void testCountWithLowIntervalLimit() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4)
+                .lowIntervalLimit("C3", 7);
+        assertEquals(naiveCount(C_MAJOR, 4, 127, 2, -1, 36, 7), g.count());
+    }
+
+    @Test
+    public void testCountWithMaxCopies() {
+        VoicingGenerator g = generator(C_MAJOR).voices(5).maxCopies(3);
+        assertEquals(naiveCount(C_MAJOR, 5, 127, 3, -1, 0, 0), g.count());
+    }
+
+    @Test
+    public void testNoDoubling() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4).noDoubling(1 << 4);
+        Iterator<Chord> it = g.iterator();
+        assertTrue(it.hasNext());
+        while (it.hasNext()) {
+            Chord c = it.next();
+            int thirds = 0;
+            for (int p = MIN + 4; p <= MAX; p += 12) {
+                if (c.containsPitch(p)) {
+                    thirds++;
+                }
+            }
+            assertEquals(1, thirds);
+        }
+    }
+
+    @Test
+    public void testIteratorMatchesCount() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4).maxSpan(24);
+        Iterator<Chord> it = g.iterator();
+        long n = 0;
+        Chord previous = null;
+        while (it.hasNext()) {
+            Chord c = it.next();
+            assertEquals(4, c.size());
+            assertEquals(C_MAJOR, PitchClassSet.of(c));
+            assertEquals("C2", c.min());
+            assertEquals("C4", c.max());
+            if (previous != null) {
+                assertFalse(previous.equals(c));
+                assertTrue(c.pitchMask(0) >>> MIN > 0);
+                assertTrue(Long.numberOfTrailingZeros(previous
+                        .pitchMask(0)) <= Long.numberOfTrailingZeros(c
+                                .pitchMask(0)));
+            }
+            previous = c;
+            n++;
+        }
+        assertEquals(g.count(), n);
+    }
+
+    @Test
+    public void testFirstVoicing() {
+        VoicingGenerator g = generator(C_MAJOR);
+        Chord first = g.iterator().next();
+        Chord expected = new Chord2("C2", "C4");
+        expected.add("C2");
+        expected.add("E2");
+        expected.add("G2");
+        assertEquals(expected, first);
+    }
+
+    @Test
+    public void testStreamMatchesIterator() {
+        VoicingGenerator g = generator(C_MAJOR).voices(4);
+        List<Chord> fromIterator = new ArrayList<>();
+        Iterator<Chord> it = g.iterator();
+        while (it.hasNext()) {
+            fromIterator.add(it.next());
+        }
+        assertEquals(fromIterator, g.stream().collect(Collectors.toList()));
+        assertEquals(fromIterator,
+                g.stream().parallel().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testParallelCount() {
+        VoicingGenerator g = new VoicingGenerator(new Chord2("C1", "C6"),
+                C_MAJOR | 1 << 10).voices(5).maxSpan(24);
+        assertEquals(g.count(), g.stream().parallel().count());
+    }
+
+    @Test
+    public void testImpossible() {
+        VoicingGenerator g = generator(C_MAJOR).maxSpan(3);
+        assertEquals(0, g.count());
+        assertFalse(g.iterator().hasNext());
+        assertEquals(0, g.stream().parallel().count());
+    }
+
+}